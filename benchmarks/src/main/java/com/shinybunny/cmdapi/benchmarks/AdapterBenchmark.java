@@ -0,0 +1,131 @@
+package com.shinybunny.cmdapi.benchmarks;
+
+import com.shinybunny.cmdapi.CommandBase;
+import com.shinybunny.cmdapi.CommandContext;
+import com.shinybunny.cmdapi.CommandManager;
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.arguments.BooleanAdapter;
+import com.shinybunny.cmdapi.arguments.NumberAdapter;
+import com.shinybunny.cmdapi.utils.InputReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each built-in {@link com.shinybunny.cmdapi.arguments.ArgumentAdapter} parsing a single value, through the boxing
+ * {@link com.shinybunny.cmdapi.arguments.ArgumentAdapter#parse parse} and, where there is one, its primitive parse method.<br/>
+ * Every operation includes creating the {@link InputReader}, like parsing an input does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AdapterBenchmark {
+
+    private CommandContext diceCtx;
+    private CommandContext paintCtx;
+    private CommandContext sayCtx;
+    private CommandContext coinsCtx;
+    private Argument min;
+    private Argument opacity;
+    private Argument glossy;
+    private Argument color;
+    private Argument message;
+    private Argument sender;
+    private Argument subCommand;
+    private NumberAdapter numbers;
+    private BooleanAdapter booleans;
+
+    @Setup
+    public void setup() throws Exception {
+        CommandManager manager = Fixtures.manager();
+        CommandBase dice = manager.getCommand("dice");
+        CommandBase paint = manager.getCommand("paint");
+        CommandBase say = manager.getCommand("say");
+        CommandBase coins = manager.getCommand("coins");
+        diceCtx = new CommandContext("dice", dice, Fixtures.SILENT, "dice 4");
+        paintCtx = new CommandContext("paint", paint, Fixtures.SILENT, "paint GREEN true 0.75");
+        sayCtx = new CommandContext("say", say, Fixtures.SILENT, "say hello there general kenobi");
+        coinsCtx = new CommandContext("coins", coins, Fixtures.SILENT, "coins add 5");
+        min = argument(dice, "min");
+        // the sender parameter has no @Arg name
+        sender = dice.getArguments().get(0);
+        opacity = argument(paint, "opacity");
+        glossy = argument(paint, "glossy");
+        color = argument(paint, "color");
+        message = argument(say, "message");
+        subCommand = argument(coins, "sub command");
+        numbers = (NumberAdapter) min.getAdapter();
+        booleans = (BooleanAdapter) glossy.getAdapter();
+    }
+
+    private static Argument argument(CommandBase cmd, String name) {
+        for (Argument arg : cmd.getArguments()) {
+            if (arg.getName().equals(name)) {
+                return arg;
+            }
+        }
+        throw new IllegalArgumentException(cmd.getName() + " has no argument " + name);
+    }
+
+    @Benchmark
+    public Object intBoxed() throws Exception {
+        return min.parse(new InputReader("4"), diceCtx);
+    }
+
+    @Benchmark
+    public int intPrimitive() throws Exception {
+        return numbers.parseInt(new InputReader("4"), min, diceCtx);
+    }
+
+    @Benchmark
+    public Object doubleBoxed() throws Exception {
+        return opacity.parse(new InputReader("0.75"), paintCtx);
+    }
+
+    @Benchmark
+    public double doublePrimitive() throws Exception {
+        return numbers.parseDouble(new InputReader("0.75"), opacity, paintCtx);
+    }
+
+    @Benchmark
+    public Object booleanBoxed() throws Exception {
+        return glossy.parse(new InputReader("true"), paintCtx);
+    }
+
+    @Benchmark
+    public boolean booleanPrimitive() throws Exception {
+        return booleans.parseBoolean(new InputReader("true"), glossy, paintCtx);
+    }
+
+    @Benchmark
+    public Object enumConstant() throws Exception {
+        return color.parse(new InputReader("GREEN"), paintCtx);
+    }
+
+    @Benchmark
+    public Object stringMultiWord() throws Exception {
+        return message.parse(new InputReader("hello there general kenobi"), sayCtx);
+    }
+
+    @Benchmark
+    public Object senderOutOfSyntax() {
+        return sender.getOutOfSyntax(diceCtx);
+    }
+
+    @Benchmark
+    public Object subCommand() throws Exception {
+        return subCommand.parse(new InputReader("add 5"), coinsCtx);
+    }
+}
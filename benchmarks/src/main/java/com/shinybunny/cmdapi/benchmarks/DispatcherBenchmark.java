@@ -0,0 +1,101 @@
+package com.shinybunny.cmdapi.benchmarks;
+
+import com.shinybunny.cmdapi.CommandDispatcher;
+import com.shinybunny.cmdapi.CommandManager;
+import com.shinybunny.cmdapi.utils.CommandResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatching a batch of inputs through a {@link CommandDispatcher} and waiting for all of them,
+ * with a growing number of keys and executor threads, from a single producer and from a producer on every core.<br/>
+ * Throughput is of single commands.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatcherBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @Param({"1", "16", "256"})
+    public int keys;
+
+    /**
+     * The number of threads of the executor, where 0 is the number of available cores
+     */
+    @Param({"1", "4", "0"})
+    public int threads;
+
+    private ExecutorService executor;
+    private CommandDispatcher dispatcher;
+    private Integer[] keyObjects;
+
+    /**
+     * The futures of the batch of each producer thread
+     */
+    @State(Scope.Thread)
+    public static class Producer {
+        private final CompletableFuture<?>[] futures = new CompletableFuture<?>[BATCH];
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        CommandManager manager = Fixtures.manager();
+        int poolSize = threads == 0 ? Runtime.getRuntime().availableProcessors() : threads;
+        executor = Executors.newFixedThreadPool(poolSize);
+        dispatcher = new CommandDispatcher(manager, executor, poolSize * 4);
+        keyObjects = new Integer[keys];
+        for (int i = 0; i < keys; i++) {
+            keyObjects[i] = i;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void dispatchBatch(Producer producer) {
+        dispatch(producer);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    @Threads(Threads.MAX)
+    public void dispatchBatchFromAllCores(Producer producer) {
+        dispatch(producer);
+    }
+
+    private void dispatch(Producer producer) {
+        CompletableFuture<?>[] futures = producer.futures;
+        for (int i = 0; i < BATCH; i++) {
+            CompletableFuture<CommandResult> future = dispatcher.dispatch(keyObjects[i % keys], Fixtures.SILENT, "coins add 5");
+            futures[i] = future;
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+}
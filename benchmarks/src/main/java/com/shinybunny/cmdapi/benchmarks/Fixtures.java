@@ -0,0 +1,86 @@
+package com.shinybunny.cmdapi.benchmarks;
+
+import com.shinybunny.cmdapi.CommandManager;
+import com.shinybunny.cmdapi.Sender;
+import com.shinybunny.cmdapi.annotations.Arg;
+import com.shinybunny.cmdapi.annotations.MultiWord;
+import com.shinybunny.cmdapi.arguments.EnumAdapter;
+import com.shinybunny.cmdapi.exceptions.DuplicateAliasException;
+import com.shinybunny.cmdapi.exceptions.IncompatibleAnnotationException;
+import com.shinybunny.cmdapi.exceptions.NoAdapterFoundException;
+import com.shinybunny.cmdapi.test.Commands;
+import com.shinybunny.cmdapi.utils.CommandResult;
+
+/**
+ * The commands and senders shared by the benchmarks.
+ */
+public final class Fixtures {
+
+    /**
+     * A sender that drops every message, so benchmarks measure the commands and not printing.
+     */
+    public static final Sender SILENT = new Sender() {
+        @Override
+        public void sendMessage(String msg) {
+        }
+
+        @Override
+        public void sendMessage(String msg, Object... formatArgs) {
+        }
+
+        @Override
+        public void fail(String msg) {
+        }
+
+        @Override
+        public void success(String msg) {
+        }
+    };
+
+    public enum Color {
+        RED, GREEN, BLUE
+    }
+
+    /**
+     * Commands covering the argument types not in {@link Commands}
+     */
+    public static class BenchCommands {
+
+        public CommandResult ping(Sender sender) {
+            return CommandResult.success;
+        }
+
+        public CommandResult say(Sender sender, @Arg("message") @MultiWord String message) {
+            sender.sendMessage(message);
+            return CommandResult.success;
+        }
+
+        public CommandResult paint(Sender sender, @Arg("color") Color color, @Arg("glossy") boolean glossy, @Arg("opacity") double opacity) {
+            return CommandResult.success;
+        }
+    }
+
+    private Fixtures() {
+    }
+
+    /**
+     * @return A manager with {@link Commands}, {@link Commands.CoinsCommand} and {@link BenchCommands} registered, and enums supported.
+     */
+    public static CommandManager manager() throws IncompatibleAnnotationException, NoAdapterFoundException, DuplicateAliasException {
+        return manager(false);
+    }
+
+    /**
+     * @param specializing Whether the commands are parsed by generated {@link com.shinybunny.cmdapi.nodes.SpecializedParser}s
+     * @return A manager with {@link Commands}, {@link Commands.CoinsCommand} and {@link BenchCommands} registered, and enums supported.
+     */
+    public static CommandManager manager(boolean specializing) throws IncompatibleAnnotationException, NoAdapterFoundException, DuplicateAliasException {
+        CommandManager manager = new CommandManager();
+        manager.setSpecializing(specializing);
+        manager.registerArgumentAdapter(new EnumAdapter());
+        manager.register(new Commands());
+        manager.register(new Commands.CoinsCommand());
+        manager.register(new BenchCommands());
+        return manager;
+    }
+}
@@ -0,0 +1,69 @@
+package com.shinybunny.cmdapi.benchmarks;
+
+import com.shinybunny.cmdapi.CommandBase;
+import com.shinybunny.cmdapi.CommandManager;
+import com.shinybunny.cmdapi.utils.CommandResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking up a command by its alias, with a growing number of registered commands.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GetCommandBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int commands;
+
+    private CommandManager manager;
+    private String hit;
+    private String hitOtherCase;
+    private String input;
+
+    @Setup
+    public void setup() throws Exception {
+        manager = new CommandManager();
+        for (int i = 0; i < commands; i++) {
+            manager.createCommand("command" + i).aliases("alias" + i).build(ctx -> CommandResult.success);
+        }
+        hit = "alias" + (commands / 2);
+        hitOtherCase = hit.toUpperCase();
+        input = hit + " some arguments";
+    }
+
+    @Benchmark
+    public CommandBase getCommand() {
+        return manager.getCommand(hit);
+    }
+
+    @Benchmark
+    public CommandBase getCommandIgnoringCase() {
+        return manager.getCommand(hitOtherCase);
+    }
+
+    @Benchmark
+    public CommandBase getCommandFromInput() {
+        return manager.getCommand(input, 0, hit.length());
+    }
+
+    @Benchmark
+    public CommandBase getCommandMiss() {
+        return manager.getCommand("missing");
+    }
+}
@@ -0,0 +1,75 @@
+package com.shinybunny.cmdapi.benchmarks;
+
+import com.shinybunny.cmdapi.CommandBase;
+import com.shinybunny.cmdapi.CommandContext;
+import com.shinybunny.cmdapi.CommandManager;
+import com.shinybunny.cmdapi.test.Commands;
+import com.shinybunny.cmdapi.utils.CommandResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link com.shinybunny.cmdapi.MethodCommand#run(CommandContext)} on already parsed inputs,
+ * against calling the same methods through {@link Method#invoke(Object, Object...)} with the arguments boxed into an array, like the commands used to run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InvocationBenchmark {
+
+    private CommandBase ping;
+    private CommandBase dice;
+    private CommandContext pingCtx;
+    private CommandContext diceCtx;
+    private Method pingMethod;
+    private Method diceMethod;
+    private Object benchCommands;
+    private Object commands;
+
+    @Setup
+    public void setup() throws Exception {
+        CommandManager manager = Fixtures.manager();
+        pingCtx = manager.parse(Fixtures.SILENT, "ping").getContext();
+        diceCtx = manager.parse(Fixtures.SILENT, "dice 1 6 1").getContext();
+        ping = pingCtx.getCommand();
+        dice = diceCtx.getCommand();
+        benchCommands = new Fixtures.BenchCommands();
+        commands = new Commands();
+        pingMethod = Fixtures.BenchCommands.class.getMethod("ping", com.shinybunny.cmdapi.Sender.class);
+        diceMethod = Commands.class.getMethod("dice", com.shinybunny.cmdapi.Sender.class, int.class, int.class, int.class);
+    }
+
+    @Benchmark
+    public CommandResult runNoArguments() throws Exception {
+        return ping.run(pingCtx);
+    }
+
+    @Benchmark
+    public Object reflectiveNoArguments() throws Exception {
+        return pingMethod.invoke(benchCommands, pingCtx.getSender());
+    }
+
+    @Benchmark
+    public CommandResult runDice() throws Exception {
+        return dice.run(diceCtx);
+    }
+
+    @Benchmark
+    public Object reflectiveDice() throws Exception {
+        return diceMethod.invoke(commands, diceCtx.getSender(), diceCtx.getInt("min"), diceCtx.getInt("max"), diceCtx.getInt("rolls"));
+    }
+}
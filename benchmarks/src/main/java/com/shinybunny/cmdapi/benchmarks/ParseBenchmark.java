@@ -0,0 +1,89 @@
+package com.shinybunny.cmdapi.benchmarks;
+
+import com.shinybunny.cmdapi.CommandManager;
+import com.shinybunny.cmdapi.ParseOutcome;
+import com.shinybunny.cmdapi.ParseResults;
+import com.shinybunny.cmdapi.utils.CommandResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing whole inputs, and parsing and executing them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    /**
+     * Whether the commands are parsed by their generated specialized parsers, or by walking their nodes
+     */
+    @Param({"false", "true"})
+    public boolean specialized;
+
+    private CommandManager manager;
+
+    @Setup
+    public void setup() throws Exception {
+        manager = Fixtures.manager(specialized);
+    }
+
+    @Benchmark
+    public ParseResults diceAllArguments() throws Exception {
+        return manager.parse(Fixtures.SILENT, "dice 1 6 2");
+    }
+
+    @Benchmark
+    public ParseResults diceDefaults() throws Exception {
+        return manager.parse(Fixtures.SILENT, "dice");
+    }
+
+    @Benchmark
+    public ParseResults treeDispatch() throws Exception {
+        return manager.parse(Fixtures.SILENT, "coins add 5");
+    }
+
+    @Benchmark
+    public ParseResults multiWord() throws Exception {
+        return manager.parse(Fixtures.SILENT, "say hello there general kenobi");
+    }
+
+    @Benchmark
+    public ParseResults mixedArguments() throws Exception {
+        return manager.parse(Fixtures.SILENT, "paint GREEN true 0.75");
+    }
+
+    @Benchmark
+    public ParseOutcome invalidInput() {
+        return manager.tryParse(Fixtures.SILENT, "coins add 0");
+    }
+
+    @Benchmark
+    public CommandResult parseAndExecuteNoArguments() throws Exception {
+        return manager.parse(Fixtures.SILENT, "ping").execute();
+    }
+
+    @Benchmark
+    public CommandResult parseAndExecuteDice() throws Exception {
+        return manager.parse(Fixtures.SILENT, "dice 1 6 2").execute();
+    }
+
+    @Benchmark
+    public CommandResult parseAndExecuteTree() throws Exception {
+        return manager.parse(Fixtures.SILENT, "coins add 5").execute();
+    }
+}
@@ -0,0 +1,404 @@
+package com.shinybunny.cmdapi.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a <code>HolderRegistry</code> for every command holder class, so registering it creates its commands without reflection.<br/>
+ * A holder is any class with an element annotated with one of the command annotations: a tree command class annotated with <code>@Command</code>,
+ * or a class with a method annotated with <code>@Command</code> or <code>@DontRegister</code>, or a parameter annotated with <code>@Arg</code>,
+ * <code>@Default</code>, <code>@Range</code>, <code>@Optional</code> or <code>@MultiWord</code>.
+ * <br/>
+ * The generated registry creates the same commands scanning the class at runtime would,
+ * with the argument names taken from the source, so they don't depend on compiling with <code>-parameters</code>,
+ * and calls the command methods directly.
+ * For <code>CommandManager.setLazyRegistration(true)</code> it also creates the lazy commands with their names, without scanning the class.
+ * A holder the generated code can't access, like a private class or a class with private command methods, gets no registry, and is still scanned at runtime.
+ */
+@SupportedAnnotationTypes({
+        CommandProcessor.ANNOTATIONS + "Command",
+        CommandProcessor.ANNOTATIONS + "DontRegister",
+        CommandProcessor.ANNOTATIONS + "DefaultSubCommand",
+        CommandProcessor.ANNOTATIONS + "Arg",
+        CommandProcessor.ANNOTATIONS + "Default",
+        CommandProcessor.ANNOTATIONS + "Range",
+        CommandProcessor.ANNOTATIONS + "Optional",
+        CommandProcessor.ANNOTATIONS + "MultiWord"
+})
+public class CommandProcessor extends AbstractProcessor {
+
+    static final String ANNOTATIONS = "com.shinybunny.cmdapi.annotations.";
+    private static final String API = "com.shinybunny.cmdapi.";
+    private static final String SUFFIX = "_HolderRegistry";
+
+    /**
+     * The holders a registry was generated for, or skipped, in an earlier round
+     */
+    private final Set<String> done = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> holders = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element e : roundEnv.getElementsAnnotatedWith(annotation)) {
+                TypeElement holder = holderOf(e);
+                if (holder != null) {
+                    holders.add(holder);
+                }
+            }
+        }
+        for (TypeElement holder : holders) {
+            if (done.add(holder.getQualifiedName().toString()) && isSupported(holder)) {
+                try {
+                    generate(holder);
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can't generate the command registry: " + e, holder);
+                }
+            }
+        }
+        // the annotations are still read reflectively by holders that got no registry
+        return false;
+    }
+
+    private static TypeElement holderOf(Element e) {
+        if (e.getKind() == ElementKind.PARAMETER) {
+            e = e.getEnclosingElement();
+        }
+        if (e.getKind() == ElementKind.METHOD || e.getKind() == ElementKind.CONSTRUCTOR) {
+            e = e.getEnclosingElement();
+        }
+        return e.getKind() == ElementKind.CLASS ? (TypeElement) e : null;
+    }
+
+    private boolean isTree(TypeElement holder) {
+        return annotation(holder, "Command") != null;
+    }
+
+    /**
+     * Whether the generated registry can access the holder class, its command methods and all types they use.
+     * Prints a note for a holder that can't get a registry.
+     */
+    private boolean isSupported(TypeElement holder) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(holder);
+        String reason = null;
+        if (holder.getNestingKind() != NestingKind.TOP_LEVEL && holder.getNestingKind() != NestingKind.MEMBER) {
+            reason = "it's a local or anonymous class";
+        } else if (!isAccessible(holder, pkg)) {
+            reason = "it's not accessible from its package";
+        } else {
+            for (ExecutableElement m : commandMethods(holder)) {
+                if (m.getModifiers().contains(Modifier.PRIVATE)) {
+                    reason = "its command method " + m.getSimpleName() + " is private";
+                } else if (!usesAccessibleTypes(m, pkg)) {
+                    reason = "its command method " + m.getSimpleName() + " uses a type that is not accessible from its package";
+                }
+            }
+            ExecutableElement defaultConstructor = defaultSubCommand(holder);
+            if (defaultConstructor != null) {
+                if (holder.getNestingKind() == NestingKind.MEMBER && !holder.getModifiers().contains(Modifier.STATIC)) {
+                    reason = "its default sub command is the constructor of an inner class";
+                } else if (!usesAccessibleTypes(defaultConstructor, pkg)) {
+                    reason = "its default sub command uses a type that is not accessible from its package";
+                }
+            }
+        }
+        if (reason != null) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "No command registry generated for " + holder.getQualifiedName() + ", as " + reason + ". It will be scanned at runtime.", holder);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean usesAccessibleTypes(ExecutableElement m, PackageElement pkg) {
+        for (VariableElement p : m.getParameters()) {
+            if (!isAccessible(p.asType(), pkg)) return false;
+            for (AnnotationMirror a : runtimeAnnotations(p)) {
+                if (!isAccessible(a.getAnnotationType(), pkg)) return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAccessible(TypeMirror type, PackageElement pkg) {
+        type = processingEnv.getTypeUtils().erasure(type);
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isAccessible(((ArrayType) type).getComponentType(), pkg);
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            return isAccessible((TypeElement) ((DeclaredType) type).asElement(), pkg);
+        }
+        return true;
+    }
+
+    private boolean isAccessible(TypeElement type, PackageElement pkg) {
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            Set<Modifier> modifiers = e.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) return false;
+            if (!modifiers.contains(Modifier.PUBLIC) && !processingEnv.getElementUtils().getPackageOf(e).equals(pkg)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * The methods registered as commands, like at runtime: all declared methods that are not static and not annotated with <code>@DontRegister</code>.
+     */
+    private List<ExecutableElement> commandMethods(TypeElement holder) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement m : ElementFilter.methodsIn(holder.getEnclosedElements())) {
+            if (!m.getModifiers().contains(Modifier.STATIC) && annotation(m, "DontRegister") == null) {
+                methods.add(m);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * @return The last public constructor annotated with <code>@DefaultSubCommand</code>, like at runtime, or <code>null</code>.
+     */
+    private ExecutableElement defaultSubCommand(TypeElement holder) {
+        if (!isTree(holder)) return null;
+        ExecutableElement found = null;
+        for (ExecutableElement c : ElementFilter.constructorsIn(holder.getEnclosedElements())) {
+            if (c.getModifiers().contains(Modifier.PUBLIC) && annotation(c, "DefaultSubCommand") != null) {
+                found = c;
+            }
+        }
+        return found;
+    }
+
+    private static AnnotationMirror annotation(Element e, String simpleName) {
+        for (AnnotationMirror a : e.getAnnotationMirrors()) {
+            if (((TypeElement) a.getAnnotationType().asElement()).getQualifiedName().contentEquals(ANNOTATIONS + simpleName)) {
+                return a;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The annotations of an element that can be read reflectively, so the generated arguments get the same annotations.
+     */
+    private static List<AnnotationMirror> runtimeAnnotations(Element e) {
+        List<AnnotationMirror> list = new ArrayList<>();
+        for (AnnotationMirror a : e.getAnnotationMirrors()) {
+            java.lang.annotation.Retention retention = a.getAnnotationType().asElement().getAnnotation(java.lang.annotation.Retention.class);
+            if (retention != null && retention.value() == RetentionPolicy.RUNTIME) {
+                list.add(a);
+            }
+        }
+        return list;
+    }
+
+    private void generate(TypeElement holder) throws IOException {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(holder);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String holderName = holder.getQualifiedName().toString();
+        String simpleName = (packageName.isEmpty() ? holderName : holderName.substring(packageName.length() + 1)).replace('.', '_') + SUFFIX;
+        String holderType = erasure(holder.asType());
+        List<ExecutableElement> methods = commandMethods(holder);
+        ExecutableElement defaultConstructor = defaultSubCommand(holder);
+
+        Writer writer = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? simpleName : packageName + "." + simpleName, holder).openWriter();
+        try (PrintWriter out = new PrintWriter(writer)) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("/**");
+            out.println(" * Creates the commands of {@link " + holderName + "} without reflection. Generated by " + CommandProcessor.class.getName() + ".");
+            out.println(" */");
+            out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            out.println("public final class " + simpleName + " implements " + API + "HolderRegistry<" + holderType + "> {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public java.util.List<" + API + "CommandBase> createCommands(" + API + "CommandManager manager, " + holderType + " holder) throws " + API + "exceptions.IncompatibleAnnotationException, " + API + "exceptions.NoAdapterFoundException {");
+            out.println("        java.util.List<" + API + "MethodCommand> cmds = new java.util.ArrayList<>(" + methods.size() + ");");
+            for (int i = 0; i < methods.size(); i++) {
+                out.println("        cmds.add(command" + i + "(manager, holder));");
+            }
+            if (isTree(holder)) {
+                out.println("        " + API + "arguments.SubCommandAdapter subCommands = new " + API + "arguments.SubCommandAdapter(cmds, " + (defaultConstructor == null ? "null" : "defaultCommand(manager, holder)") + ");");
+                out.println("        return java.util.Collections.singletonList(new " + API + "MethodCommand(manager, holder, " + annotationLiteral(annotation(holder, "Command"), "        ") + ", subCommands));");
+            } else {
+                out.println("        return new java.util.ArrayList<" + API + "CommandBase>(cmds);");
+            }
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public java.util.List<" + API + "CommandBase> createLazyCommands(final " + API + "CommandManager manager, final " + holderType + " holder) {");
+            if (isTree(holder)) {
+                out.println("        " + API + "annotations.Command settings = " + annotationLiteral(annotation(holder, "Command"), "        ") + ";");
+                out.println("        return java.util.Collections.singletonList(new " + API + "LazyCommand(manager, " + API + "MethodCommand.treeName(" + holderType + ".class, settings), holder, settings, () -> createCommands(manager, holder).get(0)));");
+            } else {
+                out.println("        java.util.List<" + API + "CommandBase> cmds = new java.util.ArrayList<>(" + methods.size() + ");");
+                for (int i = 0; i < methods.size(); i++) {
+                    ExecutableElement m = methods.get(i);
+                    AnnotationMirror settings = annotation(m, "Command");
+                    String name = settings == null ? "" : (String) elementValue(settings, "name");
+                    out.println("        cmds.add(new " + API + "LazyCommand(manager, " + constant(name.isEmpty() ? m.getSimpleName().toString() : name) + ", holder, "
+                            + (settings == null ? "null" : annotationLiteral(settings, "        ")) + ", () -> command" + i + "(manager, holder)));");
+                }
+                out.println("        return cmds;");
+            }
+            out.println("    }");
+            for (int i = 0; i < methods.size(); i++) {
+                ExecutableElement m = methods.get(i);
+                AnnotationMirror settings = annotation(m, "Command");
+                String call = "holder." + m.getSimpleName() + "(" + invocationArguments(m) + ")";
+                generateCommand(out, "command" + i, holderType, m, "\"" + m.getSimpleName() + "\"", settings == null ? "null" : annotationLiteral(settings, "        "),
+                        m.getReturnType().getKind() == TypeKind.VOID ? "{ " + call + "; return null; }" : call);
+            }
+            if (defaultConstructor != null) {
+                generateCommand(out, "defaultCommand", holderType, defaultConstructor, "\"_default\"", "null",
+                        "new " + holderType + "(" + invocationArguments(defaultConstructor) + ")");
+            }
+            out.println();
+            out.println("    private static " + API + "arguments.Argument argument(" + API + "CommandManager manager, String name, java.lang.annotation.Annotation[] annotations, Class<?> type) throws " + API + "exceptions.IncompatibleAnnotationException, " + API + "exceptions.NoAdapterFoundException {");
+            out.println("        return new " + API + "arguments.ParameterArgument(manager, name, annotations, type, manager.getArgumentAdapter(type));");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private void generateCommand(PrintWriter out, String factory, String holderType, ExecutableElement m, String name, String settings, String body) {
+        List<? extends VariableElement> params = m.getParameters();
+        out.println();
+        out.println("    private static " + API + "MethodCommand " + factory + "(" + API + "CommandManager manager, final " + holderType + " holder) throws " + API + "exceptions.IncompatibleAnnotationException, " + API + "exceptions.NoAdapterFoundException {");
+        for (int i = 0; i < params.size(); i++) {
+            VariableElement p = params.get(i);
+            StringBuilder annotations = new StringBuilder();
+            for (AnnotationMirror a : runtimeAnnotations(p)) {
+                annotations.append(annotations.length() == 0 ? "" : ", ").append(annotationLiteral(a, "        "));
+            }
+            out.println("        final " + API + "arguments.Argument a" + i + " = argument(manager, " + constant(p.getSimpleName().toString())
+                    + ", new java.lang.annotation.Annotation[] {" + annotations + "}, " + boxed(p.asType()) + ".class);");
+        }
+        StringBuilder args = new StringBuilder();
+        for (int i = 0; i < params.size(); i++) {
+            args.append(", a").append(i);
+        }
+        out.println("        return new " + API + "MethodCommand(manager, " + name + ", holder, " + settings + ", java.util.Arrays.<" + API + "arguments.Argument>asList(" + (args.length() == 0 ? "" : args.substring(2)) + "), ctx -> " + body + ");");
+        out.println("    }");
+    }
+
+    /**
+     * Reads every parameter from the context, with the primitive getters for the parameter types that have them, like the invoker of a reflected method.
+     */
+    private String invocationArguments(ExecutableElement m) {
+        StringBuilder sb = new StringBuilder();
+        List<? extends VariableElement> params = m.getParameters();
+        for (int i = 0; i < params.size(); i++) {
+            if (i > 0) sb.append(", ");
+            TypeKind kind = params.get(i).asType().getKind();
+            if (kind == TypeKind.INT) {
+                sb.append("ctx.getInt(a").append(i).append(")");
+            } else if (kind == TypeKind.LONG) {
+                sb.append("ctx.getLong(a").append(i).append(")");
+            } else if (kind == TypeKind.DOUBLE) {
+                sb.append("ctx.getDouble(a").append(i).append(")");
+            } else if (kind == TypeKind.BOOLEAN) {
+                sb.append("ctx.getBoolean(a").append(i).append(")");
+            } else {
+                sb.append("(").append(boxed(params.get(i).asType())).append(") ctx.get(a").append(i).append(")");
+            }
+        }
+        return sb.toString();
+    }
+
+    private Object elementValue(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+            if (e.getKey().getSimpleName().contentEquals(name)) {
+                return e.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private String boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString();
+        }
+        return erasure(type);
+    }
+
+    private String constant(Object value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    /**
+     * Writes an expression creating an instance of the annotation with the same values, as an anonymous class implementing the annotation interface.
+     * Every element is implemented, including the ones with default values.<br/>
+     * The instances don't implement {@link java.lang.annotation.Annotation#equals(Object) equals} and {@link java.lang.annotation.Annotation#hashCode() hashCode} like reflected annotations,
+     * which the adapters don't rely on.
+     */
+    private String annotationLiteral(AnnotationMirror mirror, String indent) {
+        String type = erasure(mirror.getAnnotationType());
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+        StringBuilder sb = new StringBuilder("new ").append(type).append("() {\n");
+        sb.append(indent).append("    public Class<? extends java.lang.annotation.Annotation> annotationType() { return ").append(type).append(".class; }\n");
+        for (ExecutableElement element : ElementFilter.methodsIn(mirror.getAnnotationType().asElement().getEnclosedElements())) {
+            AnnotationValue value = values.get(element);
+            sb.append(indent).append("    public ").append(element.getReturnType()).append(" ").append(element.getSimpleName()).append("() { return ")
+                    .append(valueLiteral(value.getValue(), element.getReturnType(), indent + "    ")).append("; }\n");
+        }
+        return sb.append(indent).append("}").toString();
+    }
+
+    private String valueLiteral(Object value, TypeMirror type, String indent) {
+        if (value instanceof VariableElement) {
+            VariableElement constant = (VariableElement) value;
+            return ((TypeElement) constant.getEnclosingElement()).getQualifiedName() + "." + constant.getSimpleName();
+        } else if (value instanceof TypeMirror) {
+            return erasure((TypeMirror) value) + ".class";
+        } else if (value instanceof AnnotationMirror) {
+            return annotationLiteral((AnnotationMirror) value, indent);
+        } else if (value instanceof List) {
+            TypeMirror component = ((ArrayType) type).getComponentType();
+            StringBuilder sb = new StringBuilder("new ").append(erasure(component)).append("[] {");
+            boolean first = true;
+            for (Object o : (List<?>) value) {
+                sb.append(first ? "" : ", ").append(valueLiteral(((AnnotationValue) o).getValue(), component, indent));
+                first = false;
+            }
+            return sb.append("}").toString();
+        }
+        return constant(value);
+    }
+}
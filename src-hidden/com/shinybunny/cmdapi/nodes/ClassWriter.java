@@ -0,0 +1,336 @@
+package com.shinybunny.cmdapi.nodes;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the bytes of a class file, with only the constants and instructions the classes of {@link HiddenClassGenerator} use.<br/>
+ * Constants are added to the pool when first used, and reused after that.
+ */
+final class ClassWriter {
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    static final int ACONST_NULL = 0x01;
+    static final int ICONST_0 = 0x03;
+    static final int ICONST_1 = 0x04;
+    static final int SIPUSH = 0x11;
+    static final int LDC_W = 0x13;
+    static final int LDC2_W = 0x14;
+    static final int ALOAD_0 = 0x2a;
+    static final int ALOAD_1 = 0x2b;
+    static final int ALOAD_2 = 0x2c;
+    static final int AALOAD = 0x32;
+    static final int POP = 0x57;
+    static final int DUP = 0x59;
+    static final int ARETURN = 0xb0;
+    static final int RETURN = 0xb1;
+    static final int GETFIELD = 0xb4;
+    static final int PUTFIELD = 0xb5;
+    static final int INVOKEVIRTUAL = 0xb6;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int INVOKESTATIC = 0xb8;
+    static final int CHECKCAST = 0xc0;
+    static final int IFNONNULL = 0xc7;
+
+    /**
+     * The class file version of Java 15
+     */
+    private static final int VERSION = 59;
+
+    private final Bytes pool = new Bytes();
+    private int poolCount = 1;
+    /**
+     * The indexes of the constants in the pool, by their kind and value
+     */
+    private final Map<String, Integer> constants = new HashMap<>();
+    private final int thisClass;
+    private final int superClass;
+    private final int[] interfaces;
+    private final Bytes fields = new Bytes();
+    private int fieldCount;
+    private final Bytes methods = new Bytes();
+    private int methodCount;
+
+    /**
+     * @param name The internal name of the class, like <code>com/shinybunny/cmdapi/nodes/MyClass</code>
+     * @param interfaces The internal names of the interfaces it implements
+     */
+    ClassWriter(String name, String... interfaces) {
+        this.thisClass = classRef(name);
+        this.superClass = classRef("java/lang/Object");
+        this.interfaces = new int[interfaces.length];
+        for (int i = 0; i < interfaces.length; i++) {
+            this.interfaces[i] = classRef(interfaces[i]);
+        }
+    }
+
+    int utf8(String s) {
+        Integer index = constants.get("U" + s);
+        if (index != null) return index;
+        pool.u1(1).utf(s);
+        return add("U" + s, 1);
+    }
+
+    /**
+     * @param internalName The internal name of a class, or the descriptor of an array type
+     */
+    int classRef(String internalName) {
+        Integer index = constants.get("C" + internalName);
+        if (index != null) return index;
+        int name = utf8(internalName);
+        pool.u1(7).u2(name);
+        return add("C" + internalName, 1);
+    }
+
+    int string(String s) {
+        Integer index = constants.get("S" + s);
+        if (index != null) return index;
+        int value = utf8(s);
+        pool.u1(8).u2(value);
+        return add("S" + s, 1);
+    }
+
+    int integer(int value) {
+        Integer index = constants.get("I" + value);
+        if (index != null) return index;
+        pool.u1(3).u4(value);
+        return add("I" + value, 1);
+    }
+
+    int longConst(long value) {
+        Integer index = constants.get("J" + value);
+        if (index != null) return index;
+        pool.u1(5).u8(value);
+        // a long takes two entries of the pool
+        return add("J" + value, 2);
+    }
+
+    int doubleConst(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        Integer index = constants.get("D" + bits);
+        if (index != null) return index;
+        pool.u1(6).u8(bits);
+        return add("D" + bits, 2);
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+        return memberRef(9, owner, name, descriptor);
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        return memberRef(10, owner, name, descriptor);
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        String key = tag + owner + ";" + name + ";" + descriptor;
+        Integer index = constants.get(key);
+        if (index != null) return index;
+        int ownerIndex = classRef(owner);
+        int nameAndType = nameAndType(name, descriptor);
+        pool.u1(tag).u2(ownerIndex).u2(nameAndType);
+        return add(key, 1);
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        String key = "N" + name + ";" + descriptor;
+        Integer index = constants.get(key);
+        if (index != null) return index;
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        pool.u1(12).u2(nameIndex).u2(descriptorIndex);
+        return add(key, 1);
+    }
+
+    private int add(String key, int size) {
+        int index = poolCount;
+        poolCount += size;
+        if (poolCount > 0xffff) {
+            throw new IllegalArgumentException("Too many constants");
+        }
+        constants.put(key, index);
+        return index;
+    }
+
+    void field(int access, String name, String descriptor) {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        fields.u2(access).u2(nameIndex).u2(descriptorIndex).u2(0);
+        fieldCount++;
+    }
+
+    void method(int access, String name, String descriptor, Code code) {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        int codeName = utf8("Code");
+        int stackMapName = code.frameCount == 0 ? 0 : utf8("StackMapTable");
+        if (code.bytes.length > 0xffff) {
+            throw new IllegalArgumentException("Method " + name + " is too long");
+        }
+        methods.u2(access).u2(nameIndex).u2(descriptorIndex).u2(1);
+        int stackMapLength = code.frameCount == 0 ? 0 : 8 + code.frames.length;
+        methods.u2(codeName).u4(12 + code.bytes.length + stackMapLength)
+                .u2(code.maxStack).u2(code.maxLocals)
+                .u4(code.bytes.length).bytes(code.bytes)
+                // no exception handlers
+                .u2(0)
+                .u2(code.frameCount == 0 ? 0 : 1);
+        if (code.frameCount > 0) {
+            methods.u2(stackMapName).u4(2 + code.frames.length).u2(code.frameCount).bytes(code.frames);
+        }
+        methodCount++;
+    }
+
+    byte[] toByteArray() {
+        Bytes out = new Bytes();
+        out.u4(0xcafebabe).u2(0).u2(VERSION)
+                .u2(poolCount).bytes(pool)
+                .u2(ACC_PUBLIC | ACC_FINAL | ACC_SUPER).u2(thisClass).u2(superClass)
+                .u2(interfaces.length);
+        for (int i : interfaces) {
+            out.u2(i);
+        }
+        out.u2(fieldCount).bytes(fields)
+                .u2(methodCount).bytes(methods)
+                .u2(0);
+        return Arrays.copyOf(out.data, out.length);
+    }
+
+    /**
+     * The instructions of a method.
+     */
+    static final class Code {
+
+        private final Bytes bytes = new Bytes();
+        private final int maxStack;
+        private final int maxLocals;
+        private final Bytes frames = new Bytes();
+        private int frameCount;
+        private int lastFrame = -1;
+
+        Code(int maxStack, int maxLocals) {
+            this.maxStack = maxStack;
+            this.maxLocals = maxLocals;
+        }
+
+        Code op(int opcode) {
+            bytes.u1(opcode);
+            return this;
+        }
+
+        /**
+         * Adds an instruction with a two byte operand, like a constant pool index.
+         */
+        Code op(int opcode, int operand) {
+            bytes.u1(opcode).u2(operand);
+            return this;
+        }
+
+        /**
+         * @return The offset of the next instruction
+         */
+        int position() {
+            return bytes.length;
+        }
+
+        /**
+         * Sets the target of a branch instruction added with <code>op(opcode, 0)</code>.
+         * @param instruction The offset of the branch instruction
+         * @param target The offset to jump to
+         */
+        void jump(int instruction, int target) {
+            int offset = target - instruction;
+            if (offset > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Jump is too far");
+            }
+            bytes.data[instruction + 1] = (byte) (offset >> 8);
+            bytes.data[instruction + 2] = (byte) offset;
+        }
+
+        /**
+         * Adds a stack map frame at a branch target, where the locals are the parameters of the method and the stack holds a single object.<br/>
+         * Frames must be added in the order of their offsets.
+         * @param offset The offset of the branch target
+         * @param type The class constant of the type of the object on the stack
+         */
+        void frameWithStackItem(int offset, int type) {
+            int delta = lastFrame < 0 ? offset : offset - lastFrame - 1;
+            if (delta < 64) {
+                // same_locals_1_stack_item_frame
+                frames.u1(64 + delta);
+            } else {
+                // same_locals_1_stack_item_frame_extended
+                frames.u1(247).u2(delta);
+            }
+            // Object_variable_info
+            frames.u1(7).u2(type);
+            lastFrame = offset;
+            frameCount++;
+        }
+    }
+
+    /**
+     * A growing array of big endian bytes.
+     */
+    private static final class Bytes {
+
+        private byte[] data = new byte[64];
+        private int length;
+
+        Bytes u1(int b) {
+            if (length == data.length) {
+                data = Arrays.copyOf(data, length * 2);
+            }
+            data[length++] = (byte) b;
+            return this;
+        }
+
+        Bytes u2(int s) {
+            return u1(s >> 8).u1(s);
+        }
+
+        Bytes u4(int i) {
+            return u2(i >> 16).u2(i);
+        }
+
+        Bytes u8(long l) {
+            return u4((int) (l >> 32)).u4((int) l);
+        }
+
+        Bytes bytes(Bytes other) {
+            for (int i = 0; i < other.length; i++) {
+                u1(other.data[i]);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a string in the modified UTF-8 of class files, prefixed by its length.
+         */
+        Bytes utf(String s) {
+            int start = length;
+            u2(0);
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c != 0 && c < 0x80) {
+                    u1(c);
+                } else if (c < 0x800) {
+                    u1(0xc0 | (c >> 6)).u1(0x80 | (c & 0x3f));
+                } else {
+                    u1(0xe0 | (c >> 12)).u1(0x80 | ((c >> 6) & 0x3f)).u1(0x80 | (c & 0x3f));
+                }
+            }
+            int size = length - start - 2;
+            if (size > 0xffff) {
+                throw new IllegalArgumentException("String constant is too long");
+            }
+            data[start] = (byte) (size >> 8);
+            data[start + 1] = (byte) size;
+            return this;
+        }
+    }
+}
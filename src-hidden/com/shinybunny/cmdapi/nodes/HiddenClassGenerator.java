@@ -0,0 +1,215 @@
+package com.shinybunny.cmdapi.nodes;
+
+import com.shinybunny.cmdapi.CommandAPI;
+import com.shinybunny.cmdapi.MethodCommand;
+import com.shinybunny.cmdapi.arguments.Argument;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.shinybunny.cmdapi.nodes.ClassWriter.*;
+
+/**
+ * Generates the hidden classes of {@link Specializer}. Compiled for Java 15, the first release with <code>Lookup.defineHiddenClass</code>,
+ * and only loaded if the JVM supports it.<br/>
+ * The classes are defined in this package, so they can call the package private {@link SpecializedSteps}.
+ * They are not strongly linked to the class loader, so they are unloaded once their command is unregistered and no longer used.
+ */
+final class HiddenClassGenerator implements Specializer.Generator {
+
+    private static final String CONTEXT = "com/shinybunny/cmdapi/CommandContext";
+    private static final String READER = "com/shinybunny/cmdapi/utils/InputReader";
+    private static final String ARGUMENT = "com/shinybunny/cmdapi/arguments/Argument";
+    private static final String OUTCOME = "com/shinybunny/cmdapi/ParseOutcome";
+    private static final String STEPS = "com/shinybunny/cmdapi/nodes/SpecializedSteps";
+    private static final String ARGUMENTS = "[L" + ARGUMENT + ";";
+    private static final String OBJECT = "java/lang/Object";
+    /**
+     * The parameters every step of {@link SpecializedSteps} starts with
+     */
+    private static final String STEP_PARAMETERS = "(L" + CONTEXT + ";L" + READER + ";L" + ARGUMENT + ";";
+
+    @Override
+    public SpecializedParser parser(Specializer.Step[] steps, Argument[] arguments) {
+        String name = "com/shinybunny/cmdapi/nodes/SpecializedCommandParser";
+        try {
+            ClassWriter cw = new ClassWriter(name, "com/shinybunny/cmdapi/nodes/SpecializedParser");
+            cw.field(ACC_PRIVATE | ACC_FINAL, "args", ARGUMENTS);
+            constructor(cw, name, false);
+            int args = cw.fieldRef(name, "args", ARGUMENTS);
+            // the most a step takes on the stack: 3 references, 3 booleans and 3 doubles
+            ClassWriter.Code code = new ClassWriter.Code(12, 3);
+            List<Integer> jumps = new ArrayList<>();
+            for (int i = 0; i < steps.length; i++) {
+                code.op(ALOAD_1).op(ALOAD_2).op(ALOAD_0).op(GETFIELD, args).op(SIPUSH, i).op(AALOAD);
+                String step = step(cw, code, steps[i]);
+                code.op(INVOKESTATIC, cw.methodRef(STEPS, step.substring(0, step.indexOf('(')), step.substring(step.indexOf('('))));
+                // return the outcome of a failed step
+                code.op(DUP);
+                jumps.add(code.position());
+                code.op(IFNONNULL, 0);
+                code.op(POP);
+            }
+            code.op(ACONST_NULL);
+            int ret = code.position();
+            code.op(ARETURN);
+            for (int jump : jumps) {
+                code.jump(jump, ret);
+            }
+            if (!jumps.isEmpty()) {
+                code.frameWithStackItem(ret, cw.classRef(OUTCOME));
+            }
+            cw.method(ACC_PUBLIC, "parse", "(L" + CONTEXT + ";L" + READER + ";)L" + OUTCOME + ";", code);
+            return (SpecializedParser) define(cw, new Class<?>[]{Argument[].class}, (Object) arguments);
+        } catch (ReflectiveOperationException | LinkageError | IllegalArgumentException e) {
+            // not specialized, so the command keeps being parsed by walking its node
+            return null;
+        }
+    }
+
+    /**
+     * Pushes the constants of a step.
+     * @return The name and the descriptor of the step's method in {@link SpecializedSteps}
+     */
+    private static String step(ClassWriter cw, ClassWriter.Code code, Specializer.Step step) {
+        String returns = ")L" + OUTCOME + ";";
+        Object defaultValue = step.defaultValue;
+        switch (step.kind) {
+            case INT:
+            case LONG:
+            case DOUBLE:
+                code.op(bool(step.ranged))
+                        .op(LDC2_W, cw.doubleConst(step.min))
+                        .op(LDC2_W, cw.doubleConst(step.max))
+                        .op(bool(defaultValue != null));
+                Number n = defaultValue == null ? 0 : (Number) defaultValue;
+                String method;
+                if (step.kind == Specializer.Step.Kind.INT) {
+                    code.op(LDC_W, cw.integer(n.intValue()));
+                    method = "intArg" + STEP_PARAMETERS + "ZDDZIZ";
+                } else if (step.kind == Specializer.Step.Kind.LONG) {
+                    code.op(LDC2_W, cw.longConst(n.longValue()));
+                    method = "longArg" + STEP_PARAMETERS + "ZDDZJZ";
+                } else {
+                    code.op(LDC2_W, cw.doubleConst(n.doubleValue()));
+                    method = "doubleArg" + STEP_PARAMETERS + "ZDDZDZ";
+                }
+                code.op(bool(step.required));
+                return method + returns;
+            case BOOLEAN:
+                code.op(bool(defaultValue != null)).op(bool(Boolean.TRUE.equals(defaultValue))).op(bool(step.required));
+                return "booleanArg" + STEP_PARAMETERS + "ZZZ" + returns;
+            case WORD:
+            case REST:
+                code.op(bool(step.kind == Specializer.Step.Kind.REST));
+                if (defaultValue == null) {
+                    code.op(ACONST_NULL);
+                } else {
+                    code.op(LDC_W, cw.string((String) defaultValue));
+                }
+                return "stringArg" + STEP_PARAMETERS + "ZLjava/lang/String;" + returns;
+            default:
+                code.op(bool(step.required));
+                return "senderArg" + STEP_PARAMETERS + "Z" + returns;
+        }
+    }
+
+    @Override
+    public MethodCommand.Invoker invoker(Method method, Object holder, Argument[] arguments) {
+        String name = "com/shinybunny/cmdapi/nodes/SpecializedCommandInvoker";
+        try {
+            ClassWriter cw = new ClassWriter(name, "com/shinybunny/cmdapi/MethodCommand$Invoker");
+            cw.field(ACC_PRIVATE | ACC_FINAL, "args", ARGUMENTS);
+            cw.field(ACC_PRIVATE | ACC_FINAL, "holder", "L" + OBJECT + ";");
+            constructor(cw, name, true);
+            int args = cw.fieldRef(name, "args", ARGUMENTS);
+            boolean isStatic = Modifier.isStatic(method.getModifiers());
+            Class<?>[] params = method.getParameterTypes();
+            String owner = internalName(method.getDeclaringClass());
+            // the holder, the values of the parameters, and the context, the arguments and the index to get the next one
+            ClassWriter.Code code = new ClassWriter.Code(2 * params.length + 4, 2);
+            if (!isStatic) {
+                code.op(ALOAD_0).op(GETFIELD, cw.fieldRef(name, "holder", "L" + OBJECT + ";")).op(CHECKCAST, cw.classRef(owner));
+            }
+            for (int i = 0; i < params.length; i++) {
+                code.op(ALOAD_1).op(ALOAD_0).op(GETFIELD, args).op(SIPUSH, i).op(AALOAD);
+                get(cw, code, params[i]);
+            }
+            String descriptor = MethodType.methodType(method.getReturnType(), params).toMethodDescriptorString();
+            code.op(isStatic ? INVOKESTATIC : INVOKEVIRTUAL, cw.methodRef(owner, method.getName(), descriptor));
+            box(cw, code, method.getReturnType());
+            code.op(ARETURN);
+            cw.method(ACC_PUBLIC, "invoke", "(L" + CONTEXT + ";)L" + OBJECT + ";", code);
+            return (MethodCommand.Invoker) define(cw, new Class<?>[]{Argument[].class, Object.class}, arguments, holder);
+        } catch (ReflectiveOperationException | LinkageError | IllegalArgumentException e) {
+            // not specialized, so the command keeps running through its method handle
+            return null;
+        }
+    }
+
+    /**
+     * Gets the value of an argument from the context, as the type of its parameter.
+     * <code>int</code>, <code>long</code>, <code>double</code> and <code>boolean</code> parameters use the primitive getters, like the method handle invoker.
+     */
+    private static void get(ClassWriter cw, ClassWriter.Code code, Class<?> type) {
+        if (type == int.class || type == long.class || type == double.class || type == boolean.class) {
+            String getter = "get" + Character.toUpperCase(type.getName().charAt(0)) + type.getName().substring(1);
+            code.op(INVOKEVIRTUAL, cw.methodRef(CONTEXT, getter, "(L" + ARGUMENT + ";)" + type.descriptorString()));
+            return;
+        }
+        code.op(INVOKEVIRTUAL, cw.methodRef(CONTEXT, "get", "(L" + ARGUMENT + ";)L" + OBJECT + ";"));
+        if (type.isPrimitive()) {
+            String wrapper = internalName(CommandAPI.wrapPrimitive(type));
+            code.op(CHECKCAST, cw.classRef(wrapper))
+                    .op(INVOKEVIRTUAL, cw.methodRef(wrapper, type.getName() + "Value", "()" + type.descriptorString()));
+        } else if (type != Object.class) {
+            code.op(CHECKCAST, cw.classRef(internalName(type)));
+        }
+    }
+
+    /**
+     * Converts the value returned by the method to the object the invoker returns.
+     */
+    private static void box(ClassWriter cw, ClassWriter.Code code, Class<?> type) {
+        if (type == void.class) {
+            code.op(ACONST_NULL);
+        } else if (type.isPrimitive()) {
+            String wrapper = internalName(CommandAPI.wrapPrimitive(type));
+            code.op(INVOKESTATIC, cw.methodRef(wrapper, "valueOf", "(" + type.descriptorString() + ")L" + wrapper + ";"));
+        }
+    }
+
+    /**
+     * Adds the constructor, storing the arguments, and the holder of an invoker.
+     */
+    private static void constructor(ClassWriter cw, String name, boolean holder) {
+        ClassWriter.Code code = new ClassWriter.Code(2, holder ? 3 : 2);
+        code.op(ALOAD_0).op(INVOKESPECIAL, cw.methodRef(OBJECT, "<init>", "()V"));
+        code.op(ALOAD_0).op(ALOAD_1).op(PUTFIELD, cw.fieldRef(name, "args", ARGUMENTS));
+        if (holder) {
+            code.op(ALOAD_0).op(ALOAD_2).op(PUTFIELD, cw.fieldRef(name, "holder", "L" + OBJECT + ";"));
+        }
+        code.op(RETURN);
+        cw.method(ACC_PUBLIC, "<init>", "(" + ARGUMENTS + (holder ? "L" + OBJECT + ";" : "") + ")V", code);
+    }
+
+    private static Object define(ClassWriter cw, Class<?>[] parameterTypes, Object... values) throws ReflectiveOperationException {
+        Class<?> c = MethodHandles.lookup().defineHiddenClass(cw.toByteArray(), true).lookupClass();
+        return c.getConstructor(parameterTypes).newInstance(values);
+    }
+
+    private static int bool(boolean value) {
+        return value ? ICONST_1 : ICONST_0;
+    }
+
+    /**
+     * @return The name of the class in class files, or the descriptor of an array type
+     */
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+}
@@ -0,0 +1,132 @@
+package com.shinybunny.cmdapi.jfr;
+
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.tracing.ParseTracer;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A {@link ParseTracer} emitting a Java Flight Recorder event for every {@link ParseTracer.Phase phase} of handling a command input.<br/>
+ * Install it with <code>manager.setTracer(ParseTracer.flightRecorder())</code>, and enable the <code>com.shinybunny.cmdapi.*</code> events in the recording.
+ * While an event type is not enabled in any recording, its phases don't create events at all.
+ * To also record the events with another tracer, like a {@link com.shinybunny.cmdapi.tracing.RingBufferTracer}, combine them with {@link ParseTracer#of(ParseTracer...)}.
+ * <br/>
+ * This class is compiled for Java 11, as it uses the <code>jdk.jfr</code> API, and is only loaded by {@link ParseTracer#flightRecorder()}.
+ */
+public final class FlightRecorderTracer implements ParseTracer {
+
+    public static final FlightRecorderTracer INSTANCE = new FlightRecorderTracer();
+
+    private FlightRecorderTracer() {
+    }
+
+    @Override
+    public Object begin(Phase phase) {
+        // each event is checked right after creating it, so while it's disabled the JIT can drop the allocation
+        switch (phase) {
+            case GET_COMMAND: {
+                GetCommandEvent event = new GetCommandEvent();
+                return event.isEnabled() ? begin(event) : null;
+            }
+            case PARSE: {
+                ParseEvent event = new ParseEvent();
+                return event.isEnabled() ? begin(event) : null;
+            }
+            case ADAPTER_PARSE: {
+                AdapterParseEvent event = new AdapterParseEvent();
+                return event.isEnabled() ? begin(event) : null;
+            }
+            case ANNOTATION_PROCESS: {
+                AnnotationProcessEvent event = new AnnotationProcessEvent();
+                return event.isEnabled() ? begin(event) : null;
+            }
+            case VALIDATE_USE: {
+                ValidateUseEvent event = new ValidateUseEvent();
+                return event.isEnabled() ? begin(event) : null;
+            }
+            default: {
+                RunEvent event = new RunEvent();
+                return event.isEnabled() ? begin(event) : null;
+            }
+        }
+    }
+
+    private static CommandEvent begin(CommandEvent event) {
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void end(Object token, String command, Argument argument, int inputLength) {
+        CommandEvent event = (CommandEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.command = command;
+            event.argument = argument == null ? null : argument.getName();
+            event.inputLength = inputLength;
+            event.commit();
+        }
+    }
+
+    /**
+     * Disabled unless a recording enables it, as an event for every phase of every input is too much for an always-on recording
+     */
+    @Category("CommandAPI")
+    @Enabled(false)
+    @StackTrace(false)
+    abstract static class CommandEvent extends Event {
+
+        @Label("Command")
+        @Description("The name of the command, or null if no command was found")
+        String command;
+
+        @Label("Argument")
+        @Description("The name of the argument, for the phases of a single argument")
+        String argument;
+
+        @Label("Input Length")
+        @Description("The length of the whole command input")
+        int inputLength;
+    }
+
+    @Name("com.shinybunny.cmdapi.GetCommand")
+    @Label("Get Command")
+    @Description("Looking up the command of an alias")
+    static final class GetCommandEvent extends CommandEvent {
+    }
+
+    @Name("com.shinybunny.cmdapi.Parse")
+    @Label("Parse")
+    @Description("Parsing a whole command input")
+    static final class ParseEvent extends CommandEvent {
+    }
+
+    @Name("com.shinybunny.cmdapi.AdapterParse")
+    @Label("Adapter Parse")
+    @Description("An argument adapter parsing the value of an argument")
+    static final class AdapterParseEvent extends CommandEvent {
+    }
+
+    @Name("com.shinybunny.cmdapi.AnnotationProcess")
+    @Label("Annotation Process")
+    @Description("An annotation adapter processing the value of an argument")
+    static final class AnnotationProcessEvent extends CommandEvent {
+    }
+
+    @Name("com.shinybunny.cmdapi.ValidateUse")
+    @Label("Validate Use")
+    @Description("Checking whether the sender can use a command")
+    static final class ValidateUseEvent extends CommandEvent {
+    }
+
+    @Name("com.shinybunny.cmdapi.Run")
+    @Label("Run")
+    @Description("Running a parsed command")
+    static final class RunEvent extends CommandEvent {
+    }
+}
@@ -3,9 +3,11 @@ package com.shinybunny.cmdapi;
 import com.shinybunny.cmdapi.annotations.*;
 import com.shinybunny.cmdapi.arguments.*;
 import com.shinybunny.cmdapi.exceptions.*;
+import com.shinybunny.cmdapi.utils.CommandResult;
 
 import javax.naming.NoPermissionException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * <h1>CommandAPI</h1>
@@ -50,6 +52,17 @@ public class CommandAPI {
         return c.isPrimitive() ? (Class<T>) PRIMITIVES_TO_WRAPPERS.get(c) : c;
     }
 
+    /**
+     * Gets the primitive type of a wrapper class, like {@link Integer#TYPE} for {@link Integer}.
+     * @return The primitive type, or the given class if it's not a wrapper.
+     */
+    public static <T> Class<T> unwrapPrimitive(Class<T> c) {
+        for (Map.Entry<Class<?>, Class<?>> e : PRIMITIVES_TO_WRAPPERS.entrySet()) {
+            if (e.getValue() == c) return (Class<T>) e.getKey();
+        }
+        return c;
+    }
+
 
 
     static {
@@ -80,7 +93,7 @@ public class CommandAPI {
     }
 
     /**
-     * Gets the command uses the specified alias. Note that if more than one command has that alias (which is NOT supported, be careful!), only the first iterated command will be returned.
+     * Gets the command uses the specified alias, ignoring case.
      * @param alias The alias to search for, and try matching it with all command names or aliases.
      * @return The command having that alias, or <code>null</code> if none found.
      */
@@ -103,8 +116,9 @@ public class CommandAPI {
      * @param holder The instance of a class to register.
      * @exception IncompatibleAnnotationException if an annotation of some argument is not compatible with its type. For example, {@link Range @Range} for a non-numerical value.
      * @exception NoAdapterFoundException for any annotation or argument of a type that has no matching registered adapter.
+     * @exception DuplicateAliasException if the name or an alias of one of the commands is already used.
      */
-    public static void register(Object holder) throws IncompatibleAnnotationException, NoAdapterFoundException {
+    public static void register(Object holder) throws IncompatibleAnnotationException, NoAdapterFoundException, DuplicateAliasException {
         DEFAULT.register(holder);
     }
 
@@ -116,17 +130,39 @@ public class CommandAPI {
         DEFAULT.register(cls);
     }
 
+    /**
+     * Registers all command holders at once, analyzing them in parallel and publishing their commands together.
+     * @see CommandManager#registerAll(Collection)
+     */
+    public static void registerAll(Collection<?> holders) throws IncompatibleAnnotationException, NoAdapterFoundException, DuplicateAliasException {
+        DEFAULT.registerAll(holders);
+    }
+
+    /**
+     * @see CommandManager#unregister(Object)
+     */
+    public static boolean unregister(Object holder) {
+        return DEFAULT.unregister(holder);
+    }
+
+    /**
+     * @see CommandManager#replace(Object, Object)
+     */
+    public static void replace(Object oldHolder, Object newHolder) throws IncompatibleAnnotationException, NoAdapterFoundException, DuplicateAliasException {
+        DEFAULT.replace(oldHolder, newHolder);
+    }
+
     public static void registerSafe(Object holder) {
         try {
             register(holder);
-        } catch (IncompatibleAnnotationException | NoAdapterFoundException e) {
+        } catch (IncompatibleAnnotationException | NoAdapterFoundException | DuplicateAliasException e) {
             e.printStackTrace();
         }
     }
 
     /**
      * Get all commands registered in the CommandAPI
-     * @return A list of all commands. This list is not a copy, so it's possible to modify it.
+     * @return An unmodifiable list of all commands registered so far, in the order they were registered.
      */
     public List<CommandBase> getCommands() {
         return DEFAULT.getCommands();
@@ -151,10 +187,29 @@ public class CommandAPI {
      * @throws InvalidArgumentException if an argument validation exception occurs.
      * @throws MissingArgumentException if a required argument is not provided.
      * @throws CommandParseException if an argument parsing exception occurs.
+     * @throws NoPermissionException if the sender can't use the command.
      */
     public ParseResults parse(Sender sender, String input) throws UnknownCommandException, InvalidArgumentException, MissingArgumentException, CommandParseException, NoPermissionException {
         return DEFAULT.parse(sender,input);
     }
 
+    /**
+     * Parses, processes and validates a command input, without throwing for an invalid input.
+     * @param sender The {@link Sender} who executed the command.
+     * @param input The command string the sender runs.
+     * @return The outcome, holding either the {@link ParseResults} or the error.
+     */
+    public ParseOutcome tryParse(Sender sender, String input) {
+        return DEFAULT.tryParse(sender,input);
+    }
+
+    /**
+     * Parses a command input and executes it, off the calling thread if the command is async.
+     * @see CommandManager#dispatchAsync(Sender, String)
+     */
+    public CompletableFuture<CommandResult> dispatchAsync(Sender sender, String input) {
+        return DEFAULT.dispatchAsync(sender,input);
+    }
+
 
 }
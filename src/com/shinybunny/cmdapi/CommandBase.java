@@ -3,6 +3,7 @@ package com.shinybunny.cmdapi;
 import com.shinybunny.cmdapi.annotations.Command;
 import com.shinybunny.cmdapi.arguments.Argument;
 import com.shinybunny.cmdapi.exceptions.CommandExecutionException;
+import com.shinybunny.cmdapi.nodes.CommandNode;
 import com.shinybunny.cmdapi.utils.CommandResult;
 
 import javax.naming.NoPermissionException;
@@ -15,6 +16,10 @@ public abstract class CommandBase {
     protected String name;
     protected List<Argument> arguments;
     protected List<String> aliases;
+    /**
+     * The node compiled for parsing this command while it's not registered, or <code>null</code> until it's parsed that way
+     */
+    private volatile CommandNode unregisteredNode;
 
     public CommandBase(CommandManager manager, String name) {
         this.manager = manager;
@@ -31,6 +36,10 @@ public abstract class CommandBase {
         this.aliases = aliases;
     }
 
+    public CommandManager getManager() {
+        return manager;
+    }
+
     public String getName() {
         return name;
     }
@@ -41,10 +50,50 @@ public abstract class CommandBase {
 
     public abstract CommandResult run(CommandContext ctx) throws CommandExecutionException;
 
+    /**
+     * Gets the node to parse this command with when it's not registered, compiling it on the first call.<br/>
+     * Compiling assigns the {@link Argument#getSlot() slots} of the arguments, so it's done once instead of on every parse.
+     * Two threads compiling it at once assign the same slots, so either node can be kept.
+     */
+    CommandNode getUnregisteredNode() {
+        CommandNode node = unregisteredNode;
+        if (node == null) {
+            node = CommandNode.compile(this);
+            unregisteredNode = node;
+        }
+        return node;
+    }
+
+    /**
+     * Whether this command should run off the thread executing it, when executed through {@link ParseResults#executeAsync()}.
+     * @return false by default
+     */
+    public boolean isAsync() {
+        return false;
+    }
+
     public String getNoPermissionMessage() {
         return Command.DEFAULT_NO_PERMS_MESSAGE;
     }
 
+    /**
+     * Validates the sender of the context can use this command.
+     * @throws NoPermissionException if the sender is not allowed to use it.
+     */
     public abstract void validateUse(CommandContext ctx) throws NoPermissionException;
 
+    /**
+     * Checks whether the sender of the context can use this command, without throwing.<br/>
+     * By default calls {@link #validateUse(CommandContext)}, so commands should override this for a check that doesn't use an exception.
+     * @return true if {@link #validateUse(CommandContext)} would pass
+     */
+    public boolean canUse(CommandContext ctx) {
+        try {
+            validateUse(ctx);
+            return true;
+        } catch (NoPermissionException e) {
+            return false;
+        }
+    }
+
 }
@@ -33,7 +33,7 @@ public class CommandContext implements Sender {
         return input;
     }
 
-    public void setCommand(MethodCommand cmd) {
+    public void setCommand(CommandBase cmd) {
         this.cmd = cmd;
     }
 
@@ -53,6 +53,54 @@ public class CommandContext implements Sender {
         return type.cast(parseResults.get(arg));
     }
 
+    /**
+     * Gets the value of an <code>int</code> argument without boxing it.
+     * @throws NullPointerException if the argument has no value
+     */
+    public int getInt(String name) {
+        return parseResults.getInt(name);
+    }
+
+    public int getInt(Argument arg) {
+        return parseResults.getInt(arg);
+    }
+
+    /**
+     * Gets the value of a <code>long</code> argument without boxing it.
+     * @throws NullPointerException if the argument has no value
+     */
+    public long getLong(String name) {
+        return parseResults.getLong(name);
+    }
+
+    public long getLong(Argument arg) {
+        return parseResults.getLong(arg);
+    }
+
+    /**
+     * Gets the value of a <code>double</code> argument without boxing it.
+     * @throws NullPointerException if the argument has no value
+     */
+    public double getDouble(String name) {
+        return parseResults.getDouble(name);
+    }
+
+    public double getDouble(Argument arg) {
+        return parseResults.getDouble(arg);
+    }
+
+    /**
+     * Gets the value of a <code>boolean</code> argument without boxing it.
+     * @throws NullPointerException if the argument has no value
+     */
+    public boolean getBoolean(String name) {
+        return parseResults.getBoolean(name);
+    }
+
+    public boolean getBoolean(Argument arg) {
+        return parseResults.getBoolean(arg);
+    }
+
     @Override
     public void sendMessage(String msg) {
         sender.sendMessage(msg);
@@ -77,6 +125,13 @@ public class CommandContext implements Sender {
         parseResults.addEntry(entry);
     }
 
+    /**
+     * Sets the parsed value of an argument, without creating an {@link ParseResults.Entry} for it.
+     */
+    public void setArgument(Argument arg, Object value) {
+        parseResults.put(arg, value);
+    }
+
     public ParseResults getResults() {
         return parseResults;
     }
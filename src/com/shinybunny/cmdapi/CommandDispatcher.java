@@ -0,0 +1,220 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.utils.CommandResult;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dispatches command inputs to a {@link CommandManager} on an executor, running the commands of each key in the order they were dispatched,
+ * and the commands of different keys in parallel.<br/>
+ * By default the key is the {@link Sender}, so a sender's commands never overtake each other, while different senders don't wait for each other.
+ * <br/>
+ * Keys are spread over a fixed number of shards. Each shard is a lock-free mailbox, and at most one task of the executor drains it at a time,
+ * so dispatching never takes a lock. Keys sharing a shard run one after another too, so there should be a few times more shards than cores.
+ * <br/>
+ * Each command is parsed and executed in its turn, on the executor. A command blocking its shard delays the other keys of that shard,
+ * so blocking commands are better run on an executor of virtual threads, like the default {@link CommandManager#getExecutor() executor} on Java 21.
+ */
+public class CommandDispatcher {
+
+    /**
+     * The maximum number of commands a shard runs before giving its thread back to the executor, so one busy shard doesn't hold a thread forever
+     */
+    private static final int BATCH_SIZE = 64;
+
+    private final CommandManager manager;
+    private final Executor executor;
+    private final Mailbox[] shards;
+    private final long startTime = System.nanoTime();
+
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder executionNanos = new LongAdder();
+
+    /**
+     * Creates a dispatcher running on the executor of the manager, with 4 shards per available core.
+     */
+    public CommandDispatcher(CommandManager manager) {
+        this(manager, manager.getExecutor(), Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param manager The manager to parse and execute the commands with
+     * @param executor The executor to drain the shards on
+     * @param shards The number of shards to spread the keys over
+     */
+    public CommandDispatcher(CommandManager manager, Executor executor, int shards) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards must be positive");
+        }
+        this.manager = manager;
+        this.executor = executor;
+        this.shards = new Mailbox[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new Mailbox();
+        }
+    }
+
+    /**
+     * Dispatches an input, in order with the other inputs of the same sender.
+     * @see #dispatch(Object, Sender, String)
+     */
+    public CompletableFuture<CommandResult> dispatch(Sender sender, String input) {
+        return dispatch(sender, sender, input);
+    }
+
+    /**
+     * Dispatches an input to be parsed and executed after all inputs previously dispatched with an equal key.
+     * @param key The key to order the input by, like a player or a channel
+     * @param sender The command sender
+     * @param input The command input
+     * @return A future completed with the result of the command, or completed exceptionally with the exception thrown by parsing or executing it.
+     */
+    public CompletableFuture<CommandResult> dispatch(Object key, Sender sender, String input) {
+        CompletableFuture<CommandResult> future = new CompletableFuture<>();
+        dispatched.increment();
+        shardOf(key).submit(new Task(sender, input, future));
+        return future;
+    }
+
+    private void run(Task task) {
+        long start = System.nanoTime();
+        try {
+            CommandResult result = manager.parse(task.sender, task.input).execute();
+            succeeded.increment();
+            task.future.complete(result);
+        } catch (Throwable t) {
+            fail(task, t);
+        } finally {
+            executionNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private void fail(Task task, Throwable t) {
+        failed.increment();
+        task.future.completeExceptionally(t);
+    }
+
+    private Mailbox shardOf(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return shards[(h & 0x7fffffff) % shards.length];
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @return The number of inputs dispatched since this dispatcher was created
+     */
+    public long getDispatchedCount() {
+        return dispatched.sum();
+    }
+
+    /**
+     * @return The number of commands that were parsed and executed successfully
+     */
+    public long getSucceededCount() {
+        return succeeded.sum();
+    }
+
+    /**
+     * @return The number of inputs that failed to parse, or whose command threw while executing
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * @return The number of dispatched inputs that didn't finish yet
+     */
+    public long getPendingCount() {
+        return Math.max(0, dispatched.sum() - succeeded.sum() - failed.sum());
+    }
+
+    /**
+     * @return The total time spent parsing and executing commands, over all shards, in nanoseconds
+     */
+    public long getExecutionNanos() {
+        return executionNanos.sum();
+    }
+
+    /**
+     * @return The average number of finished commands per second since this dispatcher was created
+     */
+    public double getThroughput() {
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        return seconds <= 0 ? 0 : (succeeded.sum() + failed.sum()) / seconds;
+    }
+
+    private static final class Task {
+        private final Sender sender;
+        private final String input;
+        private final CompletableFuture<CommandResult> future;
+
+        Task(Sender sender, String input, CompletableFuture<CommandResult> future) {
+            this.sender = sender;
+            this.input = input;
+            this.future = future;
+        }
+    }
+
+    /**
+     * A queue of tasks drained by at most one thread at a time.
+     */
+    private final class Mailbox implements Runnable {
+
+        private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+        /**
+         * Whether a task draining this mailbox is scheduled or running
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        void submit(Task task) {
+            queue.offer(task);
+            if (scheduled.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            do {
+                try {
+                    executor.execute(this);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // the executor is shut down, so nothing queued here would ever run
+                    Task task;
+                    while ((task = queue.poll()) != null) {
+                        fail(task, e);
+                    }
+                    scheduled.set(false);
+                }
+                // like in run(), a task may have been queued after the last poll, while this mailbox still looked scheduled
+            } while (!queue.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+
+        @Override
+        public void run() {
+            Task task;
+            int count = 0;
+            while (count < BATCH_SIZE && (task = queue.poll()) != null) {
+                CommandDispatcher.this.run(task);
+                count++;
+            }
+            scheduled.set(false);
+            // a task may have been queued after the last poll, while this mailbox still looked scheduled
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+    }
+}
@@ -3,16 +3,39 @@ package com.shinybunny.cmdapi;
 import com.shinybunny.cmdapi.annotations.*;
 import com.shinybunny.cmdapi.arguments.*;
 import com.shinybunny.cmdapi.exceptions.*;
+import com.shinybunny.cmdapi.metrics.CommandMetrics;
+import com.shinybunny.cmdapi.nodes.ArgumentNode;
+import com.shinybunny.cmdapi.nodes.CommandNode;
+import com.shinybunny.cmdapi.nodes.LiteralNode;
+import com.shinybunny.cmdapi.nodes.SpecializedParser;
+import com.shinybunny.cmdapi.nodes.Specializer;
+import com.shinybunny.cmdapi.tracing.ParseTracer;
+import com.shinybunny.cmdapi.utils.AliasIndex;
+import com.shinybunny.cmdapi.utils.CharPredicate;
+import com.shinybunny.cmdapi.utils.CommandResult;
 import com.shinybunny.cmdapi.utils.InputReader;
 
 import javax.naming.NoPermissionException;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -24,22 +47,33 @@ import java.util.function.Consumer;
  */
 public class CommandManager {
 
+    private static final CharPredicate NOT_SPACE = c -> c != ' ';
+
+    /**
+     * The current adapters, commands and register listeners. Replaced with a new registry by every registration, never modified.
+     */
+    private volatile CommandRegistry registry = CommandRegistry.EMPTY;
+    /**
+     * Held while building and swapping in a new {@link #registry}, so concurrent registrations don't lose each other's changes
+     */
+    private final Object registryLock = new Object();
     /**
-     * Annotation types to {@link AnnotationAdapter}s map
+     * Whether holders registered from now on are registered as {@link LazyCommand}s
      */
-    protected Map<Class<? extends Annotation>, AnnotationAdapter<?>> annotationAdapters = new HashMap<>();
+    private boolean lazyRegistration;
     /**
-     * Object types to {@link ArgumentAdapter}s map
+     * Whether commands registered from now on are parsed by {@link SpecializedParser}s
      */
-    protected Map<Class<?>, ArgumentAdapter<?>> argumentAdapters = new HashMap<>();
+    private boolean specializing;
     /**
-     * All registered commands
+     * The tracer receiving parse events and measuring phases, or <code>null</code> if handling inputs is not traced
      */
-    protected List<CommandBase> commands = new ArrayList<>();
+    private volatile ParseTracer tracer;
     /**
-     * Command register listeners. will all {@link Consumer#accept(Object)} with the new command registered.
+     * The executor of async commands, or <code>null</code> to use the {@link DefaultExecutor}
      */
-    protected List<Consumer<CommandBase>> registerCommandListeners = new ArrayList<>();
+    private volatile Executor executor;
+    private final CommandMetrics metrics = new CommandMetrics(this);
 
     public CommandManager() {
         registerDefaults();
@@ -65,66 +99,208 @@ public class CommandManager {
      * @return The registered annotation adapter of the specified type, or <code>null</code> if not found.
      */
     public <A extends Annotation> AnnotationAdapter<A> getAnnotationAdapter(Class<A> annotationType) {
-        for (Map.Entry<Class<? extends Annotation>, AnnotationAdapter<?>> e : annotationAdapters.entrySet()) {
-            if (e.getKey() == annotationType) return (AnnotationAdapter<A>) e.getValue();
-        }
-        return null;
+        return registry.getAnnotationAdapter(annotationType);
     }
 
     /**
-     * Gets the {@link ArgumentAdapter} of the provided type. Will try matching the types exactly, by t == type, and if none found will use {@link Class#isAssignableFrom(Class)}
+     * Gets the {@link ArgumentAdapter} of the provided type. Will try matching the types exactly, and if none found will use the adapter of the closest registered supertype,
+     * searching superclasses before interfaces at the same distance. Primitive types and their wrappers match each other.<br/>
+     * The result is cached per type until the next call to {@link #registerArgumentAdapter(ArgumentAdapter)}.
      * @param type The object type class
      * @param <T> The generic type of object
      * @return The registered argument adapter of the specified type, or <code>null</code> if not found.
      */
     public <T> ArgumentAdapter<T> getArgumentAdapter(Class<T> type) {
-        ArgumentAdapter<T> adapter = (ArgumentAdapter<T>) argumentAdapters.get(type);
-        if (adapter != null) {
-            return adapter;
-        } else {
-            for (Map.Entry<Class<?>, ArgumentAdapter<?>> e : argumentAdapters.entrySet()) {
-                if (e.getKey().isAssignableFrom(type)) return (ArgumentAdapter<T>) e.getValue();
+        return registry.getArgumentAdapter(type);
+    }
+
+    /**
+     * Resolves the adapter of a type by searching its type hierarchy breadth first, so the most specific registered adapter is found.
+     * @param adapters The registered argument adapters
+     * @param type The type to resolve
+     * @return The adapter, or <code>null</code> if no supertype of the type has an adapter.
+     */
+    protected static ArgumentAdapter<?> resolveArgumentAdapter(Map<Class<?>, ArgumentAdapter<?>> adapters, Class<?> type) {
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        queue.add(type);
+        queue.add(type.isPrimitive() ? CommandAPI.wrapPrimitive(type) : CommandAPI.unwrapPrimitive(type));
+        while (!queue.isEmpty()) {
+            Class<?> c = queue.poll();
+            if (!visited.add(c)) continue;
+            ArgumentAdapter<?> adapter = adapters.get(c);
+            if (adapter != null) {
+                return adapter;
+            }
+            if (c.getSuperclass() != null) {
+                queue.add(c.getSuperclass());
             }
+            Collections.addAll(queue, c.getInterfaces());
         }
         return null;
     }
 
+    /**
+     * Whether holders are registered lazily: only the names and aliases of their commands are indexed,
+     * and each command is created and compiled on its first use, as a {@link LazyCommand}.
+     */
+    public boolean isLazyRegistration() {
+        return lazyRegistration;
+    }
+
+    /**
+     * Turns lazy registration on or off. Only affects holders registered after this call.<br/>
+     * Lazy registration makes registering many rarely used commands cheap, but errors in their arguments are only found on first use.
+     * @see #isLazyRegistration()
+     */
+    public void setLazyRegistration(boolean lazyRegistration) {
+        this.lazyRegistration = lazyRegistration;
+    }
+
+    /**
+     * Whether commands are parsed by a {@link SpecializedParser} generated for each of them, instead of walking their nodes.
+     */
+    public boolean isSpecializing() {
+        return specializing;
+    }
+
+    /**
+     * Turns specializing commands on or off. Only affects commands registered after this call.<br/>
+     * Specializing generates a hidden class for each command, so it needs Java 15 or later, and is ignored on older JVMs.
+     * Commands with arguments that {@link Specializer} can't specialize are parsed by walking their nodes.
+     * @see Command#specialize()
+     */
+    public void setSpecializing(boolean specializing) {
+        this.specializing = specializing;
+    }
+
+    /**
+     * @return The installed tracer, or <code>null</code> if handling inputs is not traced.
+     */
+    public ParseTracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Installs a tracer to receive events about every step of parsing inputs with this manager, and to measure the phases of handling them,
+     * like {@link ParseTracer#flightRecorder()}.
+     * @param tracer The tracer, or <code>null</code> to stop tracing.
+     */
+    public void setTracer(ParseTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * @return The executor running {@link CommandBase#isAsync() async} commands.
+     * By default, a new virtual thread runs each command when running on Java 21 or later, and a shared pool of daemon threads otherwise.
+     */
+    public Executor getExecutor() {
+        Executor executor = this.executor;
+        return executor == null ? DefaultExecutor.INSTANCE : executor;
+    }
+
+    /**
+     * Sets the executor running {@link CommandBase#isAsync() async} commands.
+     * @param executor The executor to use, or <code>null</code> to use the default one.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @return The metrics of the commands of this manager. They are off until {@link CommandMetrics#setEnabled(boolean) enabled}.
+     */
+    public CommandMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return The current registry of this manager. It never changes, so it can be read without locking while commands are registered,
+     * and a later registration is only seen by getting the registry again.
+     */
+    public CommandRegistry getRegistry() {
+        return registry;
+    }
 
     /**
      * Adds a listener for registering commands. Calls {@link Consumer#accept(Object)} every time a new {@link MethodCommand} is registered to the api.
      * @param listener The consumer to handle the new command object.
      */
     public void addCommandRegisterListener(Consumer<CommandBase> listener) {
-        registerCommandListeners.add(listener);
+        synchronized (registryLock) {
+            registry = registry.withListener(listener);
+        }
     }
 
     /**
      * Register an {@link AnnotationAdapter} to the api.
      */
     public void registerAnnotationAdapter(AnnotationAdapter<?> adapter) {
-        annotationAdapters.put(adapter.getAnnotationType(), adapter);
+        synchronized (registryLock) {
+            registry = registry.withAnnotationAdapter(adapter);
+        }
     }
 
     /**
      * Register an {@link ArgumentAdapter} to the api.
      */
     public void registerArgumentAdapter(ArgumentAdapter<?> adapter) {
-        argumentAdapters.put(adapter.getType(), adapter);
+        synchronized (registryLock) {
+            registry = registry.withArgumentAdapter(adapter);
+        }
     }
 
     /**
-     * Gets the command uses the specified alias. Note that if more than one command has that alias (which is NOT supported, be careful!), only the first iterated command will be returned.
+     * Gets the command uses the specified alias, ignoring case. Aliases are unique, as registering a colliding alias fails with a {@link DuplicateAliasException}.
      * @param alias The alias to search for, and try matching it with all command names or aliases.
      * @return The command having that alias, or <code>null</code> if none found.
      */
     public CommandBase getCommand(String alias) {
-        for (CommandBase cmd : commands) {
-            if (cmd.getName().equalsIgnoreCase(alias) || cmd.getAliases().contains(alias.toLowerCase())) {
-                return cmd;
-            }
+        return getCommand(alias, 0, alias.length());
+    }
+
+    /**
+     * Gets the command uses the alias found in the given range of the input, without copying it out first.
+     * @param input The input holding the alias
+     * @param start The index of the first character of the alias
+     * @param end The index after the last character of the alias
+     * @return The command having that alias, or <code>null</code> if none found.
+     */
+    public CommandBase getCommand(CharSequence input, int start, int end) {
+        CommandNode node = lookup(input, start, end);
+        return node == null ? null : node.getCommand();
+    }
+
+    /**
+     * Looks up the node of the alias found in the given range of the input, as the {@link ParseTracer.Phase#GET_COMMAND} phase.
+     */
+    private CommandNode lookup(CharSequence input, int start, int end) {
+        ParseTracer tracer = this.tracer;
+        if (tracer == null) {
+            return resolve(registry.getCommandNode(input, start, end));
         }
+        Object token = tracer.begin(ParseTracer.Phase.GET_COMMAND);
+        CommandNode node = resolve(registry.getCommandNode(input, start, end));
+        if (token != null) {
+            tracer.end(token, node == null ? null : node.getCommand().getName(), null, input.length());
+        }
+        return node;
+    }
 
-        return null;
+    /**
+     * Gets the compiled node of the command uses the specified alias, ignoring case.
+     * @param alias The alias to search for
+     * @return The root node of the command having that alias, or <code>null</code> if none found.
+     */
+    public CommandNode getCommandNode(String alias) {
+        return resolve(registry.getCommandNode(alias));
+    }
+
+    /**
+     * Resolves a registered node to a compiled one, creating its command if it's a {@link LazyCommand} used for the first time.
+     */
+    private static CommandNode resolve(CommandNode node) {
+        return node == null ? null : node.resolve();
     }
 
     /**
@@ -139,22 +315,174 @@ public class CommandManager {
      *     <li>Make the method <code>static</code>. Static methods will not be registered.</li>
      *     <li>Annotate the method with <code>@</code>{@link DontRegister}</li>
      * </ol>
+     * <br/>
+     * A {@link Class} passed as the holder is instantiated with its no-args constructor and the new instance is registered, like {@link #registerAll(Collection)} does,
+     * but unlike {@link #register(Class)} its errors are thrown.
      * @param holder The instance of a class to register.
+     * @exception IllegalArgumentException if the holder is a class that can't be instantiated.
      * @exception IncompatibleAnnotationException if an annotation of some argument is not compatible with its type. For example, {@link Range @Range} for a non-numerical value.
      * @exception NoAdapterFoundException for any annotation or argument of a type that has no matching registered adapter.
+     * @exception DuplicateAliasException if the name or an alias of one of the commands is already used. In that case none of the holder's commands are registered.
      */
-    public void register(Object holder) throws IncompatibleAnnotationException, NoAdapterFoundException {
-        if (holder.getClass().isAnnotationPresent(Command.class)) {
-            // this object is annotated with Settings, so it's a tree command!
-            registerTree(holder);
-        } else {
-            List<CommandBase> cmds = createCommands(holder);
-            commands.addAll(cmds);
-            // run all listeners with all new registered commands.
-            cmds.forEach((c) -> {
-                registerCommandListeners.forEach((l) -> {
-                    l.accept(c);
-                });
+    public void register(Object holder) throws IncompatibleAnnotationException, NoAdapterFoundException, DuplicateAliasException {
+        registerAll(Collections.singletonList(holder));
+    }
+
+    /**
+     * Registers all command holders at once, like calling {@link #register(Object)} with each of them,
+     * but publishing all of their commands together in a single new {@link #getRegistry() registry}.
+     * The holders are analyzed in parallel on the {@link ForkJoinPool#commonPool() common pool}.
+     * @param holders The command holders to register
+     * @exception IncompatibleAnnotationException if an annotation of some argument is not compatible with its type.
+     * @exception NoAdapterFoundException for any annotation or argument of a type that has no matching registered adapter.
+     * @exception DuplicateAliasException if the name or an alias of one of the commands is already used. In that case none of the commands are registered.
+     * @see #registerAll(Collection, ForkJoinPool)
+     */
+    public void registerAll(Collection<?> holders) throws IncompatibleAnnotationException, NoAdapterFoundException, DuplicateAliasException {
+        registerAll(holders, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Registers all command holders at once, creating and compiling the commands of each holder in parallel on the pool,
+     * and then publishing all of them together in a single new {@link #getRegistry() registry}.<br/>
+     * The commands are registered in the order of the holders, and in the order each holder's commands are created,
+     * no matter which holder finished first, and register listeners are called once for each command after all of them are published.
+     * A {@link Class} in the holders is instantiated on the pool too, with its no-args constructor.
+     * An exception thrown by the constructor is thrown as is if it's unchecked, or else wrapped in an {@link IllegalArgumentException}.
+     * <br/>
+     * If the commands of any holders can't be created, nothing is registered, and the exception of the first of those holders is thrown,
+     * with the exceptions of the others {@link Throwable#getSuppressed() suppressed} in it, so all errors are reported at once.
+     * This includes unchecked exceptions, like those thrown by holder constructors.
+     * @param holders The command holders to register
+     * @param pool The pool to analyze the holders on
+     * @exception IllegalArgumentException if a holder class can't be instantiated.
+     * @exception IncompatibleAnnotationException if an annotation of some argument is not compatible with its type.
+     * @exception NoAdapterFoundException for any annotation or argument of a type that has no matching registered adapter.
+     * @exception DuplicateAliasException if the name or an alias of one of the commands is already used. In that case none of the commands are registered.
+     */
+    public void registerAll(Collection<?> holders, ForkJoinPool pool) throws IncompatibleAnnotationException, NoAdapterFoundException, DuplicateAliasException {
+        List<HolderTask> tasks = new ArrayList<>(holders.size());
+        for (Object holder : holders) {
+            tasks.add(new HolderTask(holder));
+        }
+        if (tasks.size() == 1) {
+            // not worth handing over to the pool
+            tasks.get(0).compute();
+        } else if (!tasks.isEmpty()) {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        }
+        Exception failure = null;
+        List<CommandBase> cmds = new ArrayList<>();
+        List<CommandNode> nodes = new ArrayList<>();
+        for (HolderTask task : tasks) {
+            if (task.failure != null) {
+                if (failure == null) {
+                    failure = task.failure;
+                } else {
+                    failure.addSuppressed(task.failure);
+                }
+            } else if (failure == null) {
+                cmds.addAll(task.cmds);
+                nodes.addAll(task.nodes);
+            }
+        }
+        if (failure instanceof IncompatibleAnnotationException) {
+            throw (IncompatibleAnnotationException) failure;
+        } else if (failure instanceof NoAdapterFoundException) {
+            throw (NoAdapterFoundException) failure;
+        } else if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+        CommandRegistry registry = publish(null, cmds, nodes);
+        // run all listeners with all new registered commands.
+        for (CommandBase c : cmds) {
+            registry.getRegisterCommandListeners().forEach((l) -> {
+                l.accept(c);
+            });
+        }
+    }
+
+    /**
+     * Creates and compiles the commands of a single holder for {@link #registerAll(Collection, ForkJoinPool)}, keeping its exception instead of throwing it.
+     */
+    private class HolderTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private Object holder;
+        private List<CommandBase> cmds;
+        private List<CommandNode> nodes;
+        private Exception failure;
+
+        private HolderTask(Object holder) {
+            this.holder = holder;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                if (holder instanceof Class) {
+                    holder = instantiate((Class<?>) holder);
+                }
+                cmds = createHolderCommands(holder);
+                nodes = compile(cmds);
+            } catch (IncompatibleAnnotationException | NoAdapterFoundException | RuntimeException e) {
+                // kept for the other holders' failures to be suppressed in, instead of escaping the pool
+                failure = e;
+            }
+        }
+
+        private Object instantiate(Class<?> cls) {
+            try {
+                return cls.getDeclaredConstructor().newInstance();
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new IllegalArgumentException("Can't instantiate the holder " + cls.getName(), e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Can't instantiate the holder " + cls.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Unregisters all commands of a command holder, including its tree command if it's annotated with {@link Command}.<br/>
+     * Inputs already being parsed or executed keep running against the old commands.
+     * Once they are done, nothing in this manager references the holder anymore, so it can be garbage collected.
+     * @param holder The holder instance that was registered
+     * @return Whether any commands of the holder were registered
+     */
+    public boolean unregister(Object holder) {
+        synchronized (registryLock) {
+            CommandRegistry registry = this.registry;
+            CommandRegistry removed = registry.withoutHolder(holder);
+            this.registry = removed;
+            return removed != registry;
+        }
+    }
+
+    /**
+     * Replaces the commands of a registered holder with the commands of a new holder, in a single new {@link #getRegistry() registry},
+     * so every input is either parsed against the old commands or against the new ones, and never finds neither of them.
+     * The new holder's commands may use the same names and aliases as the old ones.<br/>
+     * Inputs already being parsed or executed keep running against the old commands. Once they are done, the old holder can be garbage collected.
+     * If the old holder is not registered, the new holder is just registered.
+     * @param oldHolder The holder instance to unregister
+     * @param newHolder The holder instance to register instead, like a newly loaded version of it
+     * @exception IncompatibleAnnotationException if an annotation of some argument is not compatible with its type.
+     * @exception NoAdapterFoundException for any annotation or argument of a type that has no matching registered adapter.
+     * @exception DuplicateAliasException if the name or an alias of one of the new commands is used by another command. In that case the old holder stays registered.
+     * @see #unregister(Object)
+     */
+    public void replace(Object oldHolder, Object newHolder) throws IncompatibleAnnotationException, NoAdapterFoundException, DuplicateAliasException {
+        List<CommandBase> cmds = createHolderCommands(newHolder);
+        CommandRegistry registry = publish(oldHolder, cmds);
+        for (CommandBase c : cmds) {
+            registry.getRegisterCommandListeners().forEach((l) -> {
+                l.accept(c);
             });
         }
     }
@@ -171,14 +499,57 @@ public class CommandManager {
         }
     }
 
-    protected void registerTree(Object holder) throws IncompatibleAnnotationException, NoAdapterFoundException {
-        commands.add(new MethodCommand(this,holder, holder.getClass().getAnnotation(Command.class)));
+    /**
+     * Creates the commands of a holder without registering them.<br/>
+     * If a {@link HolderRegistry} was generated for the holder's class, it creates the commands without scanning the class.
+     * With {@link #isLazyRegistration() lazy registration}, the commands are {@link LazyCommand}s.
+     * @return A single tree command if the holder is annotated with {@link Command}, or else a command for each of its methods.
+     */
+    protected List<CommandBase> createHolderCommands(Object holder) throws IncompatibleAnnotationException, NoAdapterFoundException {
+        if (lazyRegistration) {
+            return createLazyCommands(holder);
+        }
+        HolderRegistry<Object> generated = HolderRegistry.of(holder.getClass());
+        if (generated != null) {
+            return generated.createCommands(this, holder);
+        }
+        if (holder.getClass().isAnnotationPresent(Command.class)) {
+            // this object is annotated with Settings, so it's a tree command!
+            return Collections.singletonList(new MethodCommand(this,holder, holder.getClass().getAnnotation(Command.class)));
+        }
+        return createCommands(holder);
+    }
+
+    /**
+     * Creates the {@link LazyCommand}s of a holder, reading only the names and <code>@</code>{@link Command} settings of its methods,
+     * or of the holder class for a tree command. A generated {@link HolderRegistry} creates them without scanning the class.
+     */
+    protected List<CommandBase> createLazyCommands(Object holder) {
+        HolderRegistry<Object> generated = HolderRegistry.of(holder.getClass());
+        List<CommandBase> cmds = generated == null ? null : generated.createLazyCommands(this, holder);
+        if (cmds != null) {
+            return cmds;
+        }
+        Class<?> cls = holder.getClass();
+        if (cls.isAnnotationPresent(Command.class)) {
+            Command settings = cls.getAnnotation(Command.class);
+            return Collections.singletonList(new LazyCommand(this, MethodCommand.treeName(cls, settings), holder, settings, () -> new MethodCommand(this, holder, settings)));
+        }
+        cmds = new ArrayList<>();
+        for (Method m : cls.getDeclaredMethods()) {
+            if (!Modifier.isStatic(m.getModifiers()) && !m.isAnnotationPresent(DontRegister.class)) {
+                Command settings = m.getAnnotation(Command.class);
+                String name = settings == null || settings.name().isEmpty() ? m.getName() : settings.name();
+                cmds.add(new LazyCommand(this, name, holder, settings, () -> new MethodCommand(this, m.getName(), m, holder)));
+            }
+        }
+        return cmds;
     }
 
     public void registerSafe(Object holder) {
         try {
             register(holder);
-        } catch (IncompatibleAnnotationException | NoAdapterFoundException e) {
+        } catch (IncompatibleAnnotationException | NoAdapterFoundException | DuplicateAliasException e) {
             e.printStackTrace();
         }
     }
@@ -196,13 +567,13 @@ public class CommandManager {
 
     /**
      * Get all commands registered in the CommandAPI
-     * @return A list of all commands. This list is not a copy, so it's possible to modify it.
+     * @return An unmodifiable list of all commands registered so far, in the order they were registered. Commands registered later are not added to it.
      */
     public List<CommandBase> getCommands() {
-        return commands;
+        return registry.getCommands();
     }
 
-    protected List<MethodCommand> createSubCommands(Object holder) throws IncompatibleAnnotationException, NoAdapterFoundException {
+    public List<MethodCommand> createSubCommands(Object holder) throws IncompatibleAnnotationException, NoAdapterFoundException {
         List<MethodCommand> cmds = new ArrayList<>();
 
         for (Method m : holder.getClass().getDeclaredMethods()) {
@@ -220,7 +591,7 @@ public class CommandManager {
      * @return A new {@link DynamicCommand.Builder} to build the command.
      */
     public DynamicCommand.Builder createCommand(String name) {
-        return new DynamicCommand.Builder(name);
+        return new DynamicCommand.Builder(this, name);
     }
 
     /**
@@ -233,77 +604,484 @@ public class CommandManager {
      * @throws InvalidArgumentException if an argument validation exception occurs.
      * @throws MissingArgumentException if a required argument is not provided.
      * @throws CommandParseException if an argument parsing exception occurs.
+     * @throws NoPermissionException if the sender can't use the command.
+     * @see #tryParse(Sender, String)
      */
     public ParseResults parse(Sender sender, String input) throws UnknownCommandException, InvalidArgumentException, MissingArgumentException, CommandParseException, NoPermissionException {
-        String alias;
-        String args;
-        if (input.contains(" ")) {
-            alias = input.substring(0, input.indexOf(' '));
-            args = input.substring(input.indexOf(' ') + 1);
-        } else {
-            alias = input;
-            args = "";
-        }
-        CommandBase cmd = getCommand(alias);
-        if (cmd == null) {
-            throw new UnknownCommandException(alias);
-        }
-        CommandContext ctx = new CommandContext(alias,cmd,sender,input);
-        InputReader reader = new InputReader(args);
-        return parse(ctx,reader);
-    }
-
-    protected ParseResults parse(CommandContext ctx, InputReader reader) throws MissingArgumentException, CommandParseException, InvalidArgumentException, NoPermissionException {
-        ctx.getCommand().validateUse(ctx);
-        for (Argument arg : ctx.getCommand().getArguments()) {
-            // get the out of syntax value by default
-            Object value = arg.getOutOfSyntax(ctx);
-            if (!arg.isSyntax()) {
-                // one annotation adapter decided this argument is not syntax,
-                // so let's process hoping that annotation adapter will give us a value to work with
-                value = arg.process(value,ctx);
+        return tryParse(sender,input).getResultsOrThrow();
+    }
+
+    /**
+     * Parses, processes and validates a command input, like {@link #parse(Sender, String)}, but never throws for an invalid input.
+     * Instead, the returned {@link ParseOutcome} describes what is wrong with it.
+     * @param sender The {@link Sender} who executed the command.
+     * @param input The command string the sender runs.
+     * @return The outcome, holding either the {@link ParseResults} or the error.
+     */
+    public ParseOutcome tryParse(Sender sender, String input) {
+        int space = input.indexOf(' ');
+        int aliasEnd = space < 0 ? input.length() : space;
+        CommandNode node = lookup(input, 0, aliasEnd);
+        if (node == null) {
+            return ParseOutcome.unknownCommand(input.substring(0, aliasEnd));
+        }
+        CommandContext ctx = new CommandContext(input.substring(0, aliasEnd),node.getCommand(),sender,input);
+        // read the arguments right out of the whole input, so cursor positions are positions in the input
+        InputReader reader = new InputReader(input);
+        reader.setCursor(space < 0 ? aliasEnd : aliasEnd + 1);
+        ParseTracer tracer = this.tracer;
+        if (!metrics.isEnabled() && tracer == null) {
+            return walk(ctx,node,reader);
+        }
+        Object token = tracer == null ? null : tracer.begin(ParseTracer.Phase.PARSE);
+        long start = System.nanoTime();
+        ParseOutcome outcome = walk(ctx,node,reader);
+        long nanos = System.nanoTime() - start;
+        if (metrics.isEnabled()) {
+            metrics.recordParse(ctx.getResults().getNode(), outcome, nanos);
+        }
+        if (token != null) {
+            tracer.end(token, ctx.getCommand().getName(), outcome.getArgument(), input.length());
+        }
+        return outcome;
+    }
+
+    protected ParseResults parse(CommandContext ctx, InputReader reader) throws UnknownCommandException, MissingArgumentException, CommandParseException, InvalidArgumentException, NoPermissionException {
+        if (ctx.getCommand() instanceof LazyCommand) {
+            // parse against the command it creates
+            ctx.setCommand(((LazyCommand) ctx.getCommand()).getCommand());
+        }
+        CommandNode node = resolve(registry.getCommandNode(ctx.getCommand().getName()));
+        if (node == null || node.getCommand() != ctx.getCommand()) {
+            // not a registered command, so it's compiled on its own
+            node = ctx.getCommand().getUnregisteredNode();
+        }
+        return parse(ctx,node,reader);
+    }
+
+    protected ParseResults parse(CommandContext ctx, CommandNode node, InputReader reader) throws UnknownCommandException, MissingArgumentException, CommandParseException, InvalidArgumentException, NoPermissionException {
+        return walk(ctx,node,reader).getResultsOrThrow();
+    }
+
+    /**
+     * Parses the input and executes the command with {@link ParseResults#executeAsync()}.<br/>
+     * The input is parsed on the calling thread. Only {@link CommandBase#isAsync() async} commands run off it.
+     * @param sender The command sender
+     * @param input The command input
+     * @return A future completed with the result of the command. If the input failed to parse, the future is completed exceptionally
+     * with the exception {@link #parse(Sender, String)} would have thrown.
+     */
+    public CompletableFuture<CommandResult> dispatchAsync(Sender sender, String input) {
+        ParseResults results;
+        try {
+            results = tryParse(sender, input).getResultsOrThrow();
+        } catch (UnknownCommandException | NoPermissionException | MissingArgumentException | CommandParseException | InvalidArgumentException e) {
+            CompletableFuture<CommandResult> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        return results.executeAsync();
+    }
+
+    /**
+     * Suggests completions for the word the cursor is at.
+     * @see #suggest(Sender, String, int, int)
+     */
+    public List<Suggestion> suggest(Sender sender, String input, int cursor) {
+        return suggest(sender, input, cursor, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Suggests completions for the word the cursor is at, considering only the input before the cursor.<br/>
+     * In the first word, the names and aliases of the commands are suggested. After it, the input is walked like parsing it,
+     * with each syntax argument without an out of syntax value taking a single word. The names and aliases of the sub commands of a tree command are suggested,
+     * and values of an argument are suggested by its {@link ArgumentAdapter#suggest(String, Argument, CommandContext, int) adapter}.
+     * Only commands the sender {@link CommandBase#canUse(CommandContext) can use} are suggested.
+     * <br/>
+     * Suggestions are ranked alphabetically ignoring case, so an exact match comes first and a name comes before the longer names it's a prefix of.
+     * @param sender The sender typing the input
+     * @param input The input typed so far
+     * @param cursor The position of the cursor in the input
+     * @param limit The maximum number of suggestions to return
+     * @return The suggestions, best first. Each replaces the range from the start of the word at the cursor up to the cursor.
+     */
+    public List<Suggestion> suggest(Sender sender, String input, int cursor, int limit) {
+        List<Suggestion> suggestions = new ArrayList<>();
+        if (cursor < 0 || cursor > input.length()) {
+            throw new IndexOutOfBoundsException("cursor " + cursor + " is out of the input");
+        }
+        if (limit <= 0) {
+            return suggestions;
+        }
+        // the same registry for the whole walk, even if commands are registered meanwhile
+        CommandRegistry registry = this.registry;
+        String text = input.substring(0, cursor);
+        int aliasEnd = text.indexOf(' ');
+        if (aliasEnd < 0) {
+            CommandContext ctx = new CommandContext(text, null, sender, input);
+            registry.visitCommandNames(text, 0, cursor, (name, node) -> addSuggestion(ctx, name, 0, cursor, node, suggestions, limit));
+            return suggestions;
+        }
+        CommandNode node = resolve(registry.getCommandNode(text, 0, aliasEnd));
+        if (node == null) {
+            return suggestions;
+        }
+        CommandContext ctx = new CommandContext(text.substring(0, aliasEnd), node.getCommand(), sender, input);
+        InputReader reader = new InputReader(text);
+        reader.setCursor(aliasEnd);
+        reader.skipSpace();
+        while (true) {
+            ctx.setCommand(node.getCommand());
+            if (!node.getCommand().canUse(ctx)) {
+                return suggestions;
             }
-            if (reader.canRead()) {
-                // there is more to read, so we can parse the argument
-                if (value == null) {
-                    // the argument is a syntax, so let's parse it from the InputReader
-                    value = arg.parse(reader, ctx);
-                    reader.skipSpace();
-                    // then, we need to process the value in all of its annotations
-                    Object newVal = arg.process(value, ctx);
-                    if (newVal != null) {
-                        value = newVal;
+            for (ArgumentNode argNode : node.getArguments()) {
+                Argument arg = argNode.getArgument();
+                // like when parsing, an argument with an out of syntax value, like the sender, takes no word
+                if (!argNode.isSyntax() || arg.getOutOfSyntax(ctx) != null) continue;
+                int start = reader.getCursor();
+                reader.skipWhile(NOT_SPACE);
+                if (!reader.canRead()) {
+                    // the cursor is in this argument, so let its adapter suggest values
+                    for (String value : arg.getAdapter().suggest(text.substring(start), arg, ctx, limit)) {
+                        suggestions.add(new Suggestion(value, start, cursor, null));
                     }
-                    if (value == null && !arg.isNullable()) {
-                        // after all of that, we still got a null value, and the argument adapter doesn't allow nulls. so rip
-                        throw new MissingArgumentException(arg);
+                    return suggestions;
+                }
+                reader.skipSpace();
+            }
+            LiteralNode branch = node.getBranch();
+            if (branch == null) {
+                return suggestions;
+            }
+            int start = reader.getCursor();
+            reader.skipWhile(NOT_SPACE);
+            if (!reader.canRead()) {
+                branch.visitChildren(text, start, cursor, (name, child) -> addSuggestion(ctx, name, start, cursor, child, suggestions, limit));
+                return suggestions;
+            }
+            CommandNode child = branch.getChild(text, start, reader.getCursor());
+            if (child == null) {
+                child = branch.getDefaultChild();
+                if (child == null) {
+                    return suggestions;
+                }
+                reader.setCursor(start);
+            } else {
+                reader.skipSpace();
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Adds a command name suggestion if the sender can use the command.
+     * @return Whether to keep looking for more suggestions
+     */
+    private static boolean addSuggestion(CommandContext ctx, String name, int start, int end, CommandNode node, List<Suggestion> suggestions, int limit) {
+        ctx.setCommand(node.getCommand());
+        if (node.getCommand().canUse(ctx)) {
+            suggestions.add(new Suggestion(name, start, end, node.getCommand()));
+        }
+        return suggestions.size() < limit;
+    }
+
+    /**
+     * Walks the compiled node graph of a command over the input.
+     * Each node validates its command, then parses its arguments in order, and then either ends the walk or continues to the matching sub command node.<br/>
+     * Errors of the input are returned as a failed {@link ParseOutcome}, and exceptions thrown by adapters are caught into one.
+     */
+    protected ParseOutcome walk(CommandContext ctx, CommandNode node, InputReader reader) {
+        Argument arg = null;
+        int start = reader.getCursor();
+        ParseTracer tracer = this.tracer;
+        try {
+            while (true) {
+                // entered before checking permission, so a denial is counted for the denied node
+                ctx.getResults().enter(node);
+                if (!canUse(ctx, node.getCommand(), tracer)) {
+                    return ParseOutcome.noPermission(node.getCommand(), reader.getCursor());
+                }
+                SpecializedParser parser = node.getParser();
+                if (parser != null && tracer == null) {
+                    // the generated parser reports no phases, so it's only used when nothing is traced
+                    ParseOutcome failure = parser.parse(ctx, reader);
+                    return failure == null ? ParseOutcome.success(ctx.getResults()) : failure;
+                }
+                for (ArgumentNode argNode : node.getArguments()) {
+                    arg = argNode.getArgument();
+                    start = reader.getCursor();
+                    if (tracer != null) {
+                        tracer.argumentStart(ctx, arg, start);
                     }
-                    if (arg.getType() == MethodCommand.class) {
-                        // oh waaait.. it's actually a sub command... so we recall the parse() method again, with the sub command in the context
-                        ctx.setCommand((MethodCommand) value);
-                        return parse(ctx,reader);
+                    // get the out of syntax value by default
+                    Object value = arg.getOutOfSyntax(ctx);
+                    if (!argNode.isSyntax()) {
+                        // one annotation adapter decided this argument is not syntax,
+                        // so let's process hoping that annotation adapter will give us a value to work with
+                        value = arg.process(value,ctx);
+                    }
+                    if (reader.canRead()) {
+                        // there is more to read, so we can parse the argument
+                        if (value == null && argNode.getPrimitiveType() != null) {
+                            parsePrimitive(ctx, argNode, reader, tracer);
+                            continue;
+                        }
+                        if (value == null) {
+                            // the argument is a syntax, so let's parse it from the InputReader
+                            Object token = tracer == null ? null : tracer.begin(ParseTracer.Phase.ADAPTER_PARSE);
+                            value = arg.parse(reader, ctx);
+                            end(tracer, token, ctx, arg);
+                            reader.skipSpace();
+                            if (tracer != null) {
+                                tracer.adapterResult(ctx, arg, value);
+                            }
+                            // then, we need to process the value in all of its annotations
+                            Object newVal = arg.process(value, ctx);
+                            if (newVal != null) {
+                                value = newVal;
+                            }
+                            if (value == null && !argNode.isNullable()) {
+                                // after all of that, we still got a null value, and the argument adapter doesn't allow nulls. so rip
+                                return ParseOutcome.missingArgument(arg, start);
+                            }
+                        }
+                        ctx.setArgument(arg, value);
+                    } else {
+                        // there is no more to read, but we still got arguments left...
+                        // so we have to make sure they do not come out as nulls we don't want.
+                        if (value == null) {
+                            value = arg.getDefaultValue();
+                            if (tracer != null && value != null) {
+                                tracer.defaultApplied(ctx, arg, value);
+                            }
+                            if (value != null && argNode.getPrimitiveType() != null) {
+                                putPrimitiveDefault(ctx, argNode, value);
+                                continue;
+                            }
+                        }
+                        value = arg.process(value,ctx);
+                        if (value == null && !argNode.isNullable() && argNode.isRequired()) {
+                            return ParseOutcome.missingArgument(arg, start);
+                        }
+
+                        ctx.setArgument(arg, value);
                     }
                 }
-                ctx.addArgument(new ParseResults.Entry(arg,value));
-            } else {
-                // there is no more to read, but we still got arguments left...
-                // so we have to make sure they do not come out as nulls we don't want.
-                if (value == null) {
-                    value = arg.getDefaultValue();
+                LiteralNode branch = node.getBranch();
+                if (branch == null) {
+                    return ParseOutcome.success(ctx.getResults());
+                }
+                start = reader.getCursor();
+                if (!reader.canRead()) {
+                    return ParseOutcome.missingArgument(branch.getArgument(), start);
                 }
-                value = arg.process(value,ctx);
-                if (value == null && !arg.isNullable() && arg.isRequired()) {
-                    throw new MissingArgumentException(arg);
+                // a tree command, so the next word picks the sub command to continue parsing with
+                reader.skipWhile(InputReader.WORD);
+                CommandNode child = branch.getChild(reader.getInput(), start, reader.getCursor());
+                if (child == null) {
+                    child = branch.getDefaultChild();
+                    if (child == null) {
+                        return ParseOutcome.parseError(branch.getArgument(), start, "Unknown sub command '" + reader.select(start, reader.getCursor()) + "'");
+                    }
+                    reader.setCursor(start);
+                }
+                reader.skipSpace();
+                ctx.setCommand(child.getCommand());
+                node = child;
+            }
+        } catch (CommandParseException e) {
+            return ParseOutcome.parseError(arg, start, e);
+        } catch (InvalidArgumentException e) {
+            return ParseOutcome.invalidArgument(arg, start, e);
+        }
+    }
+
+    /**
+     * Parses an argument with its primitive adapter, and processes and stores the value without boxing it.
+     * @see ArgumentNode#getPrimitiveType()
+     */
+    private void parsePrimitive(CommandContext ctx, ArgumentNode argNode, InputReader reader, ParseTracer tracer) throws CommandParseException, InvalidArgumentException {
+        Argument arg = argNode.getArgument();
+        Class<?> type = argNode.getPrimitiveType();
+        ParseResults results = ctx.getResults();
+        Object token = tracer == null ? null : tracer.begin(ParseTracer.Phase.ADAPTER_PARSE);
+        if (type == int.class) {
+            int value = ((IntArgumentAdapter) arg.getAdapter()).parseInt(reader, arg, ctx);
+            end(tracer, token, ctx, arg);
+            reader.skipSpace();
+            if (tracer != null) {
+                tracer.adapterResult(ctx, arg, value);
+            }
+            results.putInt(arg, arg.processInt(value, ctx));
+        } else if (type == long.class) {
+            long value = ((LongArgumentAdapter) arg.getAdapter()).parseLong(reader, arg, ctx);
+            end(tracer, token, ctx, arg);
+            reader.skipSpace();
+            if (tracer != null) {
+                tracer.adapterResult(ctx, arg, value);
+            }
+            results.putLong(arg, arg.processLong(value, ctx));
+        } else if (type == double.class) {
+            double value = ((DoubleArgumentAdapter) arg.getAdapter()).parseDouble(reader, arg, ctx);
+            end(tracer, token, ctx, arg);
+            reader.skipSpace();
+            if (tracer != null) {
+                tracer.adapterResult(ctx, arg, value);
+            }
+            results.putDouble(arg, arg.processDouble(value, ctx));
+        } else {
+            boolean value = ((BooleanArgumentAdapter) arg.getAdapter()).parseBoolean(reader, arg, ctx);
+            end(tracer, token, ctx, arg);
+            reader.skipSpace();
+            if (tracer != null) {
+                tracer.adapterResult(ctx, arg, value);
+            }
+            results.putBoolean(arg, arg.processBoolean(value, ctx));
+        }
+    }
+
+    /**
+     * Checks whether the sender can use the command, as the {@link ParseTracer.Phase#VALIDATE_USE} phase.
+     */
+    private static boolean canUse(CommandContext ctx, CommandBase cmd, ParseTracer tracer) {
+        if (tracer == null) {
+            return cmd.canUse(ctx);
+        }
+        Object token = tracer.begin(ParseTracer.Phase.VALIDATE_USE);
+        boolean canUse = cmd.canUse(ctx);
+        if (token != null) {
+            tracer.end(token, cmd.getName(), null, ctx.getInput().length());
+        }
+        return canUse;
+    }
+
+    /**
+     * Ends a phase of an argument, if it was measured.
+     */
+    private static void end(ParseTracer tracer, Object token, CommandContext ctx, Argument arg) {
+        if (token != null) {
+            tracer.end(token, ctx.getCommand().getName(), arg, ctx.getInput().length());
+        }
+    }
+
+    /**
+     * Processes and stores the default value of an omitted primitive argument, without boxing it again.
+     */
+    private void putPrimitiveDefault(CommandContext ctx, ArgumentNode argNode, Object value) throws InvalidArgumentException {
+        Argument arg = argNode.getArgument();
+        Class<?> type = argNode.getPrimitiveType();
+        ParseResults results = ctx.getResults();
+        if (type == int.class) {
+            results.putInt(arg, arg.processInt(((Number) value).intValue(), ctx));
+        } else if (type == long.class) {
+            results.putLong(arg, arg.processLong(((Number) value).longValue(), ctx));
+        } else if (type == double.class) {
+            results.putDouble(arg, arg.processDouble(((Number) value).doubleValue(), ctx));
+        } else {
+            results.putBoolean(arg, arg.processBoolean((Boolean) value, ctx));
+        }
+    }
+
+    /**
+     * Adds a single command to the api.
+     * @param cmd The command to add
+     * @throws DuplicateAliasException if the name or an alias of the command is already used by another command.
+     */
+    public void addCommand(CommandBase cmd) throws DuplicateAliasException {
+        addCommands(Collections.singletonList(cmd));
+    }
+
+    /**
+     * Adds all commands to the api and indexes their names and aliases, publishing them together in a single new {@link #getRegistry() registry}.
+     * All aliases are checked before anything is added, so on a collision none of the commands are added.
+     * @param cmds The commands to add
+     * @return The registry the commands were published in
+     * @throws DuplicateAliasException if the name or an alias of one of the commands is already used, either by a registered command or by another command in the list.
+     */
+    protected CommandRegistry addCommands(List<? extends CommandBase> cmds) throws DuplicateAliasException {
+        return publish(null, cmds);
+    }
+
+    /**
+     * Publishes a new registry without the commands of a holder and with the new commands.
+     * @param removedHolder The holder to remove the commands of, or <code>null</code> to only add commands
+     * @param cmds The commands to add
+     * @return The published registry
+     */
+    private CommandRegistry publish(Object removedHolder, List<? extends CommandBase> cmds) throws DuplicateAliasException {
+        // compiling doesn't depend on the registry, so it's done before taking the lock
+        return publish(removedHolder, cmds, compile(cmds));
+    }
+
+    /**
+     * @param nodes The compiled nodes of the commands, in the same order
+     */
+    private CommandRegistry publish(Object removedHolder, List<? extends CommandBase> cmds, List<CommandNode> nodes) throws DuplicateAliasException {
+        synchronized (registryLock) {
+            CommandRegistry registry = this.registry;
+            if (removedHolder != null) {
+                // the removed commands don't hold on to their aliases anymore
+                registry = registry.withoutHolder(removedHolder);
+            }
+            AliasIndex<CommandBase> added = new AliasIndex<>();
+            for (CommandBase cmd : cmds) {
+                checkAlias(registry, cmd.getName(), cmd, added);
+                for (String alias : cmd.getAliases()) {
+                    checkAlias(registry, alias, cmd, added);
                 }
+            }
+            registry = registry.withCommands(nodes);
+            this.registry = registry;
+            return registry;
+        }
+    }
+
+    /**
+     * Compiles the nodes to register for the commands. {@link LazyCommand}s are not compiled until they are used.
+     */
+    private static List<CommandNode> compile(List<? extends CommandBase> cmds) {
+        List<CommandNode> nodes = new ArrayList<>(cmds.size());
+        for (CommandBase cmd : cmds) {
+            nodes.add(cmd instanceof LazyCommand ? CommandNode.lazy((LazyCommand) cmd) : CommandNode.compile(cmd));
+        }
+        return nodes;
+    }
 
-                ctx.addArgument(new ParseResults.Entry(arg,value));
+    private static void checkAlias(CommandRegistry registry, String alias, CommandBase cmd, AliasIndex<CommandBase> added) throws DuplicateAliasException {
+        CommandNode node = registry.getCommandNode(alias);
+        CommandBase existing = node == null ? null : node.getCommand();
+        if (existing == null) {
+            existing = added.get(alias);
+            if (existing == null) {
+                added.put(alias, cmd);
             }
         }
-        return ctx.getResults();
+        if (existing != null && existing != cmd) {
+            throw new DuplicateAliasException(alias, existing, cmd);
+        }
     }
 
-    public void addCommand(CommandBase cmd) {
-        commands.add(cmd);
+    /**
+     * Holds the default executor of async commands, created the first time an async command runs.
+     */
+    private static class DefaultExecutor {
+
+        static final Executor INSTANCE = create();
+
+        private static Executor create() {
+            try {
+                // virtual threads only exist since Java 21, and this library still compiles for Java 8
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                AtomicInteger count = new AtomicInteger();
+                return Executors.newCachedThreadPool(r -> {
+                    Thread t = new Thread(r, "CommandAPI async command " + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+            }
+        }
     }
 
 }
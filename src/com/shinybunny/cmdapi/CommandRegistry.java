@@ -0,0 +1,255 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.AnnotationAdapter;
+import com.shinybunny.cmdapi.arguments.ArgumentAdapter;
+import com.shinybunny.cmdapi.nodes.CommandNode;
+import com.shinybunny.cmdapi.utils.AliasIndex;
+import com.shinybunny.cmdapi.utils.PrefixTrie;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * An immutable snapshot of everything registered to a {@link CommandManager}: its adapters, commands and register listeners.<br/>
+ * The manager publishes its current registry through a single volatile reference. Registering anything builds a new registry and swaps it in,
+ * so a reader holding a registry always sees one consistent version of it, without locking.
+ */
+public final class CommandRegistry {
+
+    static final CommandRegistry EMPTY = new CommandRegistry(Collections.emptyMap(), Collections.emptyMap(), new ArgumentAdapterCache(Collections.emptyMap()),
+            Collections.emptyList(), new AliasIndex<>(), Collections.emptyList());
+
+    private final Map<Class<? extends Annotation>, AnnotationAdapter<?>> annotationAdapters;
+    private final Map<Class<?>, ArgumentAdapter<?>> argumentAdapters;
+    /**
+     * The resolved {@link ArgumentAdapter} of every type looked up so far. Shared by the next registries until an argument adapter is registered.
+     */
+    private final ArgumentAdapterCache argumentAdapterCache;
+    /**
+     * The root nodes of all registered commands, in the order they were registered
+     */
+    private final List<CommandNode> nodes;
+    private final List<CommandBase> commands;
+    /**
+     * Case-insensitive index of every command name and alias to its compiled {@link CommandNode}
+     */
+    private final AliasIndex<CommandNode> commandIndex;
+    /**
+     * Every command name and alias, for completing a partly typed command name.
+     * Only built when first needed, so registering commands one by one doesn't build a trie for every registry in between.
+     */
+    private volatile PrefixTrie<CommandNode> commandNames;
+    private final List<Consumer<CommandBase>> registerCommandListeners;
+
+    private CommandRegistry(Map<Class<? extends Annotation>, AnnotationAdapter<?>> annotationAdapters, Map<Class<?>, ArgumentAdapter<?>> argumentAdapters,
+                            ArgumentAdapterCache argumentAdapterCache, List<CommandNode> nodes, AliasIndex<CommandNode> commandIndex,
+                            List<Consumer<CommandBase>> registerCommandListeners) {
+        this.annotationAdapters = annotationAdapters;
+        this.argumentAdapters = argumentAdapters;
+        this.argumentAdapterCache = argumentAdapterCache;
+        this.nodes = nodes;
+        this.commandIndex = commandIndex;
+        this.registerCommandListeners = registerCommandListeners;
+        List<CommandBase> commands = new ArrayList<>(nodes.size());
+        for (CommandNode node : nodes) {
+            commands.add(node.getCommand());
+        }
+        this.commands = Collections.unmodifiableList(commands);
+    }
+
+    /**
+     * @return A copy of this registry with the annotation adapter added, replacing the adapter of the same annotation type.
+     */
+    CommandRegistry withAnnotationAdapter(AnnotationAdapter<?> adapter) {
+        Map<Class<? extends Annotation>, AnnotationAdapter<?>> adapters = new HashMap<>(annotationAdapters);
+        adapters.put(adapter.getAnnotationType(), adapter);
+        return new CommandRegistry(Collections.unmodifiableMap(adapters), argumentAdapters, argumentAdapterCache, nodes, commandIndex, registerCommandListeners);
+    }
+
+    /**
+     * @return A copy of this registry with the argument adapter added, replacing the adapter of the same type.
+     */
+    CommandRegistry withArgumentAdapter(ArgumentAdapter<?> adapter) {
+        Map<Class<?>, ArgumentAdapter<?>> adapters = new HashMap<>(argumentAdapters);
+        adapters.put(adapter.getType(), adapter);
+        adapters = Collections.unmodifiableMap(adapters);
+        // a new adapter might be closer to some types than the ones they resolved to, so nothing cached is kept
+        return new CommandRegistry(annotationAdapters, adapters, new ArgumentAdapterCache(adapters), nodes, commandIndex, registerCommandListeners);
+    }
+
+    CommandRegistry withListener(Consumer<CommandBase> listener) {
+        List<Consumer<CommandBase>> listeners = new ArrayList<>(registerCommandListeners);
+        listeners.add(listener);
+        return new CommandRegistry(annotationAdapters, argumentAdapters, argumentAdapterCache, nodes, commandIndex, Collections.unmodifiableList(listeners));
+    }
+
+    /**
+     * @return A copy of this registry with the commands of the nodes added after the registered commands.
+     * The aliases of the commands should be checked to be unique before.
+     */
+    CommandRegistry withCommands(Collection<CommandNode> added) {
+        List<CommandNode> nodes = new ArrayList<>(this.nodes.size() + added.size());
+        nodes.addAll(this.nodes);
+        nodes.addAll(added);
+        AliasIndex<CommandNode> index = new AliasIndex<>(commandIndex);
+        for (CommandNode node : added) {
+            CommandBase cmd = node.getCommand();
+            index.put(cmd.getName(), node);
+            for (String alias : cmd.getAliases()) {
+                index.put(alias, node);
+            }
+        }
+        return new CommandRegistry(annotationAdapters, argumentAdapters, argumentAdapterCache, Collections.unmodifiableList(nodes), index, registerCommandListeners);
+    }
+
+    /**
+     * @return A copy of this registry without the commands of the holder, or this registry if none of its commands are registered.
+     * The index of the remaining commands is built again, so it doesn't keep anything of the removed commands.
+     */
+    CommandRegistry withoutHolder(Object holder) {
+        List<CommandNode> nodes = new ArrayList<>(this.nodes.size());
+        for (CommandNode node : this.nodes) {
+            if (!isOf(node.getCommand(), holder)) {
+                nodes.add(node);
+            }
+        }
+        if (nodes.size() == this.nodes.size()) {
+            return this;
+        }
+        AliasIndex<CommandNode> index = new AliasIndex<>(nodes.size());
+        for (CommandNode node : nodes) {
+            CommandBase cmd = node.getCommand();
+            index.put(cmd.getName(), node);
+            for (String alias : cmd.getAliases()) {
+                index.put(alias, node);
+            }
+        }
+        return new CommandRegistry(annotationAdapters, argumentAdapters, argumentAdapterCache, Collections.unmodifiableList(nodes), index, registerCommandListeners);
+    }
+
+    /**
+     * @return Whether the command was created from the holder, either from one of its methods or as its tree command.
+     */
+    static boolean isOf(CommandBase cmd, Object holder) {
+        if (cmd instanceof LazyCommand) {
+            return ((LazyCommand) cmd).getHolder() == holder;
+        }
+        return cmd instanceof MethodCommand && ((MethodCommand) cmd).getHolder() == holder;
+    }
+
+    /**
+     * @return Whether any command of the holder is registered in this registry
+     */
+    public boolean contains(Object holder) {
+        for (CommandBase cmd : commands) {
+            if (isOf(cmd, holder)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <A extends Annotation> AnnotationAdapter<A> getAnnotationAdapter(Class<A> annotationType) {
+        // adapters are registered by the annotation type they adapt
+        return (AnnotationAdapter<A>) annotationAdapters.get(annotationType);
+    }
+
+    /**
+     * @see CommandManager#getArgumentAdapter(Class)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ArgumentAdapter<T> getArgumentAdapter(Class<T> type) {
+        // the cache only resolves a type to an adapter of it, of its boxed or primitive type, or of one of its supertypes
+        return (ArgumentAdapter<T>) argumentAdapterCache.get(type);
+    }
+
+    /**
+     * @return All annotation types to their adapters
+     */
+    public Map<Class<? extends Annotation>, AnnotationAdapter<?>> getAnnotationAdapters() {
+        return annotationAdapters;
+    }
+
+    /**
+     * @return All object types to their adapters
+     */
+    public Map<Class<?>, ArgumentAdapter<?>> getArgumentAdapters() {
+        return argumentAdapters;
+    }
+
+    /**
+     * @return All registered commands, in the order they were registered
+     */
+    public List<CommandBase> getCommands() {
+        return commands;
+    }
+
+    /**
+     * @return The root nodes of all registered commands, in the order they were registered
+     */
+    public List<CommandNode> getCommandNodes() {
+        return nodes;
+    }
+
+    /**
+     * Gets the compiled node of the command using the alias found in the given range of the input, ignoring case.<br/>
+     * The node of a {@link LazyCommand} stands for the command until it's {@link CommandNode#resolve() resolved}.
+     * @return The root node of the command, or <code>null</code> if none found.
+     */
+    public CommandNode getCommandNode(CharSequence input, int start, int end) {
+        return commandIndex.get(input, start, end);
+    }
+
+    public CommandNode getCommandNode(CharSequence alias) {
+        return commandIndex.get(alias);
+    }
+
+    /**
+     * Visits the names and aliases of the commands starting with the prefix found in the given range of the input, ignoring case.
+     * @see PrefixTrie#visit(CharSequence, int, int, PrefixTrie.Visitor)
+     */
+    public void visitCommandNames(CharSequence input, int start, int end, PrefixTrie.Visitor<CommandNode> visitor) {
+        PrefixTrie<CommandNode> names = commandNames;
+        if (names == null) {
+            // racing threads may each build one, but they are all equal
+            names = new PrefixTrie<>();
+            for (CommandNode node : nodes) {
+                CommandBase cmd = node.getCommand();
+                names.put(cmd.getName(), node);
+                for (String alias : cmd.getAliases()) {
+                    names.put(alias, node);
+                }
+            }
+            commandNames = names;
+        }
+        names.visit(input, start, end, visitor);
+    }
+
+    public List<Consumer<CommandBase>> getRegisterCommandListeners() {
+        return registerCommandListeners;
+    }
+
+    /**
+     * Caches {@link CommandManager#resolveArgumentAdapter(Map, Class)} per type, over the adapters of one registry.
+     */
+    private static class ArgumentAdapterCache extends ClassValue<ArgumentAdapter<?>> {
+
+        private final Map<Class<?>, ArgumentAdapter<?>> adapters;
+
+        ArgumentAdapterCache(Map<Class<?>, ArgumentAdapter<?>> adapters) {
+            this.adapters = adapters;
+        }
+
+        @Override
+        protected ArgumentAdapter<?> computeValue(Class<?> type) {
+            return CommandManager.resolveArgumentAdapter(adapters, type);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.shinybunny.cmdapi;
 import com.shinybunny.cmdapi.arguments.Argument;
 import com.shinybunny.cmdapi.arguments.ArgumentAdapter;
 import com.shinybunny.cmdapi.exceptions.CommandExecutionException;
+import com.shinybunny.cmdapi.exceptions.DuplicateAliasException;
 import com.shinybunny.cmdapi.exceptions.NoAdapterFoundException;
 import com.shinybunny.cmdapi.utils.CommandExecutor;
 import com.shinybunny.cmdapi.utils.CommandResult;
@@ -19,9 +20,10 @@ import java.util.function.Predicate;
 public class DynamicCommand extends CommandBase {
     private CommandExecutor executor;
     private Predicate<CommandContext> requirement;
+    private boolean async;
 
-    public DynamicCommand(String name, List<Argument> arguments, CommandExecutor executor) {
-        super(name);
+    public DynamicCommand(CommandManager manager, String name, List<Argument> arguments, CommandExecutor executor) {
+        super(manager,name);
         this.arguments = arguments;
         this.executor = executor;
     }
@@ -39,13 +41,26 @@ public class DynamicCommand extends CommandBase {
 
     @Override
     public void validateUse(CommandContext ctx) throws NoPermissionException {
-        if (requirement != null) {
-            if (!requirement.test(ctx)) {
-                throw new NoPermissionException("You are not allowed to use this command!");
-            }
+        if (!canUse(ctx)) {
+            throw new NoPermissionException(getNoPermissionMessage());
         }
     }
 
+    @Override
+    public boolean canUse(CommandContext ctx) {
+        return requirement == null || requirement.test(ctx);
+    }
+
+    @Override
+    public boolean isAsync() {
+        return async;
+    }
+
+    @Override
+    public String getNoPermissionMessage() {
+        return "You are not allowed to use this command!";
+    }
+
     /**
      * Builds a new Command out of {@link Argument} objects
      */
@@ -55,9 +70,11 @@ public class DynamicCommand extends CommandBase {
         private List<Argument> arguments = new ArrayList<>();
         private List<String> aliases = new ArrayList<>();
         private Predicate<CommandContext> requirement;
+        private boolean async;
         private CommandManager manager;
 
         public Builder(CommandManager manager, String name) {
+            this.manager = manager;
             this.name = name;
         }
 
@@ -70,6 +87,15 @@ public class DynamicCommand extends CommandBase {
             return this;
         }
 
+        /**
+         * Makes the command run on the executor of its manager when executed asynchronously.
+         * @see CommandBase#isAsync()
+         */
+        public Builder async() {
+            this.async = true;
+            return this;
+        }
+
         public Builder aliases(String... aliases) {
             this.aliases = Arrays.asList(aliases);
             return this;
@@ -82,7 +108,7 @@ public class DynamicCommand extends CommandBase {
 
         public Builder argument(String name, ArgumentAdapter<?> adapter) {
             try {
-                return argument(new Argument(name,adapter.getType(),adapter));
+                return argument(new Argument(manager,name,adapter.getType(),adapter));
             } catch (NoAdapterFoundException e) {
                 e.printStackTrace();
             }
@@ -93,10 +119,17 @@ public class DynamicCommand extends CommandBase {
             return argument(name, manager.getArgumentAdapter(type));
         }
 
-        public DynamicCommand build(CommandExecutor executor) {
-            DynamicCommand cmd = new DynamicCommand(name, arguments, executor);
+        /**
+         * Builds the command and adds it to the command manager.
+         * @param executor The executor to run the command with
+         * @return The new command
+         * @throws DuplicateAliasException if the name or an alias of the command is already used by another command.
+         */
+        public DynamicCommand build(CommandExecutor executor) throws DuplicateAliasException {
+            DynamicCommand cmd = new DynamicCommand(manager, name, arguments, executor);
             cmd.aliases = aliases;
             cmd.requirement = requirement;
+            cmd.async = async;
             manager.addCommand(cmd);
             return cmd;
         }
@@ -0,0 +1,78 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.exceptions.IncompatibleAnnotationException;
+import com.shinybunny.cmdapi.exceptions.NoAdapterFoundException;
+
+import java.util.List;
+
+/**
+ * Creates the commands of a command holder class without reflection.<br/>
+ * Implementations are generated at compile time by the <code>com.shinybunny.cmdapi.processor.CommandProcessor</code> annotation processor,
+ * in the package of the holder, named after the holder class with <code>_HolderRegistry</code> appended,
+ * like <code>Commands_CoinsCommand_HolderRegistry</code> for the nested class <code>Commands.CoinsCommand</code>.
+ * <br/>
+ * {@link CommandManager#register(Object)} uses the generated registry of a holder's class when there is one,
+ * and otherwise scans the class reflectively.
+ * @param <H> The holder class
+ */
+public interface HolderRegistry<H> {
+
+    /**
+     * The suffix appended to the name of a holder class to get the name of its generated registry
+     */
+    String SUFFIX = "_HolderRegistry";
+
+    /**
+     * Creates the commands of a holder, like {@link CommandManager#register(Object)} would by scanning its class.
+     * @param manager The manager the commands are created for
+     * @param holder The holder instance
+     * @return A single tree command if the holder class is annotated with {@link com.shinybunny.cmdapi.annotations.Command}, or else a command for each of its methods.
+     */
+    List<CommandBase> createCommands(CommandManager manager, H holder) throws IncompatibleAnnotationException, NoAdapterFoundException;
+
+    /**
+     * Creates the {@link LazyCommand}s of a holder for {@link CommandManager#setLazyRegistration(boolean) lazy registration}, with their names known without scanning the class.
+     * @param manager The manager the commands are created for
+     * @param holder The holder instance
+     * @return The lazy commands, or <code>null</code> to let the manager read their names from the class.
+     */
+    default List<CommandBase> createLazyCommands(CommandManager manager, H holder) {
+        return null;
+    }
+
+    /**
+     * Finds the generated registry of a holder class.
+     * @return The registry, or <code>null</code> if none was generated for that class
+     */
+    static HolderRegistry<Object> of(Class<?> holderClass) {
+        return Generated.REGISTRIES.get(holderClass);
+    }
+
+    /**
+     * Loads each holder class's generated registry once.
+     */
+    final class Generated extends ClassValue<HolderRegistry<Object>> {
+
+        private static final Generated REGISTRIES = new Generated();
+
+        private Generated() {
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected HolderRegistry<Object> computeValue(Class<?> type) {
+            Package pkg = type.getPackage();
+            String prefix = pkg == null || pkg.getName().isEmpty() ? "" : pkg.getName() + ".";
+            String name = prefix + type.getName().substring(prefix.length()).replace('$', '_') + SUFFIX;
+            try {
+                Class<?> cls = Class.forName(name, true, type.getClassLoader());
+                if (!HolderRegistry.class.isAssignableFrom(cls)) return null;
+                return (HolderRegistry<Object>) cls.getDeclaredConstructor().newInstance();
+            } catch (ClassNotFoundException | LinkageError e) {
+                return null;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Can't create the generated registry " + name, e);
+            }
+        }
+    }
+}
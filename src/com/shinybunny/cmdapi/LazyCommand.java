@@ -0,0 +1,147 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.Command;
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.exceptions.CommandExecutionException;
+import com.shinybunny.cmdapi.exceptions.IncompatibleAnnotationException;
+import com.shinybunny.cmdapi.exceptions.NoAdapterFoundException;
+import com.shinybunny.cmdapi.nodes.CommandNode;
+import com.shinybunny.cmdapi.utils.CommandResult;
+
+import javax.naming.NoPermissionException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A command registered by name only, while its arguments and invoker are created on first use.
+ * Registered instead of the commands of a holder when the manager uses {@link CommandManager#setLazyRegistration(boolean) lazy registration}.<br/>
+ * Only the name, the aliases and the <code>@</code>{@link Command} settings are known up front, so the command can be looked up, suggested and checked for permission.
+ * The first time it's parsed, or its arguments are needed, the actual command is created and compiled, exactly once, even if many threads need it at the same time.
+ * <br/>
+ * Errors creating the command, like a {@link NoAdapterFoundException}, are only found on first use.
+ * They are thrown wrapped in an {@link IllegalStateException}, again on every later use.
+ */
+public class LazyCommand extends CommandBase {
+
+    private final Object holder;
+    private final Command settings;
+    /**
+     * Creates the actual command, or <code>null</code> once it was called
+     */
+    private Factory factory;
+    private volatile CommandNode node;
+    private IllegalStateException failure;
+
+    /**
+     * @param name The name of the command, which must be the name of the command the factory creates
+     * @param holder The holder instance the command belongs to
+     * @param settings The <code>@</code>{@link Command} settings of the command, or <code>null</code>
+     * @param factory Creates the actual command
+     */
+    public LazyCommand(CommandManager manager, String name, Object holder, Command settings, Factory factory) {
+        super(manager, name);
+        this.holder = holder;
+        this.settings = settings;
+        this.factory = factory;
+        this.aliases = settings == null ? new ArrayList<>() : Arrays.asList(settings.aliases());
+    }
+
+    /**
+     * Gets the compiled node of the actual command, creating the command if it wasn't created yet.
+     * @throws IllegalStateException if the command can't be created
+     */
+    public CommandNode getNode() {
+        CommandNode node = this.node;
+        if (node == null) {
+            synchronized (this) {
+                node = this.node;
+                if (node == null) {
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    try {
+                        node = CommandNode.compile(factory.create());
+                    } catch (IncompatibleAnnotationException | NoAdapterFoundException | RuntimeException e) {
+                        failure = new IllegalStateException("Can't create the command " + name, e);
+                        factory = null;
+                        throw failure;
+                    }
+                    factory = null;
+                    this.node = node;
+                }
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Gets the actual command, creating it if it wasn't created yet.
+     * @throws IllegalStateException if the command can't be created
+     */
+    public CommandBase getCommand() {
+        return getNode().getCommand();
+    }
+
+    /**
+     * @return Whether the actual command was created
+     */
+    public boolean isCreated() {
+        return node != null;
+    }
+
+    public Object getHolder() {
+        return holder;
+    }
+
+    public Command getSettings() {
+        return settings;
+    }
+
+    /**
+     * @return The arguments of the actual command, creating it if it wasn't created yet.
+     */
+    @Override
+    public List<Argument> getArguments() {
+        return getCommand().getArguments();
+    }
+
+    @Override
+    public CommandResult run(CommandContext ctx) throws CommandExecutionException {
+        return getCommand().run(ctx);
+    }
+
+    @Override
+    public boolean isAsync() {
+        return settings != null && settings.async();
+    }
+
+    @Override
+    public String getNoPermissionMessage() {
+        return settings == null ? super.getNoPermissionMessage() : settings.noPermissionMessage();
+    }
+
+    @Override
+    public void validateUse(CommandContext ctx) throws NoPermissionException {
+        if (!canUse(ctx)) {
+            throw new NoPermissionException(settings.noPermissionMessage());
+        }
+    }
+
+    /**
+     * Checks the permission of the <code>@</code>{@link Command} settings, like a {@link MethodCommand} does, without creating the actual command.
+     */
+    @Override
+    public boolean canUse(CommandContext ctx) {
+        return settings == null || settings.permission().isEmpty() || ctx.hasPermission(settings.permission());
+    }
+
+    /**
+     * Creates the actual command of a {@link LazyCommand}.
+     */
+    @FunctionalInterface
+    public interface Factory {
+
+        CommandBase create() throws IncompatibleAnnotationException, NoAdapterFoundException;
+    }
+}
@@ -7,10 +7,15 @@ import com.shinybunny.cmdapi.arguments.SubCommandAdapter;
 import com.shinybunny.cmdapi.exceptions.CommandExecutionException;
 import com.shinybunny.cmdapi.exceptions.IncompatibleAnnotationException;
 import com.shinybunny.cmdapi.exceptions.NoAdapterFoundException;
+import com.shinybunny.cmdapi.nodes.SpecializedParser;
+import com.shinybunny.cmdapi.nodes.Specializer;
 import com.shinybunny.cmdapi.utils.CommandResult;
 
 import javax.naming.NoPermissionException;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -23,9 +28,42 @@ import java.util.List;
  */
 public class MethodCommand extends CommandBase {
 
+    private static final MethodHandle GET_ARGUMENT;
+    private static final MethodHandle GET_INT;
+    private static final MethodHandle GET_LONG;
+    private static final MethodHandle GET_DOUBLE;
+    private static final MethodHandle GET_BOOLEAN;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            GET_ARGUMENT = lookup.findVirtual(CommandContext.class, "get", MethodType.methodType(Object.class, Argument.class));
+            GET_INT = lookup.findVirtual(CommandContext.class, "getInt", MethodType.methodType(int.class, Argument.class));
+            GET_LONG = lookup.findVirtual(CommandContext.class, "getLong", MethodType.methodType(long.class, Argument.class));
+            GET_DOUBLE = lookup.findVirtual(CommandContext.class, "getDouble", MethodType.methodType(double.class, Argument.class));
+            GET_BOOLEAN = lookup.findVirtual(CommandContext.class, "getBoolean", MethodType.methodType(boolean.class, Argument.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private Executable method;
     private Object holder;
     private Command settings;
+    /**
+     * A handle of type <code>(CommandContext)Object</code> that reads every argument from the context and calls the method with them directly,
+     * or <code>null</code> if the method can't be accessed through a handle, and has to be invoked reflectively.
+     */
+    private MethodHandle invoker;
+    /**
+     * The invoker calling the method directly, of a command created by a generated {@link HolderRegistry} or generated by {@link Specializer},
+     * or <code>null</code> for a command invoked through its handle.
+     */
+    private Invoker directInvoker;
+    /**
+     * The parser generated for this command, or <code>null</code> if it's not {@link #isSpecialized() specialized} or can't be
+     */
+    private SpecializedParser specializedParser;
 
     public MethodCommand(CommandManager manager, String name, Executable method, Object holder) throws IncompatibleAnnotationException, NoAdapterFoundException {
         super(manager,name);
@@ -35,16 +73,59 @@ public class MethodCommand extends CommandBase {
         aliases = new ArrayList<>();
         createArguments(method);
         applySettings(method.getAnnotation(Command.class));
+        this.invoker = createInvoker();
+        if (isSpecialized()) {
+            this.specializedParser = Specializer.createParser(this);
+            // a generated invoker calls the method without going through a handle
+            this.directInvoker = Specializer.createInvoker(this);
+        }
+    }
+
+    /**
+     * Creates a command from arguments that were already created, calling the method through an invoker instead of a reflected method.
+     * Used by the generated {@link HolderRegistry holder registries}.
+     * @param name The name of the method
+     * @param holder The holder instance the method belongs to
+     * @param settings The <code>@</code>{@link Command} annotation of the method, or <code>null</code>
+     * @param arguments The arguments of the method's parameters, in order
+     * @param invoker Calls the method with the values of the arguments
+     */
+    public MethodCommand(CommandManager manager, String name, Object holder, Command settings, List<Argument> arguments, Invoker invoker) {
+        super(manager,name);
+        this.holder = holder;
+        this.arguments.addAll(arguments);
+        this.directInvoker = invoker;
+        applySettings(settings);
+        if (isSpecialized()) {
+            this.specializedParser = Specializer.createParser(this);
+        }
     }
 
     public MethodCommand(CommandManager manager, Object holder, Command settings) throws IncompatibleAnnotationException, NoAdapterFoundException {
+        this(manager, holder, settings, new SubCommandAdapter(manager,holder));
+    }
+
+    /**
+     * Creates a tree command whose sub commands were already created.
+     * @param subCommands The adapter of the sub command argument
+     */
+    public MethodCommand(CommandManager manager, Object holder, Command settings, SubCommandAdapter subCommands) throws IncompatibleAnnotationException, NoAdapterFoundException {
         super(manager,nameTree(holder.getClass().getSimpleName()));
         this.holder = holder;
-        Argument scArg = new ParameterArgument(manager,"sub command", new Annotation[0],MethodCommand.class, new SubCommandAdapter(holder));
+        Argument scArg = new ParameterArgument(manager,"sub command", new Annotation[0],MethodCommand.class, subCommands);
         arguments.add(scArg);
         applySettings(settings);
     }
 
+    /**
+     * @param holderClass The class of a tree command holder
+     * @param settings The <code>@</code>{@link Command} annotation of the class
+     * @return The name of the tree command created for the class
+     */
+    public static String treeName(Class<?> holderClass, Command settings) {
+        return settings != null && !settings.name().isEmpty() ? settings.name() : nameTree(holderClass.getSimpleName());
+    }
+
     /**
      * Chooses a name for a tree command class
      * @param simpleName The class's simple name
@@ -77,6 +158,52 @@ public class MethodCommand extends CommandBase {
         }
     }
 
+    /**
+     * Creates the direct invoker of the method.<br/>
+     * Each parameter of the method is filtered through a getter of its argument from the {@link CommandContext}, converted to the parameter type,
+     * and all of those getters are then merged into the single context parameter.
+     * <code>int</code>, <code>long</code>, <code>double</code> and <code>boolean</code> parameters use the primitive getters, so values stored unboxed are never boxed.
+     * @return The invoker handle, or <code>null</code> if the method can't be accessed.
+     */
+    private MethodHandle createInvoker() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle target;
+        try {
+            if (method instanceof Method) {
+                method.setAccessible(true);
+                target = lookup.unreflect((Method) method).bindTo(holder);
+            } else {
+                method.setAccessible(true);
+                target = lookup.unreflectConstructor((Constructor<?>) method);
+            }
+        } catch (IllegalAccessException | SecurityException e) {
+            return null;
+        }
+        Class<?>[] params = target.type().parameterArray();
+        MethodHandle[] getters = new MethodHandle[params.length];
+        for (int i = 0; i < params.length; i++) {
+            getters[i] = MethodHandles.insertArguments(getter(params[i]), 1, arguments.get(i))
+                    .asType(MethodType.methodType(params[i], CommandContext.class));
+        }
+        target = MethodHandles.filterArguments(target, 0, getters);
+        // every parameter is now a CommandContext, so pass the same context to all of them
+        target = MethodHandles.permuteArguments(target, MethodType.methodType(target.type().returnType(), CommandContext.class), new int[params.length]);
+        return target.asType(MethodType.methodType(Object.class, CommandContext.class));
+    }
+
+    private static MethodHandle getter(Class<?> type) {
+        if (type == int.class) {
+            return GET_INT;
+        } else if (type == long.class) {
+            return GET_LONG;
+        } else if (type == double.class) {
+            return GET_DOUBLE;
+        } else if (type == boolean.class) {
+            return GET_BOOLEAN;
+        }
+        return GET_ARGUMENT;
+    }
+
     /**
      * Executes the command and passing the {@link ParseResults} to the method's parameters.
      * @param ctx The {@link CommandContext} to use as parameters
@@ -84,19 +211,39 @@ public class MethodCommand extends CommandBase {
      */
     @Override
     public CommandResult run(CommandContext ctx) throws CommandExecutionException {
-        List<Object> args = new ArrayList<>();
-        for (Argument arg : arguments) {
-            args.add(ctx.get(arg));
+        if (directInvoker != null) {
+            Object obj;
+            try {
+                obj = directInvoker.invoke(ctx);
+            } catch (Throwable t) {
+                throw new CommandExecutionException(t);
+            }
+            return CommandResult.from(obj);
+        }
+        if (invoker == null) {
+            return runReflective(ctx);
+        }
+        Object obj;
+        try {
+            obj = (Object) invoker.invokeExact(ctx);
+        } catch (Throwable t) {
+            throw new CommandExecutionException(t);
+        }
+        return CommandResult.from(obj);
+    }
+
+    /**
+     * Executes the command through {@link Method#invoke(Object, Object...)} or {@link Constructor#newInstance(Object...)}.
+     * Only used when the method can't be accessed through a method handle.
+     */
+    protected CommandResult runReflective(CommandContext ctx) throws CommandExecutionException {
+        Object[] args = new Object[arguments.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = ctx.get(arguments.get(i));
         }
-        /*int i = 0;
-        for (Parameter p : method.getParameters()) {
-            Object o = args.get(i);
-            System.out.println("passing " + o + " (" +(o == null ? "" : o.getClass()) + ", should be " + arguments.get(i).getType() + ") for parameter " + p.getName() + " (" + p.getType() + ")");
-            i++;
-        }*/
         Object obj;
         try {
-            obj = method instanceof Method ? ((Method) method).invoke(holder,args.toArray()) : ((Constructor)method).newInstance(args.toArray());
+            obj = method instanceof Method ? ((Method) method).invoke(holder,args) : ((Constructor)method).newInstance(args);
         } catch (InvocationTargetException e) {
             throw new CommandExecutionException(e.getCause());
         } catch (IllegalAccessException | InstantiationException e) {
@@ -105,6 +252,45 @@ public class MethodCommand extends CommandBase {
         return CommandResult.from(obj);
     }
 
+    /**
+     * @return The method or constructor this command runs, or <code>null</code> for a tree command or a command created by a generated {@link HolderRegistry}.
+     */
+    public Executable getMethod() {
+        return method;
+    }
+
+    /**
+     * @return Whether this is a tree command, with a single sub command argument
+     */
+    public boolean isTree() {
+        return method == null && directInvoker == null;
+    }
+
+    public Object getHolder() {
+        return holder;
+    }
+
+    /**
+     * @return Whether this command should be parsed by a {@link SpecializedParser}, because its manager {@link CommandManager#isSpecializing() specializes}
+     * all commands or its settings ask for it.
+     */
+    public boolean isSpecialized() {
+        return manager.isSpecializing() || settings != null && settings.specialize();
+    }
+
+    /**
+     * @return The parser generated for this command when it was created, or <code>null</code> if it's not specialized,
+     * or it has arguments {@link Specializer} can't specialize.
+     */
+    public SpecializedParser getSpecializedParser() {
+        return specializedParser;
+    }
+
+    @Override
+    public boolean isAsync() {
+        return settings != null && settings.async();
+    }
+
     public Command getSettings() {
         return settings;
     }
@@ -114,12 +300,25 @@ public class MethodCommand extends CommandBase {
     }
 
     public void validateUse(CommandContext ctx) throws NoPermissionException {
-        if (settings != null) {
-            if (!settings.permission().isEmpty()) {
-                if (!ctx.hasPermission(settings.permission())) {
-                    throw new NoPermissionException(settings.noPermissionMessage());
-                }
-            }
+        if (!canUse(ctx)) {
+            throw new NoPermissionException(settings.noPermissionMessage());
         }
     }
+
+    @Override
+    public boolean canUse(CommandContext ctx) {
+        return settings == null || settings.permission().isEmpty() || ctx.hasPermission(settings.permission());
+    }
+
+    /**
+     * Calls the method of a command with the values of its arguments from the context, like a generated <code>holder.method(ctx.getInt(amount))</code>.
+     */
+    @FunctionalInterface
+    public interface Invoker {
+
+        /**
+         * @return The value returned by the method, or the new instance for a constructor
+         */
+        Object invoke(CommandContext ctx) throws Throwable;
+    }
 }
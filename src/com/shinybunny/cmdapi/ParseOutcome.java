@@ -0,0 +1,163 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.exceptions.*;
+
+import javax.naming.NoPermissionException;
+
+/**
+ * The outcome of {@link CommandManager#tryParse(Sender, String)}. Holds either the {@link ParseResults} of a successful parse,
+ * or a structured description of why the input could not be parsed.<br/>
+ * No exception is created for a failed outcome unless {@link #getResultsOrThrow()} is called.
+ */
+public final class ParseOutcome {
+
+    /**
+     * The reasons an input can fail to parse
+     */
+    public enum Error {
+        /**
+         * No command uses the alias of the input. Matches {@link UnknownCommandException}.
+         */
+        UNKNOWN_COMMAND,
+        /**
+         * The sender can't use the command. Matches {@link NoPermissionException}.
+         */
+        NO_PERMISSION,
+        /**
+         * A required argument was not provided. Matches {@link MissingArgumentException}.
+         */
+        MISSING_ARGUMENT,
+        /**
+         * An argument could not be parsed from the input. Matches {@link CommandParseException}.
+         */
+        PARSE_ERROR,
+        /**
+         * A parsed argument failed validation. Matches {@link InvalidArgumentException}.
+         */
+        INVALID_ARGUMENT
+    }
+
+    private final ParseResults results;
+    private final Error error;
+    private final String alias;
+    private final Argument argument;
+    private final int cursor;
+    private final String message;
+    private final Exception exception;
+
+    private ParseOutcome(ParseResults results, Error error, String alias, Argument argument, int cursor, String message, Exception exception) {
+        this.results = results;
+        this.error = error;
+        this.alias = alias;
+        this.argument = argument;
+        this.cursor = cursor;
+        this.message = message;
+        this.exception = exception;
+    }
+
+    public static ParseOutcome success(ParseResults results) {
+        return new ParseOutcome(results, null, null, null, -1, null, null);
+    }
+
+    public static ParseOutcome unknownCommand(String alias) {
+        return new ParseOutcome(null, Error.UNKNOWN_COMMAND, alias, null, 0, null, null);
+    }
+
+    public static ParseOutcome noPermission(CommandBase cmd, int cursor) {
+        return new ParseOutcome(null, Error.NO_PERMISSION, null, null, cursor, cmd.getNoPermissionMessage(), null);
+    }
+
+    public static ParseOutcome missingArgument(Argument arg, int cursor) {
+        return new ParseOutcome(null, Error.MISSING_ARGUMENT, null, arg, cursor, null, null);
+    }
+
+    public static ParseOutcome parseError(Argument arg, int cursor, String message) {
+        return new ParseOutcome(null, Error.PARSE_ERROR, null, arg, cursor, message, null);
+    }
+
+    /**
+     * Creates a failed outcome from an exception thrown by an argument adapter.
+     */
+    public static ParseOutcome parseError(Argument arg, int cursor, CommandParseException e) {
+        return new ParseOutcome(null, Error.PARSE_ERROR, null, arg, cursor, e.getMessage(), e);
+    }
+
+    /**
+     * Creates a failed outcome from an exception thrown by an annotation adapter.
+     */
+    public static ParseOutcome invalidArgument(Argument arg, int cursor, InvalidArgumentException e) {
+        return new ParseOutcome(null, Error.INVALID_ARGUMENT, null, arg, cursor, e.getMessage(), e);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return The parse results, or <code>null</code> if the input failed to parse.
+     */
+    public ParseResults getResults() {
+        return results;
+    }
+
+    /**
+     * @return The reason the input failed to parse, or <code>null</code> if it was parsed successfully.
+     */
+    public Error getError() {
+        return error;
+    }
+
+    /**
+     * @return The argument that failed to parse, or <code>null</code> if the failure is not about a specific argument.
+     */
+    public Argument getArgument() {
+        return argument;
+    }
+
+    /**
+     * @return The position in the input where the failure was found, or -1 for a successful parse.
+     */
+    public int getCursor() {
+        return cursor;
+    }
+
+    /**
+     * @return A message describing the failure, to show to the sender, or <code>null</code> for a successful parse.
+     */
+    public String getMessage() {
+        if (error == Error.UNKNOWN_COMMAND) {
+            return "Unknown command '" + alias + "'!";
+        } else if (error == Error.MISSING_ARGUMENT) {
+            return "Missing argument " + argument;
+        }
+        return message;
+    }
+
+    /**
+     * Gets the results of a successful parse, or throws the exception {@link CommandManager#parse(Sender, String)} would have thrown for this failure.
+     * @return The parse results
+     */
+    public ParseResults getResultsOrThrow() throws UnknownCommandException, NoPermissionException, MissingArgumentException, CommandParseException, InvalidArgumentException {
+        if (error == null) {
+            return results;
+        }
+        switch (error) {
+            case UNKNOWN_COMMAND:
+                throw new UnknownCommandException(alias);
+            case NO_PERMISSION:
+                throw new NoPermissionException(message);
+            case MISSING_ARGUMENT:
+                throw new MissingArgumentException(argument);
+            case INVALID_ARGUMENT:
+                throw (InvalidArgumentException) exception;
+            default:
+                throw exception != null ? (CommandParseException) exception : new CommandParseException(message);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return error == null ? "ParseOutcome[success]" : "ParseOutcome[" + error + " at " + cursor + ": " + getMessage() + "]";
+    }
+}
@@ -2,33 +2,247 @@ package com.shinybunny.cmdapi;
 
 import com.shinybunny.cmdapi.arguments.Argument;
 import com.shinybunny.cmdapi.exceptions.CommandExecutionException;
+import com.shinybunny.cmdapi.nodes.CommandNode;
+import com.shinybunny.cmdapi.tracing.ParseTracer;
 import com.shinybunny.cmdapi.utils.CommandResult;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
- * The ParseResults class holds a list of argument values to pass to an execution of a command through {@link #execute()}
+ * The ParseResults class holds a list of argument values to pass to an execution of a command through {@link #execute()}<br/>
+ * Values are stored by the {@link Argument#getSlot() slot} of their argument, so getting the value of an argument doesn't search through the other values.
+ * Arguments without a slot of their own (not part of a compiled command) are stored after all slots.
+ * <br/>
+ * Values of <code>int</code>, <code>long</code>, <code>double</code> and <code>boolean</code> arguments can be stored unboxed with {@link #putInt(Argument, int)} and the like,
+ * and read unboxed with {@link #getInt(Argument)} and the like. Getting them as objects boxes them on each call.
  */
 public class ParseResults {
 
+    private static final byte OBJECT = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+
     private CommandContext ctx;
-    private List<Entry> values;
+    private Argument[] arguments;
+    private Object[] values;
+    /**
+     * The bits of the primitive values, in the slots whose kind is not {@link #OBJECT}
+     */
+    private long[] primitives;
+    private byte[] kinds;
+    /**
+     * The positions of the values in the order they were added
+     */
+    private int[] order;
+    private int size;
+    /**
+     * The position after the last slot of the entered nodes. Arguments without a slot are stored from here on.
+     */
+    private int slotCount;
+    private Map<String, Integer> slotsByName = Collections.emptyMap();
+    /**
+     * The last entered node, whose command is executed
+     */
+    private CommandNode node;
 
     public ParseResults(CommandContext ctx, List<Entry> values) {
-        this.ctx = ctx;
-        this.values = values;
+        this(ctx);
+        for (Entry e : values) {
+            addEntry(e);
+        }
     }
 
     public ParseResults(CommandContext ctx) {
         this.ctx = ctx;
-        this.values = new ArrayList<>();
+        this.arguments = new Argument[4];
+        this.values = new Object[4];
+        this.primitives = new long[4];
+        this.kinds = new byte[4];
+        this.order = new int[4];
+    }
+
+    /**
+     * Prepares the results to hold the values of the node's arguments, before parsing them.
+     * @param node The node about to be parsed
+     */
+    public void enter(CommandNode node) {
+        int newCount = node.getSlotCount();
+        if (newCount > slotCount) {
+            ensureCapacity(newCount + size);
+            // values without a slot may already sit where the node's slots are, so move them after the new slots.
+            // they are moved from the last one, so none is overwritten before it moved.
+            int shift = newCount - slotCount;
+            for (int i = arguments.length - 1 - shift; i >= slotCount; i--) {
+                if (arguments[i] != null) {
+                    arguments[i + shift] = arguments[i];
+                    values[i + shift] = values[i];
+                    primitives[i + shift] = primitives[i];
+                    kinds[i + shift] = kinds[i];
+                    arguments[i] = null;
+                    values[i] = null;
+                    primitives[i] = 0;
+                    kinds[i] = OBJECT;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                if (order[i] >= slotCount) {
+                    order[i] += shift;
+                }
+            }
+            slotCount = newCount;
+        }
+        slotsByName = node.getSlotsByName();
+        this.node = node;
+    }
+
+    /**
+     * @return The node entered last, which is the node of the command parsing ended in, or <code>null</code> if no node was entered.
+     */
+    public CommandNode getNode() {
+        return node;
     }
 
     public void addEntry(Entry entry) {
-        this.values.add(entry);
+        put(entry.arg, entry.value);
+    }
+
+    /**
+     * Sets the value of an argument.
+     * @param arg The argument
+     * @param value The parsed value
+     */
+    public void put(Argument arg, Object value) {
+        int slot = slotFor(arg);
+        values[slot] = value;
+        kinds[slot] = OBJECT;
+    }
+
+    public void putInt(Argument arg, int value) {
+        int slot = slotFor(arg);
+        values[slot] = null;
+        primitives[slot] = value;
+        kinds[slot] = INT;
+    }
+
+    public void putLong(Argument arg, long value) {
+        int slot = slotFor(arg);
+        values[slot] = null;
+        primitives[slot] = value;
+        kinds[slot] = LONG;
+    }
+
+    public void putDouble(Argument arg, double value) {
+        int slot = slotFor(arg);
+        values[slot] = null;
+        primitives[slot] = Double.doubleToRawLongBits(value);
+        kinds[slot] = DOUBLE;
+    }
+
+    public void putBoolean(Argument arg, boolean value) {
+        int slot = slotFor(arg);
+        values[slot] = null;
+        primitives[slot] = value ? 1 : 0;
+        kinds[slot] = BOOLEAN;
+    }
+
+    /**
+     * Finds the position to store the value of the argument at, adding the argument there if it's not there yet.
+     */
+    private int slotFor(Argument arg) {
+        int slot = arg.getSlot();
+        if (slot < 0 || slot >= slotCount || (arguments[slot] != null && arguments[slot] != arg)) {
+            slot = indexOf(arg);
+            if (slot < 0) {
+                slot = Math.max(slotCount, size == 0 ? 0 : maxPosition() + 1);
+            }
+        }
+        ensureCapacity(slot + 1);
+        if (arguments[slot] == null) {
+            order[size++] = slot;
+            arguments[slot] = arg;
+        }
+        return slot;
+    }
+
+    /**
+     * Gets the value at a position, boxing it if it's primitive.
+     */
+    private Object valueAt(int slot) {
+        switch (kinds[slot]) {
+            case INT:
+                return (int) primitives[slot];
+            case LONG:
+                return primitives[slot];
+            case DOUBLE:
+                return Double.longBitsToDouble(primitives[slot]);
+            case BOOLEAN:
+                return primitives[slot] != 0;
+            default:
+                return values[slot];
+        }
+    }
+
+    /**
+     * Finds the position of an argument's value
+     * @return The position, or -1 if the argument has no value
+     */
+    private int find(Argument arg) {
+        int slot = arg.getSlot();
+        if (slot >= 0 && slot < arguments.length && arguments[slot] == arg) {
+            return slot;
+        }
+        return indexOf(arg);
+    }
+
+    /**
+     * Finds the position of the value of an argument by its name
+     * @return The position, or -1 if no argument with that name has a value
+     */
+    private int find(String name) {
+        Integer slot = slotsByName.get(name);
+        if (slot != null && arguments[slot] != null) {
+            return slot;
+        }
+        for (int i = 0; i < size; i++) {
+            if (arguments[order[i]].getName().equals(name)) return order[i];
+        }
+        return -1;
+    }
+
+    private int maxPosition() {
+        int max = -1;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, order[i]);
+        }
+        return max;
+    }
+
+    private int indexOf(Argument arg) {
+        for (int i = 0; i < size; i++) {
+            if (arguments[order[i]].equals(arg)) return order[i];
+        }
+        return -1;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > arguments.length) {
+            int newCapacity = Math.max(capacity, arguments.length * 2);
+            arguments = Arrays.copyOf(arguments, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+            primitives = Arrays.copyOf(primitives, newCapacity);
+            kinds = Arrays.copyOf(kinds, newCapacity);
+            order = Arrays.copyOf(order, newCapacity);
+        }
     }
 
     /**
@@ -38,29 +252,183 @@ public class ParseResults {
      * or warping any exception thrown from the method itself (e.g. {@link InvocationTargetException})
      */
     public CommandResult execute() throws CommandExecutionException {
-        return ctx.getCommand().run(ctx);
+        CommandBase cmd = ctx.getCommand();
+        CommandManager manager = cmd.getManager();
+        ParseTracer tracer = manager.getTracer();
+        boolean measured = node != null && manager.getMetrics().isEnabled();
+        if (!measured && tracer == null) {
+            return cmd.run(ctx);
+        }
+        Object token = tracer == null ? null : tracer.begin(ParseTracer.Phase.RUN);
+        long start = System.nanoTime();
+        CommandResult result;
+        try {
+            result = cmd.run(ctx);
+        } catch (CommandExecutionException | RuntimeException | Error e) {
+            if (measured) {
+                manager.getMetrics().recordException(node, System.nanoTime() - start, e);
+            }
+            throw e;
+        } finally {
+            // a command that threw still ran, so its run is ended either way
+            if (token != null) {
+                tracer.end(token, cmd.getName(), null, ctx.getInput().length());
+            }
+        }
+        if (measured) {
+            manager.getMetrics().recordExecution(node, System.nanoTime() - start, result);
+        }
+        return result;
+    }
+
+    /**
+     * Executes the command, off the calling thread if the command {@link CommandBase#isAsync() is async}.<br/>
+     * An async command runs on the {@link CommandManager#getExecutor() executor} of its manager.
+     * Any other command runs right away on the calling thread, like {@link #execute()}, and the returned future is already completed.
+     * @return A future completed with the result of the command, or completed exceptionally with the exception thrown by executing it.
+     */
+    public CompletableFuture<CommandResult> executeAsync() {
+        CommandBase cmd = ctx.getCommand();
+        CompletableFuture<CommandResult> future = new CompletableFuture<>();
+        if (!cmd.isAsync()) {
+            complete(future);
+            return future;
+        }
+        try {
+            cmd.getManager().getExecutor().execute(() -> complete(future));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private void complete(CompletableFuture<CommandResult> future) {
+        try {
+            future.complete(execute());
+        } catch (Throwable t) {
+            // errors too, or an error thrown on the executor would leave the future never completed
+            future.completeExceptionally(t);
+        }
     }
 
     public CommandContext getContext() {
         return ctx;
     }
 
+    /**
+     * @return A read-only view of all values, in the order they were parsed.
+     */
     public List<Entry> getValues() {
-        return values;
+        return new AbstractList<Entry>() {
+            @Override
+            public Entry get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+                }
+                int slot = order[index];
+                return new Entry(arguments[slot], valueAt(slot));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
     }
 
     public Object get(Argument arg) {
-        for (Entry e : values) {
-            if (e.arg.equals(arg)) return e.value;
-        }
-        return null;
+        int slot = find(arg);
+        return slot < 0 ? null : valueAt(slot);
     }
 
     public Object get(String name) {
-        for (Entry e : values) {
-            if (e.arg.getName().equals(name)) return e.value;
+        int slot = find(name);
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    /**
+     * Gets the value of an <code>int</code> argument without boxing it, if it was stored unboxed.
+     * @throws NullPointerException if the argument has no value
+     */
+    public int getInt(Argument arg) {
+        return intAt(find(arg));
+    }
+
+    public int getInt(String name) {
+        return intAt(find(name));
+    }
+
+    private int intAt(int slot) {
+        if (slot >= 0 && kinds[slot] == INT) {
+            return (int) primitives[slot];
+        }
+        return ((Number) (slot < 0 ? null : valueAt(slot))).intValue();
+    }
+
+    /**
+     * Gets the value of a <code>long</code> argument without boxing it, if it was stored unboxed.
+     * @throws NullPointerException if the argument has no value
+     */
+    public long getLong(Argument arg) {
+        return longAt(find(arg));
+    }
+
+    public long getLong(String name) {
+        return longAt(find(name));
+    }
+
+    private long longAt(int slot) {
+        if (slot >= 0 && (kinds[slot] == LONG || kinds[slot] == INT)) {
+            return primitives[slot];
+        }
+        return ((Number) (slot < 0 ? null : valueAt(slot))).longValue();
+    }
+
+    /**
+     * Gets the value of a <code>double</code> argument without boxing it, if it was stored unboxed.
+     * @throws NullPointerException if the argument has no value
+     */
+    public double getDouble(Argument arg) {
+        return doubleAt(find(arg));
+    }
+
+    public double getDouble(String name) {
+        return doubleAt(find(name));
+    }
+
+    private double doubleAt(int slot) {
+        if (slot >= 0 && kinds[slot] == DOUBLE) {
+            return Double.longBitsToDouble(primitives[slot]);
         }
-        return null;
+        return ((Number) (slot < 0 ? null : valueAt(slot))).doubleValue();
+    }
+
+    /**
+     * Gets the value of a <code>boolean</code> argument without boxing it, if it was stored unboxed.
+     * @throws NullPointerException if the argument has no value
+     */
+    public boolean getBoolean(Argument arg) {
+        return booleanAt(find(arg));
+    }
+
+    public boolean getBoolean(String name) {
+        return booleanAt(find(name));
+    }
+
+    private boolean booleanAt(int slot) {
+        if (slot >= 0 && kinds[slot] == BOOLEAN) {
+            return primitives[slot] != 0;
+        }
+        return (Boolean) (slot < 0 ? null : valueAt(slot));
+    }
+
+    /**
+     * Gets the value in a slot directly.
+     * @param slot The {@link Argument#getSlot() slot} of the argument
+     * @return The value in that slot, or <code>null</code> if it's empty
+     */
+    public Object get(int slot) {
+        return slot < arguments.length ? valueAt(slot) : null;
     }
 
     public static class Entry {
@@ -0,0 +1,61 @@
+package com.shinybunny.cmdapi;
+
+/**
+ * A single completion of a partly typed command input, returned by {@link CommandManager#suggest(Sender, String, int)}.<br/>
+ * Applying a suggestion replaces the characters of the input from {@link #getStart()} to {@link #getEnd()} with {@link #getText()}.
+ */
+public final class Suggestion {
+
+    private final String text;
+    private final int start;
+    private final int end;
+    private final CommandBase command;
+
+    public Suggestion(String text, int start, int end, CommandBase command) {
+        this.text = text;
+        this.start = start;
+        this.end = end;
+        this.command = command;
+    }
+
+    /**
+     * @return The text to put in the input
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return The index of the first character of the input to replace
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * @return The index after the last character of the input to replace
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * @return The command or sub command this suggestion completes the name of, or <code>null</code> if it completes an argument value.
+     */
+    public CommandBase getCommand() {
+        return command;
+    }
+
+    /**
+     * Applies this suggestion to the input it was suggested for.
+     * @return The input with the replaced range
+     */
+    public String apply(String input) {
+        return input.substring(0, start) + text + input.substring(end);
+    }
+
+    @Override
+    public String toString() {
+        return text + " [" + start + ", " + end + ")";
+    }
+}
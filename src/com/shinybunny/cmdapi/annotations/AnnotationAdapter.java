@@ -32,16 +32,21 @@ public interface AnnotationAdapter<A extends Annotation> {
      * @return A new annotation adapter with {@link #getAnnotationType()} returning the given <code>annotationType</code>
      */
     static <A extends Annotation> AnnotationAdapter<A> dummy(Class<A> annotationType) {
-        return new AnnotationAdapter<A>() {
+        return new PrimitiveAnnotationAdapter<A>() {
             @Override
             public Class<A> getAnnotationType() {
                 return annotationType;
             }
 
             @Override
-            public Object process(Object value, A annotation, ParameterArgument arg, CommandContext ctx) throws InvalidArgumentException {
+            public Object process(Object value, A annotation, ParameterArgument arg, CommandContext ctx) {
                 return value;
             }
+
+            @Override
+            public boolean processesValues() {
+                return false;
+            }
         };
     }
 
@@ -71,6 +76,25 @@ public interface AnnotationAdapter<A extends Annotation> {
      */
     Object process(Object value, A annotation, ParameterArgument arg, CommandContext ctx) throws InvalidArgumentException;
 
+    /**
+     * The order this adapter processes values in, relative to the other annotations of the same argument.
+     * Adapters with a lower priority process the value first. Adapters with the same priority run in the order their annotations are declared.<br/>
+     * For example, {@link Default} has a priority of -100, so validating adapters like {@link Range} see the default value too.
+     * @return 0 by default
+     */
+    default int priority() {
+        return 0;
+    }
+
+    /**
+     * Whether {@link #process(Object, Annotation, ParameterArgument, CommandContext)} does anything.
+     * Adapters that only change the argument in {@link #init(ParameterArgument, Annotation)} should return false, so they are skipped when processing values.
+     * @return true by default
+     */
+    default boolean processesValues() {
+        return true;
+    }
+
     default boolean isRequired(A a) {
         return true;
     }
@@ -17,7 +17,7 @@ public @interface Arg {
 
     String desc() default "";
 
-    class Adapter implements AnnotationAdapter<Arg> {
+    class Adapter implements PrimitiveAnnotationAdapter<Arg> {
 
         @Override
         public Class<Arg> getAnnotationType() {
@@ -29,6 +29,11 @@ public @interface Arg {
             return null;
         }
 
+        @Override
+        public boolean processesValues() {
+            return false;
+        }
+
         @Override
         public void init(ParameterArgument argument, Arg arg) {
             argument.setName(arg.value());
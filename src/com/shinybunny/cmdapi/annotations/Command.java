@@ -21,4 +21,18 @@ public @interface Command {
 
     String noPermissionMessage() default DEFAULT_NO_PERMS_MESSAGE;
 
+
+    /**
+     * Whether {@link com.shinybunny.cmdapi.ParseResults#executeAsync()} runs this command on the {@link com.shinybunny.cmdapi.CommandManager#getExecutor() executor} of its manager,
+     * instead of on the thread executing it. Use it for commands that block, like ones doing I/O.
+     */
+    boolean async() default false;
+
+    /**
+     * Whether this command is parsed by a {@link com.shinybunny.cmdapi.nodes.SpecializedParser SpecializedParser} generated for it,
+     * even if its manager doesn't {@link com.shinybunny.cmdapi.CommandManager#setSpecializing(boolean) specialize} all commands.
+     * Use it for hot commands.
+     */
+    boolean specialize() default false;
+
 }
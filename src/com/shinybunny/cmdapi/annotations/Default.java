@@ -5,6 +5,7 @@ import com.shinybunny.cmdapi.CommandContext;
 import com.shinybunny.cmdapi.arguments.ParameterArgument;
 import com.shinybunny.cmdapi.exceptions.IncompatibleAnnotationException;
 import com.shinybunny.cmdapi.exceptions.InvalidArgumentException;
+import com.shinybunny.cmdapi.tracing.ParseTracer;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -21,7 +22,7 @@ public @interface Default {
 
     boolean bool() default false;
 
-    class Adapter implements AnnotationAdapter<Default> {
+    class Adapter implements PrimitiveAnnotationAdapter<Default> {
 
         @Override
         public Class<Default> getAnnotationType() {
@@ -31,20 +32,44 @@ public @interface Default {
         @Override
         public Object process(Object value, Default annotation, ParameterArgument arg, CommandContext ctx) throws InvalidArgumentException {
             if (value == null) {
-                Object o = useDefault(annotation,arg.getType());
-                System.out.println("used default: " + o);
+                // resolved once by init()
+                Object o = arg.getDefaultValue();
+                ParseTracer tracer = arg.getManager().getTracer();
+                if (tracer != null) {
+                    tracer.defaultApplied(ctx, arg, o);
+                }
                 return o;
             }
             return value;
         }
 
+        @Override
+        public int priority() {
+            // fill in the value before anything validates it
+            return -100;
+        }
+
+        /**
+         * Resolves the default value once, when the command is registered, so omitting the argument only reads the ready value.
+         */
+        @Override
+        public void init(ParameterArgument argument, Default annotation) throws IncompatibleAnnotationException {
+            Object value = useDefault(annotation, argument.getType());
+            if (value == null) {
+                throw new IncompatibleAnnotationException("Invalid default value for " + argument + "!", Default.class, null, argument);
+            }
+            argument.setDefaultValue(value);
+        }
+
+        /**
+         * Converts the default value of the annotation to the type of the argument.
+         * @return The default value, or <code>null</code> if the annotation has no valid default value for that type.
+         */
         public static Object useDefault(Default annotation, Class<?> type) {
-            System.out.println("class type : " + type);
             if (type == String.class) {
                 return annotation.value();
             } else if (Number.class.isAssignableFrom(type)) {
                 if (Integer.class == type) {
-                    System.out.println("int");
                     return (int)annotation.number();
                 } else if (Float.class == type) {
                     return (float)annotation.number();
@@ -72,11 +97,6 @@ public @interface Default {
             }
         }
 
-        @Override
-        public void init(ParameterArgument argument, Default aDefault) throws IncompatibleAnnotationException {
-            System.out.println("applied @Default to " + argument);
-            System.out.println("default = " + aDefault.value() + "/" + aDefault.number() + "/" + aDefault.bool());
-        }
     }
 
 }
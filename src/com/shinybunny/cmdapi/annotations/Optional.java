@@ -14,7 +14,7 @@ import java.lang.annotation.Target;
 @Target(ElementType.PARAMETER)
 public @interface Optional {
 
-    class Adapter implements AnnotationAdapter<Optional> {
+    class Adapter implements PrimitiveAnnotationAdapter<Optional> {
 
         @Override
         public Class<Optional> getAnnotationType() {
@@ -26,6 +26,11 @@ public @interface Optional {
             return null;
         }
 
+        @Override
+        public boolean processesValues() {
+            return false;
+        }
+
         @Override
         public void init(ParameterArgument argument, Optional optional) throws IncompatibleAnnotationException {
             argument.incompatibleAnnotations(Optional.class,Default.class);
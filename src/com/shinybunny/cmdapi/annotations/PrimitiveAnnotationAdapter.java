@@ -0,0 +1,36 @@
+package com.shinybunny.cmdapi.annotations;
+
+import com.shinybunny.cmdapi.CommandContext;
+import com.shinybunny.cmdapi.arguments.ParameterArgument;
+import com.shinybunny.cmdapi.exceptions.InvalidArgumentException;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * An annotation adapter that can also process <code>int</code>, <code>long</code>, <code>double</code> and <code>boolean</code> values without boxing them.<br/>
+ * Arguments parsed by a primitive adapter (like {@link com.shinybunny.cmdapi.arguments.IntArgumentAdapter}) are processed through these methods.
+ * An annotation adapter not implementing this interface still processes those arguments, but through {@link #process(Object, Annotation, ParameterArgument, CommandContext)} with a boxed value.
+ * <br/>
+ * By default, all methods return the value unchanged. Override the methods of the types the annotation applies to.
+ * Unlike {@link #process(Object, Annotation, ParameterArgument, CommandContext)}, these methods are never called with a missing value.
+ * @param <A> the annotation type
+ */
+public interface PrimitiveAnnotationAdapter<A extends Annotation> extends AnnotationAdapter<A> {
+
+    default int processInt(int value, A annotation, ParameterArgument arg, CommandContext ctx) throws InvalidArgumentException {
+        return value;
+    }
+
+    default long processLong(long value, A annotation, ParameterArgument arg, CommandContext ctx) throws InvalidArgumentException {
+        return value;
+    }
+
+    default double processDouble(double value, A annotation, ParameterArgument arg, CommandContext ctx) throws InvalidArgumentException {
+        return value;
+    }
+
+    default boolean processBoolean(boolean value, A annotation, ParameterArgument arg, CommandContext ctx) throws InvalidArgumentException {
+        return value;
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.shinybunny.cmdapi.annotations;
 
 import com.shinybunny.cmdapi.CommandContext;
+import com.shinybunny.cmdapi.arguments.Argument;
 import com.shinybunny.cmdapi.arguments.ParameterArgument;
 import com.shinybunny.cmdapi.exceptions.IncompatibleAnnotationException;
 import com.shinybunny.cmdapi.exceptions.InvalidArgumentException;
@@ -20,7 +21,7 @@ public @interface Range {
     double min() default Integer.MIN_VALUE;
     double max() default Integer.MAX_VALUE;
 
-    class Adapter implements AnnotationAdapter<Range> {
+    class Adapter implements PrimitiveAnnotationAdapter<Range> {
 
         @Override
         public Class<Range> getAnnotationType() {
@@ -32,16 +33,42 @@ public @interface Range {
             if (value == null) return null;
             Number n = (Number)value;
             if (n.doubleValue() < annotation.min() || n.doubleValue() > annotation.max())
-                throw new InvalidArgumentException(arg,arg.getName() + " value must be " + (annotation.max() < Integer.MAX_VALUE ? (annotation.min() > Integer.MIN_VALUE ? "between " + annotation.min() + " and " + annotation.max() + "!" : " smaller than " + annotation.max() + "!") : "greater than " + annotation.min() + "!"));
+                throw outOfRange(annotation,arg);
             return value;
         }
 
+        @Override
+        public int processInt(int value, Range annotation, ParameterArgument arg, CommandContext ctx) throws InvalidArgumentException {
+            if (value < annotation.min() || value > annotation.max())
+                throw outOfRange(annotation,arg);
+            return value;
+        }
+
+        @Override
+        public long processLong(long value, Range annotation, ParameterArgument arg, CommandContext ctx) throws InvalidArgumentException {
+            if (value < annotation.min() || value > annotation.max())
+                throw outOfRange(annotation,arg);
+            return value;
+        }
+
+        @Override
+        public double processDouble(double value, Range annotation, ParameterArgument arg, CommandContext ctx) throws InvalidArgumentException {
+            if (value < annotation.min() || value > annotation.max())
+                throw outOfRange(annotation,arg);
+            return value;
+        }
+
+        /**
+         * Creates the exception thrown for a value out of the bounds of the range.
+         */
+        private static InvalidArgumentException outOfRange(Range annotation, Argument arg) {
+            return new InvalidArgumentException(arg,arg.getName() + " value must be " + (annotation.max() < Integer.MAX_VALUE ? (annotation.min() > Integer.MIN_VALUE ? "between " + annotation.min() + " and " + annotation.max() + "!" : " smaller than " + annotation.max() + "!") : "greater than " + annotation.min() + "!"));
+        }
+
         @Override
         public void init(ParameterArgument argument, Range range) throws IncompatibleAnnotationException {
             if (!Number.class.isAssignableFrom(argument.getType()))
-                throw new IncompatibleAnnotationException("@Range can only be applied to numbers!",range,this,argument);
-            System.out.println("applied @Range to argument " + argument);
-            System.out.println("range = " + range.min() + " -> " + range.max());
+                throw new IncompatibleAnnotationException("@Range can only be applied to numbers!",Range.class,null,argument);
         }
     }
 
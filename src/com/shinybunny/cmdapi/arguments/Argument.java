@@ -23,6 +23,7 @@ public class Argument {
     protected boolean required = true;
     private Object defaultValue;
     protected boolean syntax = true;
+    private int slot = -1;
 
 
     public Argument(CommandManager manager, String name, Class<?> type, ArgumentAdapter<?> argumentAdapter) throws NoAdapterFoundException {
@@ -41,6 +42,10 @@ public class Argument {
         this(CommandAPI.DEFAULT,name,type,CommandAPI.DEFAULT.getArgumentAdapter(type));
     }
 
+    public CommandManager getManager() {
+        return manager;
+    }
+
     /**
      * The argument name.
      * If the compiler doesn't save parameter names, this will probably be arg0, arg1, etc. by default.
@@ -76,6 +81,34 @@ public class Argument {
         return value;
     }
 
+    /**
+     * Like {@link #process(Object, CommandContext)}, for a value parsed by an {@link IntArgumentAdapter}.
+     */
+    public int processInt(int value, CommandContext ctx) throws InvalidArgumentException {
+        return value;
+    }
+
+    /**
+     * Like {@link #process(Object, CommandContext)}, for a value parsed by a {@link LongArgumentAdapter}.
+     */
+    public long processLong(long value, CommandContext ctx) throws InvalidArgumentException {
+        return value;
+    }
+
+    /**
+     * Like {@link #process(Object, CommandContext)}, for a value parsed by a {@link DoubleArgumentAdapter}.
+     */
+    public double processDouble(double value, CommandContext ctx) throws InvalidArgumentException {
+        return value;
+    }
+
+    /**
+     * Like {@link #process(Object, CommandContext)}, for a value parsed by a {@link BooleanArgumentAdapter}.
+     */
+    public boolean processBoolean(boolean value, CommandContext ctx) throws InvalidArgumentException {
+        return value;
+    }
+
     public boolean isRequired() {
         return required;
     }
@@ -88,6 +121,13 @@ public class Argument {
         return defaultValue;
     }
 
+    /**
+     * Sets the value used when this argument is omitted. Usually set when the command is registered, by an annotation like {@link com.shinybunny.cmdapi.annotations.Default}.
+     */
+    public void setDefaultValue(Object defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
     /**
      * Whether this argument accepts <code>null</code> values, as defined by {@link ArgumentAdapter#nullable()}.
      */
@@ -112,6 +152,19 @@ public class Argument {
         return obj instanceof Argument && ((Argument) obj).name.equals(name) && ((Argument) obj).type == type;
     }
 
+    /**
+     * The index of this argument's value in the {@link com.shinybunny.cmdapi.ParseResults} of its command.
+     * Arguments of a sub command come after the arguments of its parent command.<br/>
+     * The slot is assigned when the command is compiled into a {@link com.shinybunny.cmdapi.nodes.CommandNode}, and is -1 until then.
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
     public void setDescription(String description) {
         this.description = description;
     }
@@ -3,8 +3,12 @@ package com.shinybunny.cmdapi.arguments;
 import com.shinybunny.cmdapi.CommandContext;
 import com.shinybunny.cmdapi.exceptions.CommandParseException;
 import com.shinybunny.cmdapi.exceptions.MissingArgumentException;
+import com.shinybunny.cmdapi.utils.CompletionIndex;
 import com.shinybunny.cmdapi.utils.InputReader;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * An argument adapter is used for parsing a type of parameter from a string.
  * @param <T> the type of parameter this adapter should be used for
@@ -46,6 +50,19 @@ public interface ArgumentAdapter<T> {
         return null;
     }
 
+    /**
+     * Suggests values for a partly typed argument, used by {@link com.shinybunny.cmdapi.CommandManager#suggest(com.shinybunny.cmdapi.Sender, String, int)}.<br/>
+     * Adapters of types with many possible values should complete from a {@link CompletionIndex} instead of scanning all of the values.
+     * @param prefix The part of the argument typed so far
+     * @param arg The argument being completed
+     * @param ctx The context of the command being completed. It holds no parsed arguments.
+     * @param limit The maximum number of values to suggest
+     * @return The suggested values, best first. None by default.
+     */
+    default List<String> suggest(String prefix, Argument arg, CommandContext ctx, int limit) {
+        return Collections.emptyList();
+    }
+
     default String toString(Argument arg) {
         return arg.getType().getSimpleName().toLowerCase();
     }
@@ -4,7 +4,7 @@ import com.shinybunny.cmdapi.CommandContext;
 import com.shinybunny.cmdapi.exceptions.CommandParseException;
 import com.shinybunny.cmdapi.utils.InputReader;
 
-public class BooleanAdapter implements ArgumentAdapter<Boolean> {
+public class BooleanAdapter implements ArgumentAdapter<Boolean>, BooleanArgumentAdapter {
     @Override
     public Class<Boolean> getType() {
         return Boolean.TYPE;
@@ -14,4 +14,9 @@ public class BooleanAdapter implements ArgumentAdapter<Boolean> {
     public Boolean parse(InputReader reader, Argument arg, CommandContext ctx) throws CommandParseException {
         return reader.readBoolean();
     }
+
+    @Override
+    public boolean parseBoolean(InputReader reader, Argument arg, CommandContext ctx) throws CommandParseException {
+        return reader.readBoolean();
+    }
 }
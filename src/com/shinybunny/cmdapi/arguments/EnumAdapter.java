@@ -2,9 +2,27 @@ package com.shinybunny.cmdapi.arguments;
 
 import com.shinybunny.cmdapi.CommandContext;
 import com.shinybunny.cmdapi.exceptions.CommandParseException;
+import com.shinybunny.cmdapi.utils.CompletionIndex;
 import com.shinybunny.cmdapi.utils.InputReader;
 
+import java.util.List;
+
 public class EnumAdapter implements ArgumentAdapter<Enum> {
+
+    /**
+     * The completion index of the constants of each enum type, built the first time the type is completed
+     */
+    private static final ClassValue<CompletionIndex> CONSTANTS = new ClassValue<CompletionIndex>() {
+        @Override
+        protected CompletionIndex computeValue(Class<?> type) {
+            CompletionIndex index = new CompletionIndex();
+            for (Object constant : type.getEnumConstants()) {
+                index.add(((Enum) constant).name());
+            }
+            return index;
+        }
+    };
+
     /**
      * @return The class type of the parameter
      */
@@ -32,4 +50,9 @@ public class EnumAdapter implements ArgumentAdapter<Enum> {
             throw new CommandParseException("Invalid " + arg.getType().getSimpleName() + ": " + name);
         }
     }
+
+    @Override
+    public List<String> suggest(String prefix, Argument arg, CommandContext ctx, int limit) {
+        return CONSTANTS.get(arg.getType()).complete(prefix, limit);
+    }
 }
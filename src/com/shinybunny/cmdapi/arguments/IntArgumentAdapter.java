@@ -0,0 +1,19 @@
+package com.shinybunny.cmdapi.arguments;
+
+import com.shinybunny.cmdapi.CommandContext;
+import com.shinybunny.cmdapi.exceptions.CommandParseException;
+import com.shinybunny.cmdapi.utils.InputReader;
+
+/**
+ * Implemented by an {@link ArgumentAdapter} that can parse <code>int</code> arguments without boxing them.<br/>
+ * An argument of type <code>int</code> whose adapter implements this interface is parsed through {@link #parseInt(InputReader, Argument, CommandContext)},
+ * and its value is stored unboxed in the {@link com.shinybunny.cmdapi.ParseResults}.
+ */
+public interface IntArgumentAdapter {
+
+    /**
+     * Like {@link ArgumentAdapter#parse(InputReader, Argument, CommandContext)}, returning a primitive.
+     */
+    int parseInt(InputReader reader, Argument arg, CommandContext ctx) throws CommandParseException;
+
+}
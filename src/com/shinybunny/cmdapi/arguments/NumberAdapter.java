@@ -4,7 +4,7 @@ import com.shinybunny.cmdapi.CommandContext;
 import com.shinybunny.cmdapi.exceptions.CommandParseException;
 import com.shinybunny.cmdapi.utils.InputReader;
 
-public class NumberAdapter implements ArgumentAdapter<Number> {
+public class NumberAdapter implements ArgumentAdapter<Number>, IntArgumentAdapter, LongArgumentAdapter, DoubleArgumentAdapter {
     @Override
     public Class<Number> getType() {
         return Number.class;
@@ -12,9 +12,33 @@ public class NumberAdapter implements ArgumentAdapter<Number> {
 
     @Override
     public Number parse(InputReader reader, Argument arg, CommandContext ctx) throws CommandParseException {
-        if (arg.getType() == Integer.class) {
+        Class<?> type = arg.getType();
+        if (type == Integer.class) {
             return reader.readInt();
+        } else if (type == Long.class) {
+            return reader.readLong();
+        } else if (type == Float.class) {
+            return (float) reader.readDouble();
+        } else if (type == Short.class) {
+            return reader.readShort();
+        } else if (type == Byte.class) {
+            return reader.readByte();
         }
         return reader.readDouble();
     }
+
+    @Override
+    public int parseInt(InputReader reader, Argument arg, CommandContext ctx) throws CommandParseException {
+        return reader.readInt();
+    }
+
+    @Override
+    public long parseLong(InputReader reader, Argument arg, CommandContext ctx) throws CommandParseException {
+        return reader.readLong();
+    }
+
+    @Override
+    public double parseDouble(InputReader reader, Argument arg, CommandContext ctx) throws CommandParseException {
+        return reader.readDouble();
+    }
 }
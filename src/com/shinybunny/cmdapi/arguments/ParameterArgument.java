@@ -4,34 +4,45 @@ import com.shinybunny.cmdapi.CommandAPI;
 import com.shinybunny.cmdapi.CommandContext;
 import com.shinybunny.cmdapi.CommandManager;
 import com.shinybunny.cmdapi.annotations.AnnotationAdapter;
+import com.shinybunny.cmdapi.annotations.PrimitiveAnnotationAdapter;
 import com.shinybunny.cmdapi.exceptions.IncompatibleAnnotationException;
 import com.shinybunny.cmdapi.exceptions.InvalidArgumentException;
 import com.shinybunny.cmdapi.exceptions.NoAdapterFoundException;
+import com.shinybunny.cmdapi.tracing.ParseTracer;
 
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class ParameterArgument extends Argument {
 
-    private Map<Annotation, AnnotationAdapter> annotations;
-    private List<Class<? extends Annotation>[]> incompatibleAnnotations = new ArrayList<>();
+    /**
+     * The adapters of this argument's annotations, bound to them, in the order the annotations are declared
+     */
+    private Map<Class<? extends Annotation>, Bound<?>> adapters;
+    /**
+     * The adapters that {@link AnnotationAdapter#processesValues() process values}, ordered by their {@link AnnotationAdapter#priority() priority}
+     */
+    private Bound<?>[] processors;
+    private List<List<Class<? extends Annotation>>> incompatibleAnnotations = new ArrayList<>();
 
     public ParameterArgument(CommandManager manager, String name, Annotation[] annotations, Class<?> type, ArgumentAdapter<?> argumentAdapter) throws NoAdapterFoundException, IncompatibleAnnotationException {
         super(manager, name, type, argumentAdapter);
-        this.annotations = new HashMap<>();
+        this.adapters = new LinkedHashMap<>();
         this.addAnnotationAdapters(annotations);
     }
 
     private void addAnnotationAdapters(Annotation[] annotations) throws IncompatibleAnnotationException, NoAdapterFoundException {
         for (Annotation a : annotations) {
-            AnnotationAdapter adapter = manager.getAnnotationAdapter(a.annotationType());
+            AnnotationAdapter<?> adapter = manager.getAnnotationAdapter(a.annotationType());
             if (adapter != null) {
                 // there is an adapter for that annotation!
-                this.annotations.put(a, adapter);
-                if (!adapter.isRequired(a)) {
+                Bound<?> bound = Bound.of(adapter, a);
+                this.adapters.put(a.annotationType(), bound);
+                if (!bound.isRequired()) {
                     // mark this argument as not required only if one annotation adapter says so.
                     this.required = false;
                 }
@@ -42,13 +53,13 @@ public class ParameterArgument extends Argument {
                 throw new NoAdapterFoundException("No adapter found for annotation " + a.annotationType(),a.annotationType());
             }
         }
-        for (Map.Entry<Annotation,AnnotationAdapter> e : this.annotations.entrySet()) {
+        for (Bound<?> bound : this.adapters.values()) {
             // call the init() method of the adapter, to modify this argument according to the annotation.
-            e.getValue().init(this, e.getKey());
+            bound.init(this);
         }
 
         // incompatibility check
-        for (Class<? extends Annotation>[] incompatibles : incompatibleAnnotations) {
+        for (List<Class<? extends Annotation>> incompatibles : incompatibleAnnotations) {
             Class<? extends Annotation> other = null;
             for (Class<? extends Annotation> a : incompatibles) {
                 if (hasAnnotation(a)) {
@@ -60,45 +71,200 @@ public class ParameterArgument extends Argument {
                 }
             }
         }
+
+        compileProcessors();
     }
 
+    /**
+     * Lays out the adapters that process values in the order they run, so processing a value only loops over them.
+     * Adapters with the same priority keep the order their annotations are declared in.
+     */
+    private void compileProcessors() {
+        List<Bound<?>> chain = new ArrayList<>();
+        for (Bound<?> bound : adapters.values()) {
+            if (bound.adapter.processesValues()) {
+                chain.add(bound);
+            }
+        }
+        chain.sort(Comparator.comparingInt(bound -> bound.adapter.priority()));
+        processors = chain.toArray(new Bound<?>[0]);
+    }
+
+    @SuppressWarnings("unchecked")
     public <A extends Annotation> AnnotationAdapter<A> getAnnotationAdapter(Class<A> cls) {
-        for (Map.Entry<Annotation, AnnotationAdapter> a : annotations.entrySet()) {
-            if (a.getKey().annotationType() == cls) return a.getValue();
+        Bound<?> bound = adapters.get(cls);
+        // adapters are mapped to the annotation type they were registered for
+        return bound == null ? null : (AnnotationAdapter<A>) bound.adapter;
+    }
+
+    /**
+     * @return The annotation adapters that {@link AnnotationAdapter#processesValues() process} the values of this argument, in the order they run
+     */
+    public List<AnnotationAdapter<?>> getProcessors() {
+        List<AnnotationAdapter<?>> list = new ArrayList<>(processors.length);
+        for (Bound<?> p : processors) {
+            list.add(p.adapter);
         }
-        return null;
+        return list;
     }
 
     public <A extends Annotation> A getAnnotation(Class<A> cls) {
-        for (Annotation a : annotations.keySet()) {
-            if (a.annotationType() == cls) return (A) a;
-        }
-        return null;
+        Bound<?> bound = adapters.get(cls);
+        return bound == null ? null : cls.cast(bound.annotation);
+    }
+
+    /**
+     * @return Whether any annotation adapter of this argument processes its values
+     */
+    public boolean hasProcessors() {
+        return processors.length > 0;
     }
 
     @Override
     public Object process(Object value, CommandContext ctx) throws InvalidArgumentException {
-        System.out.println("value of " + this + " before process: " + value);
-        for (Map.Entry<Annotation,AnnotationAdapter> a : annotations.entrySet()) {
-            Object v = a.getValue().process(value,a.getKey(),this,ctx);
-            System.out.println("used annotation adapter " + a.getValue() + " and got " + v);
+        if (processors.length == 0) return value;
+        ParseTracer tracer = manager.getTracer();
+        for (int i = 0; i < processors.length; i++) {
+            Object token = tracer == null ? null : tracer.begin(ParseTracer.Phase.ANNOTATION_PROCESS);
+            Object v = processors[i].process(value,this,ctx);
             if (v != null) {
                 value = v;
             }
+            if (token != null) {
+                tracer.end(token, ctx.getCommand().getName(), this, ctx.getInput().length());
+            }
+            if (tracer != null) {
+                tracer.annotationProcessed(ctx, this, processors[i].annotation, value);
+            }
         }
-        System.out.println("value of " + this + " after process: " + value);
         return value;
     }
 
-    public boolean hasAnnotation(Class<? extends Annotation> annotationType) {
-        for (Annotation a : annotations.keySet()) {
-            if (a.annotationType() == annotationType) return true;
+    @Override
+    public int processInt(int value, CommandContext ctx) throws InvalidArgumentException {
+        return processors.length == 0 ? value : (int) processPrimitive(int.class, value, ctx);
+    }
+
+    @Override
+    public long processLong(long value, CommandContext ctx) throws InvalidArgumentException {
+        return processors.length == 0 ? value : processPrimitive(long.class, value, ctx);
+    }
+
+    @Override
+    public double processDouble(double value, CommandContext ctx) throws InvalidArgumentException {
+        return processors.length == 0 ? value : Double.longBitsToDouble(processPrimitive(double.class, Double.doubleToRawLongBits(value), ctx));
+    }
+
+    @Override
+    public boolean processBoolean(boolean value, CommandContext ctx) throws InvalidArgumentException {
+        return processors.length == 0 ? value : processPrimitive(boolean.class, value ? 1 : 0, ctx) != 0;
+    }
+
+    /**
+     * Processes a primitive value through all processors, without boxing it unless a tracer is installed or an adapter only processes objects.<br/>
+     * The value is passed as its bits, like {@link com.shinybunny.cmdapi.ParseResults} stores it: an <code>int</code> or a <code>long</code> as is,
+     * a <code>double</code> as its raw long bits, and a <code>boolean</code> as 1 or 0.
+     * @param type The primitive type of the value, like {@link com.shinybunny.cmdapi.nodes.ArgumentNode#getPrimitiveType()}
+     * @return The bits of the processed value
+     */
+    private long processPrimitive(Class<?> type, long bits, CommandContext ctx) throws InvalidArgumentException {
+        ParseTracer tracer = manager.getTracer();
+        for (int i = 0; i < processors.length; i++) {
+            Object token = tracer == null ? null : tracer.begin(ParseTracer.Phase.ANNOTATION_PROCESS);
+            bits = processors[i].processPrimitive(type, bits, this, ctx);
+            if (token != null) {
+                tracer.end(token, ctx.getCommand().getName(), this, ctx.getInput().length());
+            }
+            if (tracer != null) {
+                tracer.annotationProcessed(ctx, this, processors[i].annotation, box(type, bits));
+            }
         }
-        return false;
+        return bits;
+    }
+
+    private static Object box(Class<?> type, long bits) {
+        if (type == int.class) {
+            return (int) bits;
+        } else if (type == long.class) {
+            return bits;
+        } else if (type == double.class) {
+            return Double.longBitsToDouble(bits);
+        }
+        return bits != 0;
+    }
+
+    private static long bits(Class<?> type, Object value) {
+        if (type == double.class) {
+            return Double.doubleToRawLongBits(((Number) value).doubleValue());
+        } else if (type == boolean.class) {
+            return (Boolean) value ? 1 : 0;
+        }
+        return ((Number) value).longValue();
+    }
+
+    public boolean hasAnnotation(Class<? extends Annotation> annotationType) {
+        return adapters.containsKey(annotationType);
     }
 
     @SafeVarargs
     public final void incompatibleAnnotations(Class<? extends Annotation>... annotations) throws IncompatibleAnnotationException {
-        incompatibleAnnotations.add(annotations);
+        List<Class<? extends Annotation>> incompatibles = new ArrayList<>(annotations.length);
+        for (Class<? extends Annotation> a : annotations) {
+            incompatibles.add(a);
+        }
+        incompatibleAnnotations.add(incompatibles);
+    }
+
+    /**
+     * An annotation adapter, bound to the annotation of this argument it adapts.<br/>
+     * Binding them once when the argument is created keeps their annotation type, so calling the adapter doesn't go through raw types.
+     * @param <A> the annotation type
+     */
+    private static final class Bound<A extends Annotation> {
+
+        private final AnnotationAdapter<A> adapter;
+        /**
+         * The adapter if it processes primitive values without boxing them, <code>null</code> if it only processes objects
+         */
+        private final PrimitiveAnnotationAdapter<A> primitive;
+        private final A annotation;
+
+        private Bound(AnnotationAdapter<A> adapter, A annotation) {
+            this.adapter = adapter;
+            this.primitive = adapter instanceof PrimitiveAnnotationAdapter ? (PrimitiveAnnotationAdapter<A>) adapter : null;
+            this.annotation = annotation;
+        }
+
+        static <A extends Annotation> Bound<A> of(AnnotationAdapter<A> adapter, Annotation annotation) {
+            return new Bound<>(adapter, adapter.getAnnotationType().cast(annotation));
+        }
+
+        boolean isRequired() {
+            return adapter.isRequired(annotation);
+        }
+
+        void init(ParameterArgument arg) throws IncompatibleAnnotationException {
+            adapter.init(arg, annotation);
+        }
+
+        Object process(Object value, ParameterArgument arg, CommandContext ctx) throws InvalidArgumentException {
+            return adapter.process(value, annotation, arg, ctx);
+        }
+
+        long processPrimitive(Class<?> type, long bits, ParameterArgument arg, CommandContext ctx) throws InvalidArgumentException {
+            if (primitive == null) {
+                // the adapter only knows how to process objects
+                Object v = adapter.process(box(type, bits), annotation, arg, ctx);
+                return v == null ? bits : bits(type, v);
+            }
+            if (type == int.class) {
+                return primitive.processInt((int) bits, annotation, arg, ctx);
+            } else if (type == long.class) {
+                return primitive.processLong(bits, annotation, arg, ctx);
+            } else if (type == double.class) {
+                return Double.doubleToRawLongBits(primitive.processDouble(Double.longBitsToDouble(bits), annotation, arg, ctx));
+            }
+            return primitive.processBoolean(bits != 0, annotation, arg, ctx) ? 1 : 0;
+        }
     }
 }
@@ -1,7 +1,7 @@
 package com.shinybunny.cmdapi.arguments;
 
-import com.shinybunny.cmdapi.CommandAPI;
 import com.shinybunny.cmdapi.CommandContext;
+import com.shinybunny.cmdapi.CommandManager;
 import com.shinybunny.cmdapi.MethodCommand;
 import com.shinybunny.cmdapi.annotations.DefaultSubCommand;
 import com.shinybunny.cmdapi.exceptions.CommandParseException;
@@ -10,20 +10,41 @@ import com.shinybunny.cmdapi.exceptions.NoAdapterFoundException;
 import com.shinybunny.cmdapi.utils.InputReader;
 
 import java.lang.reflect.Constructor;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * The argument of a holder command choosing which of its sub commands to run.<br/>
+ * When parsing, the sub command is matched by the {@link com.shinybunny.cmdapi.nodes.LiteralNode} the command is compiled to,
+ * using its alias index, so {@link #parse(InputReader, Argument, CommandContext)} is only used when the argument is parsed directly.
+ */
 public class SubCommandAdapter implements ArgumentAdapter<MethodCommand> {
 
     private final List<MethodCommand> subCommands;
-    private MethodCommand defaultCommand;
+    private final MethodCommand defaultCommand;
 
-    public SubCommandAdapter(Object holder) throws IncompatibleAnnotationException, NoAdapterFoundException {
-        this.subCommands = CommandAPI.createSubCommands(holder);
+    public SubCommandAdapter(CommandManager manager, Object holder) throws IncompatibleAnnotationException, NoAdapterFoundException {
+        this(manager.createSubCommands(holder), createDefaultCommand(manager, holder));
+    }
+
+    /**
+     * Creates the adapter of sub commands that were already created, like by a generated {@link com.shinybunny.cmdapi.HolderRegistry}.
+     * @param subCommands The sub commands
+     * @param defaultCommand The command to run when no sub command matches, or <code>null</code>
+     */
+    public SubCommandAdapter(List<MethodCommand> subCommands, MethodCommand defaultCommand) {
+        this.subCommands = subCommands;
+        this.defaultCommand = defaultCommand;
+    }
+
+    private static MethodCommand createDefaultCommand(CommandManager manager, Object holder) throws IncompatibleAnnotationException, NoAdapterFoundException {
+        MethodCommand defaultCommand = null;
         for (Constructor c : holder.getClass().getConstructors()) {
             if (c.isAnnotationPresent(DefaultSubCommand.class)) {
-                defaultCommand = new MethodCommand("_default", c, holder);
+                defaultCommand = new MethodCommand(manager, "_default", c, holder);
             }
         }
+        return defaultCommand;
     }
 
     @Override
@@ -36,9 +57,14 @@ public class SubCommandAdapter implements ArgumentAdapter<MethodCommand> {
         int pos = reader.getCursor();
         String alias = reader.readWord();
         for (MethodCommand cmd : subCommands) {
-            if (cmd.getAliases().contains(alias.toLowerCase()) || cmd.getName().equalsIgnoreCase(alias)) {
+            if (cmd.getName().equalsIgnoreCase(alias)) {
                 return cmd;
             }
+            for (String a : cmd.getAliases()) {
+                if (a.equalsIgnoreCase(alias)) {
+                    return cmd;
+                }
+            }
         }
         if (defaultCommand != null) {
             reader.setCursor(pos);
@@ -46,4 +72,15 @@ public class SubCommandAdapter implements ArgumentAdapter<MethodCommand> {
         }
         throw new CommandParseException("Unknown sub command '" + alias + "'");
     }
+
+    public List<MethodCommand> getSubCommands() {
+        return Collections.unmodifiableList(subCommands);
+    }
+
+    /**
+     * @return The command created from the holder's constructor annotated with {@link DefaultSubCommand}, or <code>null</code> if there is none.
+     */
+    public MethodCommand getDefaultCommand() {
+        return defaultCommand;
+    }
 }
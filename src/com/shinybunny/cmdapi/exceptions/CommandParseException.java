@@ -13,4 +13,12 @@ public class CommandParseException extends Exception {
     public CommandParseException(String message) {
         super(message);
     }
+
+    /**
+     * Parse errors come from what the user typed, not from a bug, so no stack trace is recorded.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
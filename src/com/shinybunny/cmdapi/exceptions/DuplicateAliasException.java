@@ -0,0 +1,42 @@
+package com.shinybunny.cmdapi.exceptions;
+
+import com.shinybunny.cmdapi.CommandBase;
+
+/**
+ * An Exception thrown when registering a command whose name or one of its aliases is already used by another registered command.
+ * Aliases are compared ignoring case, so <code>Coins</code> and <code>coins</code> collide.
+ */
+public class DuplicateAliasException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String alias;
+    // commands aren't serializable, so a deserialized exception only keeps the alias and message
+    private final transient CommandBase existing;
+    private final transient CommandBase command;
+
+    public DuplicateAliasException(String alias, CommandBase existing, CommandBase command) {
+        super("Alias '" + alias + "' of command " + command.getName() + " is already used by command " + existing.getName());
+        this.alias = alias;
+        this.existing = existing;
+        this.command = command;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    /**
+     * @return The command already registered with the alias
+     */
+    public CommandBase getExisting() {
+        return existing;
+    }
+
+    /**
+     * @return The command that failed to register
+     */
+    public CommandBase getCommand() {
+        return command;
+    }
+}
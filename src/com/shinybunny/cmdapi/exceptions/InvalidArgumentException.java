@@ -22,4 +22,12 @@ public class InvalidArgumentException extends Exception {
     public Argument getArgument() {
         return argument;
     }
+
+    /**
+     * Stackless, as this only reports a value the user typed that failed validation.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
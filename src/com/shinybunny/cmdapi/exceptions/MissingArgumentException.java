@@ -13,4 +13,12 @@ public class MissingArgumentException extends Exception {
     public Argument getArgument() {
         return argument;
     }
+
+    /**
+     * No stack trace is recorded, the missing argument is all that matters here.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
@@ -22,4 +22,12 @@ public class UnknownCommandException extends Exception {
     public String getAlias() {
         return alias;
     }
+
+    /**
+     * Stackless: an unknown alias is a typo of the user, not something to debug.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
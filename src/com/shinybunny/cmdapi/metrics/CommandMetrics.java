@@ -0,0 +1,189 @@
+package com.shinybunny.cmdapi.metrics;
+
+import com.shinybunny.cmdapi.CommandManager;
+import com.shinybunny.cmdapi.LazyCommand;
+import com.shinybunny.cmdapi.ParseOutcome;
+import com.shinybunny.cmdapi.nodes.CommandNode;
+import com.shinybunny.cmdapi.nodes.LiteralNode;
+import com.shinybunny.cmdapi.utils.CommandResult;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records how long parsing and executing each command takes and how it ended, for the commands of a {@link CommandManager}.<br/>
+ * Metrics are off by default, and turned on with {@link #setEnabled(boolean)}. While off, parsing and executing don't even read the clock.
+ * <br/>
+ * The metrics of a command are kept in its compiled {@link CommandNode}, created the first time anything is recorded for it.
+ * Sub commands of a tree command have metrics of their own, named by the names of their parents and their own name, like <code>coins add</code>.
+ * Unregistering or replacing a command drops its metrics along with it.
+ * <br/>
+ * The metrics can also be read over JMX, once {@link #registerMBean()} is called.
+ */
+public class CommandMetrics implements CommandMetricsMXBean {
+
+    private final CommandManager manager;
+    private volatile boolean enabled;
+    private ObjectName objectName;
+
+    public CommandMetrics(CommandManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Records parsing an input.
+     * @param node The node of the command parsing ended in
+     * @param outcome The outcome of parsing
+     * @param nanos How long parsing took
+     */
+    public void recordParse(CommandNode node, ParseOutcome outcome, long nanos) {
+        node.getOrCreateStats().recordParse(nanos, outcome.getError());
+    }
+
+    /**
+     * Records an execution that returned a result.
+     * @param node The node of the executed command
+     */
+    public void recordExecution(CommandNode node, long nanos, CommandResult result) {
+        node.getOrCreateStats().recordExecution(nanos, result);
+    }
+
+    /**
+     * Records an execution that threw.
+     * @param node The node of the executed command
+     */
+    public void recordException(CommandNode node, long nanos, Throwable t) {
+        node.getOrCreateStats().recordException(nanos, t);
+    }
+
+    /**
+     * Takes a snapshot of the metrics of all currently registered commands.
+     * @return The metrics of every command that recorded any, by the full name of the command, in the order the commands were registered.
+     */
+    @Override
+    public Map<String, CommandStatsSnapshot> getCommands() {
+        Map<String, CommandStatsSnapshot> snapshots = new LinkedHashMap<>();
+        for (CommandNode node : manager.getRegistry().getCommandNodes()) {
+            node = created(node);
+            if (node != null) {
+                collect(node, node.getCommand().getName(), snapshots);
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * @param name The full name of the command, like <code>coins add</code> for a sub command
+     * @return A snapshot of the command's metrics, or <code>null</code> if the command didn't record any.
+     */
+    public CommandStatsSnapshot getCommand(String name) {
+        return getCommands().get(name);
+    }
+
+    /**
+     * @return The compiled node, or <code>null</code> for a {@link LazyCommand} that was never used, and has no metrics
+     */
+    private static CommandNode created(CommandNode node) {
+        if (node.getCommand() instanceof LazyCommand) {
+            LazyCommand lazy = (LazyCommand) node.getCommand();
+            return lazy.isCreated() ? lazy.getNode() : null;
+        }
+        return node;
+    }
+
+    private static void collect(CommandNode node, String name, Map<String, CommandStatsSnapshot> snapshots) {
+        CommandStats stats = node.getStats();
+        if (stats != null) {
+            snapshots.put(name, stats.snapshot(name));
+        }
+        LiteralNode branch = node.getBranch();
+        if (branch != null) {
+            for (CommandNode child : branch.getChildren()) {
+                collect(child, name + " " + child.getCommand().getName(), snapshots);
+            }
+            if (branch.getDefaultChild() != null) {
+                collect(branch.getDefaultChild(), name + " " + branch.getDefaultChild().getCommand().getName(), snapshots);
+            }
+        }
+    }
+
+    @Override
+    public long getTotalInvocations() {
+        long total = 0;
+        for (CommandStatsSnapshot snapshot : getCommands().values()) {
+            total += snapshot.getInvocations();
+        }
+        return total;
+    }
+
+    @Override
+    public void reset() {
+        for (CommandNode node : manager.getRegistry().getCommandNodes()) {
+            node = created(node);
+            if (node != null) {
+                reset(node);
+            }
+        }
+    }
+
+    private static void reset(CommandNode node) {
+        node.resetStats();
+        LiteralNode branch = node.getBranch();
+        if (branch != null) {
+            for (CommandNode child : branch.getChildren()) {
+                reset(child);
+            }
+            if (branch.getDefaultChild() != null) {
+                reset(branch.getDefaultChild());
+            }
+        }
+    }
+
+    /**
+     * Registers these metrics to the platform MBean server, under a name unique to the manager.
+     * @return The name the metrics are registered under
+     * @throws JMException if the MBean server rejected the registration
+     */
+    public synchronized ObjectName registerMBean() throws JMException {
+        return registerMBean(new ObjectName("com.shinybunny.cmdapi:type=CommandMetrics,manager=" + Integer.toHexString(System.identityHashCode(manager))));
+    }
+
+    /**
+     * Registers these metrics to the platform MBean server.
+     * @param name The name to register them under
+     * @return The name
+     * @throws JMException if the MBean server rejected the registration, for example because the name is already used
+     */
+    public synchronized ObjectName registerMBean(ObjectName name) throws JMException {
+        if (objectName != null) {
+            throw new IllegalStateException("Already registered as " + objectName);
+        }
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+        objectName = name;
+        return name;
+    }
+
+    /**
+     * Unregisters these metrics from the platform MBean server, if they are registered.
+     * @throws JMException if the MBean server failed to unregister them
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.shinybunny.cmdapi.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of the {@link CommandMetrics} of a command manager, registered with {@link CommandMetrics#registerMBean()}.
+ */
+public interface CommandMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return The metrics of every registered command that recorded any, by the full name of the command
+     */
+    Map<String, CommandStatsSnapshot> getCommands();
+
+    /**
+     * @return The number of executions of all commands
+     */
+    long getTotalInvocations();
+
+    /**
+     * Drops all recorded metrics.
+     */
+    void reset();
+}
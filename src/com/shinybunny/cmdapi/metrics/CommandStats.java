@@ -0,0 +1,93 @@
+package com.shinybunny.cmdapi.metrics;
+
+import com.shinybunny.cmdapi.ParseOutcome;
+import com.shinybunny.cmdapi.utils.CommandResult;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The live metrics of a single command: how long parsing and executing it took, and how each attempt ended.<br/>
+ * All counters are {@link LongAdder}s, so recording from many threads doesn't contend.
+ * @see CommandMetrics
+ */
+public final class CommandStats {
+
+    private static final ParseOutcome.Error[] ERRORS = ParseOutcome.Error.values();
+
+    private final LatencyHistogram parseTime = new LatencyHistogram();
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder[] parseErrors = new LongAdder[ERRORS.length];
+    /**
+     * Thrown exception types to the number of times they were thrown. A type is only added the first time it's thrown.
+     */
+    private final Map<Class<?>, LongAdder> exceptions = new ConcurrentHashMap<>();
+
+    public CommandStats() {
+        for (int i = 0; i < parseErrors.length; i++) {
+            parseErrors[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records parsing an input of the command.
+     * @param nanos How long parsing took
+     * @param error Why parsing failed, or <code>null</code> if it succeeded
+     */
+    public void recordParse(long nanos, ParseOutcome.Error error) {
+        parseTime.record(nanos);
+        if (error != null) {
+            parseErrors[error.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Records an execution of the command that returned a result.
+     * @param nanos How long executing took
+     * @param result The returned result. Counted as a success if {@link CommandResult#success()} is true, or as a failure otherwise.
+     */
+    public void recordExecution(long nanos, CommandResult result) {
+        executionTime.record(nanos);
+        if (result == null || result.success()) {
+            successes.increment();
+        } else {
+            failures.increment();
+        }
+    }
+
+    /**
+     * Records an execution of the command that threw.
+     * @param nanos How long executing took until it threw
+     * @param t The thrown exception
+     */
+    public void recordException(long nanos, Throwable t) {
+        executionTime.record(nanos);
+        LongAdder count = exceptions.get(t.getClass());
+        if (count == null) {
+            count = exceptions.computeIfAbsent(t.getClass(), c -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * Reads the current metrics. Anything recorded while taking the snapshot may or may not be included.
+     * @param name The name to give the snapshot, like the full name of the command
+     */
+    public CommandStatsSnapshot snapshot(String name) {
+        Map<String, Long> errors = new LinkedHashMap<>();
+        for (ParseOutcome.Error error : ERRORS) {
+            errors.put(error.name(), parseErrors[error.ordinal()].sum());
+        }
+        Map<String, Long> thrown = new LinkedHashMap<>();
+        for (Map.Entry<Class<?>, LongAdder> e : exceptions.entrySet()) {
+            thrown.put(e.getKey().getName(), e.getValue().sum());
+        }
+        return new CommandStatsSnapshot(name, parseTime.snapshot(), executionTime.snapshot(), successes.sum(), failures.sum(),
+                Collections.unmodifiableMap(errors), Collections.unmodifiableMap(thrown));
+    }
+}
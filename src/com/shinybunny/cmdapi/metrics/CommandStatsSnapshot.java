@@ -0,0 +1,100 @@
+package com.shinybunny.cmdapi.metrics;
+
+import com.shinybunny.cmdapi.ParseOutcome;
+
+import java.util.Map;
+
+/**
+ * The metrics of a single command at one point in time.
+ * @see CommandMetrics#getCommands()
+ */
+public final class CommandStatsSnapshot {
+
+    private final String name;
+    private final HistogramSnapshot parseTime;
+    private final HistogramSnapshot executionTime;
+    private final long successes;
+    private final long failures;
+    private final Map<String, Long> parseErrors;
+    private final Map<String, Long> exceptions;
+
+    CommandStatsSnapshot(String name, HistogramSnapshot parseTime, HistogramSnapshot executionTime, long successes, long failures, Map<String, Long> parseErrors, Map<String, Long> exceptions) {
+        this.name = name;
+        this.parseTime = parseTime;
+        this.executionTime = executionTime;
+        this.successes = successes;
+        this.failures = failures;
+        this.parseErrors = parseErrors;
+        this.exceptions = exceptions;
+    }
+
+    /**
+     * @return The full name of the command, with the names of its parent commands before it, separated by spaces
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The durations of parsing the inputs of the command, including the inputs that failed to parse
+     */
+    public HistogramSnapshot getParseTime() {
+        return parseTime;
+    }
+
+    /**
+     * @return The durations of executing the command, including the executions that threw
+     */
+    public HistogramSnapshot getExecutionTime() {
+        return executionTime;
+    }
+
+    /**
+     * @return The number of times the command was executed
+     */
+    public long getInvocations() {
+        return executionTime.getCount();
+    }
+
+    /**
+     * @return The number of executions that returned a successful {@link com.shinybunny.cmdapi.utils.CommandResult CommandResult}
+     */
+    public long getSuccesses() {
+        return successes;
+    }
+
+    /**
+     * @return The number of executions that returned a failed {@link com.shinybunny.cmdapi.utils.CommandResult CommandResult}
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return The number of inputs that failed to parse for each {@link ParseOutcome.Error}, by the name of the error
+     */
+    public Map<String, Long> getParseErrors() {
+        return parseErrors;
+    }
+
+    /**
+     * @return The number of inputs rejected because the sender couldn't use the command
+     */
+    public long getPermissionDenials() {
+        Long denials = parseErrors.get(ParseOutcome.Error.NO_PERMISSION.name());
+        return denials == null ? 0 : denials;
+    }
+
+    /**
+     * @return The number of executions that threw, by the class name of the thrown exception
+     */
+    public Map<String, Long> getExceptions() {
+        return exceptions;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": invocations=" + getInvocations() + ", successes=" + successes + ", failures=" + failures + ", denials=" + getPermissionDenials()
+                + ", exceptions=" + exceptions + ", parse[" + parseTime + "], execution[" + executionTime + "]";
+    }
+}
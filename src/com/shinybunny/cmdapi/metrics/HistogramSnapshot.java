@@ -0,0 +1,97 @@
+package com.shinybunny.cmdapi.metrics;
+
+/**
+ * The counts of a {@link LatencyHistogram} at one point in time.
+ */
+public final class HistogramSnapshot {
+
+    private final long[] buckets;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    HistogramSnapshot(long[] buckets, long totalNanos, long maxNanos) {
+        this.buckets = buckets;
+        long count = 0;
+        for (long c : buckets) {
+            count += c;
+        }
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * @return The number of recorded durations
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The sum of all recorded durations, in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return The longest recorded duration, in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @return The average recorded duration in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    /**
+     * @return The count of each bucket. Bucket <code>i</code> counts the durations from {@link LatencyHistogram#lowerBound(int)} up to {@link LatencyHistogram#upperBound(int)}.
+     */
+    public long[] getBuckets() {
+        return buckets.clone();
+    }
+
+    /**
+     * Estimates a percentile by the bucket it falls in.
+     * @param percentile The percentile, from 0 to 100
+     * @return The upper bound of the bucket holding the percentile, in nanoseconds, but no more than the longest recorded duration. 0 if nothing was recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * Math.max(0, Math.min(100, percentile)) / 100);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank && buckets[i] > 0) {
+                return Math.min(LatencyHistogram.upperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * @return The estimated median, in nanoseconds
+     */
+    public long getP50Nanos() {
+        return getPercentileNanos(50);
+    }
+
+    /**
+     * @return The estimated 99th percentile, in nanoseconds
+     */
+    public long getP99Nanos() {
+        return getPercentileNanos(99);
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", mean=" + (long) getMeanNanos() + "ns, p50=" + getP50Nanos() + "ns, p99=" + getP99Nanos() + "ns, max=" + maxNanos + "ns";
+    }
+}
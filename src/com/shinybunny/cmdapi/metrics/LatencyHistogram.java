@@ -0,0 +1,73 @@
+package com.shinybunny.cmdapi.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations in nanoseconds, with a bucket for every power of two.<br/>
+ * Bucket <code>i</code> counts the durations from <code>2^(i-1)</code> up to <code>2^i</code> nanoseconds, and the last bucket also counts all longer ones.
+ * Every bucket is a {@link LongAdder}, so threads recording at the same time don't contend on a single counter,
+ * and recording never allocates once a bucket has adapted to the contention on it.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of buckets. The last one starts at 2^38 nanoseconds, a bit over 4.5 minutes.
+     */
+    public static final int BUCKETS = 40;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a duration.
+     * @param nanos The duration in nanoseconds. Negative durations are recorded as 0.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[bucketOf(nanos)].increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * @return The bucket counting the duration
+     */
+    static int bucketOf(long nanos) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * @return The shortest duration counted by the bucket, in nanoseconds
+     */
+    public static long lowerBound(int bucket) {
+        return bucket == 0 ? 0 : 1L << (bucket - 1);
+    }
+
+    /**
+     * @return The duration every duration counted by the bucket is shorter than, in nanoseconds, or {@link Long#MAX_VALUE} for the last bucket.
+     */
+    public static long upperBound(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    /**
+     * Reads the current counts. Durations recorded while taking the snapshot may or may not be included.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return new HistogramSnapshot(counts, total.sum(), max.get());
+    }
+}
@@ -0,0 +1,83 @@
+package com.shinybunny.cmdapi.nodes;
+
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.arguments.ArgumentAdapter;
+import com.shinybunny.cmdapi.arguments.BooleanArgumentAdapter;
+import com.shinybunny.cmdapi.arguments.DoubleArgumentAdapter;
+import com.shinybunny.cmdapi.arguments.IntArgumentAdapter;
+import com.shinybunny.cmdapi.arguments.LongArgumentAdapter;
+
+/**
+ * A compiled, immutable view of a single {@link Argument} in a {@link CommandNode}.<br/>
+ * Everything the parser asks about an argument that can't change after registration is read once here,
+ * so walking the graph doesn't have to ask the argument and its adapter again on every input.
+ */
+public final class ArgumentNode {
+
+    private final Argument argument;
+    private final boolean syntax;
+    private final boolean nullable;
+    private final boolean required;
+    private final Class<?> primitiveType;
+
+    ArgumentNode(Argument argument) {
+        this.argument = argument;
+        this.syntax = argument.isSyntax();
+        this.nullable = argument.isNullable();
+        this.required = argument.isRequired();
+        this.primitiveType = primitiveType(argument);
+    }
+
+    private static Class<?> primitiveType(Argument argument) {
+        ArgumentAdapter<?> adapter = argument.getAdapter();
+        Class<?> type = argument.getType();
+        if (type == Integer.class && adapter instanceof IntArgumentAdapter) {
+            return int.class;
+        } else if (type == Long.class && adapter instanceof LongArgumentAdapter) {
+            return long.class;
+        } else if (type == Double.class && adapter instanceof DoubleArgumentAdapter) {
+            return double.class;
+        } else if (type == Boolean.class && adapter instanceof BooleanArgumentAdapter) {
+            return boolean.class;
+        }
+        return null;
+    }
+
+    public Argument getArgument() {
+        return argument;
+    }
+
+    /**
+     * @see Argument#isSyntax()
+     */
+    public boolean isSyntax() {
+        return syntax;
+    }
+
+    /**
+     * @see Argument#isNullable()
+     */
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    /**
+     * @see Argument#isRequired()
+     */
+    public boolean isRequired() {
+        return required;
+    }
+
+    /**
+     * @return The primitive type the argument's adapter can parse the argument as without boxing it,
+     * or <code>null</code> if the argument is parsed as an object.
+     */
+    public Class<?> getPrimitiveType() {
+        return primitiveType;
+    }
+
+    @Override
+    public String toString() {
+        return argument.toString();
+    }
+}
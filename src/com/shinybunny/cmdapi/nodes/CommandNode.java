@@ -0,0 +1,201 @@
+package com.shinybunny.cmdapi.nodes;
+
+import com.shinybunny.cmdapi.CommandBase;
+import com.shinybunny.cmdapi.LazyCommand;
+import com.shinybunny.cmdapi.MethodCommand;
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.arguments.SubCommandAdapter;
+import com.shinybunny.cmdapi.metrics.CommandStats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compiled, immutable form of a {@link CommandBase}, created once when the command is registered.<br/>
+ * A command node holds the {@link ArgumentNode}s to parse in order, and then either executes its command (it's a leaf),
+ * or continues to one of its sub commands through its {@link LiteralNode} branch.
+ * <br/>
+ * Changes to the command's arguments after it's registered are not seen by its node.
+ * <br/>
+ * Compiling also assigns each argument its {@link Argument#getSlot() slot} in the parse results.
+ * The arguments of a sub command node get the slots after the arguments of its parent nodes.
+ */
+public final class CommandNode {
+
+    private final CommandBase command;
+    private final ArgumentNode[] arguments;
+    private final LiteralNode branch;
+    private final int slotCount;
+    private final Map<String, Integer> slotsByName;
+    /**
+     * The parser generated for the command, or <code>null</code> to parse it by walking the arguments
+     */
+    private final SpecializedParser parser;
+    /**
+     * The metrics recorded for this command, or <code>null</code> until the first one is recorded
+     */
+    private volatile CommandStats stats;
+
+    private CommandNode(CommandBase command, ArgumentNode[] arguments, LiteralNode branch, int slotCount, Map<String, Integer> slotsByName) {
+        this.command = command;
+        this.arguments = arguments;
+        this.branch = branch;
+        this.slotCount = slotCount;
+        this.slotsByName = slotsByName;
+        this.parser = branch == null && command instanceof MethodCommand ? ((MethodCommand) command).getSpecializedParser() : null;
+    }
+
+    /**
+     * Compiles the command and all of its sub commands into a node graph.<br/>
+     * The arguments of the command are compiled in order, up to the first sub command argument, which becomes the branch of the node.
+     * Arguments after a sub command argument are never parsed, so they are left out.<br/>
+     * A {@link LazyCommand} compiles to the node of the command it creates.
+     * @param command The command to compile
+     * @return The root node of the command
+     */
+    public static CommandNode compile(CommandBase command) {
+        if (command instanceof LazyCommand) {
+            return ((LazyCommand) command).getNode();
+        }
+        return compile(command, 0, Collections.emptyMap());
+    }
+
+    /**
+     * Creates the node registered for a lazy command until it's used. It has no arguments, so it must be {@link #resolve() resolved} before it's parsed.
+     * @param command The lazy command
+     * @return A node standing for the command, without creating it
+     */
+    public static CommandNode lazy(LazyCommand command) {
+        return new CommandNode(command, new ArgumentNode[0], null, 0, Collections.emptyMap());
+    }
+
+    /**
+     * @param firstSlot The slot of the first argument of the command
+     * @param parentSlots The slots of the parent nodes' arguments by their names
+     */
+    private static CommandNode compile(CommandBase command, int firstSlot, Map<String, Integer> parentSlots) {
+        List<ArgumentNode> args = new ArrayList<>();
+        Map<String, Integer> slotsByName = new HashMap<>(parentSlots);
+        int slot = firstSlot;
+        Argument branchArg = null;
+        for (Argument arg : command.getArguments()) {
+            if (arg.getAdapter() instanceof SubCommandAdapter) {
+                branchArg = arg;
+                break;
+            }
+            arg.setSlot(slot);
+            // a parent's argument with the same name wins, like the old lookup by name which returned the first parsed match
+            slotsByName.putIfAbsent(arg.getName(), slot);
+            slot++;
+            args.add(new ArgumentNode(arg));
+        }
+        slotsByName = Collections.unmodifiableMap(slotsByName);
+        LiteralNode branch = null;
+        if (branchArg != null) {
+            SubCommandAdapter adapter = (SubCommandAdapter) branchArg.getAdapter();
+            List<CommandNode> children = new ArrayList<>();
+            for (MethodCommand sub : adapter.getSubCommands()) {
+                children.add(compile(sub, slot, slotsByName));
+            }
+            CommandNode defaultChild = adapter.getDefaultCommand() == null ? null : compile(adapter.getDefaultCommand(), slot, slotsByName);
+            branch = new LiteralNode(branchArg, children, defaultChild);
+        }
+        return new CommandNode(command, args.toArray(new ArgumentNode[0]), branch, slot, slotsByName);
+    }
+
+    /**
+     * Resolves the node of a {@link LazyCommand} to the compiled node of the command it creates, creating it on first use.
+     * @return The compiled node of the lazy command, or this node for any other command.
+     * @throws IllegalStateException if the lazy command can't be created
+     */
+    public CommandNode resolve() {
+        return command instanceof LazyCommand ? ((LazyCommand) command).getNode() : this;
+    }
+
+    /**
+     * @return The command this node executes
+     */
+    public CommandBase getCommand() {
+        return command;
+    }
+
+    /**
+     * @return The arguments to parse, in order. The returned array is shared, don't modify it.
+     */
+    public ArgumentNode[] getArguments() {
+        return arguments;
+    }
+
+    /**
+     * @return The sub commands branch to continue parsing in after all arguments, or <code>null</code> if this node is a leaf.
+     */
+    public LiteralNode getBranch() {
+        return branch;
+    }
+
+    /**
+     * @return The number of slots the parse results need for the arguments of this node and its parent nodes
+     */
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * @return The slots of the arguments of this node and its parent nodes, by their names
+     */
+    public Map<String, Integer> getSlotsByName() {
+        return slotsByName;
+    }
+
+    /**
+     * @return The parser generated for the command of this leaf node, or <code>null</code> if its arguments are parsed by walking them.
+     * @see MethodCommand#getSpecializedParser()
+     */
+    public SpecializedParser getParser() {
+        return parser;
+    }
+
+    /**
+     * @return The metrics recorded for this command, or <code>null</code> if none were recorded.
+     * @see com.shinybunny.cmdapi.metrics.CommandMetrics
+     */
+    public CommandStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return The metrics of this command, created when first needed, so commands that are never used don't hold any.
+     */
+    public CommandStats getOrCreateStats() {
+        CommandStats stats = this.stats;
+        if (stats == null) {
+            synchronized (this) {
+                stats = this.stats;
+                if (stats == null) {
+                    stats = new CommandStats();
+                    this.stats = stats;
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Drops the metrics recorded for this command.
+     */
+    public void resetStats() {
+        stats = null;
+    }
+
+    public boolean isLeaf() {
+        return branch == null;
+    }
+
+    @Override
+    public String toString() {
+        return command.getName();
+    }
+}
@@ -0,0 +1,79 @@
+package com.shinybunny.cmdapi.nodes;
+
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.utils.AliasIndex;
+import com.shinybunny.cmdapi.utils.PrefixTrie;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A compiled branch of a tree command. The next word of the input is matched against the names and aliases of the sub commands,
+ * and parsing continues in the matching {@link CommandNode}.
+ */
+public final class LiteralNode {
+
+    private final Argument argument;
+    private final AliasIndex<CommandNode> children;
+    private final PrefixTrie<CommandNode> names;
+    private final List<CommandNode> childList;
+    private final CommandNode defaultChild;
+
+    LiteralNode(Argument argument, List<CommandNode> children, CommandNode defaultChild) {
+        this.argument = argument;
+        this.childList = Collections.unmodifiableList(children);
+        this.children = new AliasIndex<>(children.size());
+        this.names = new PrefixTrie<>();
+        for (CommandNode child : children) {
+            this.children.put(child.getCommand().getName(), child);
+            this.names.put(child.getCommand().getName(), child);
+            for (String alias : child.getCommand().getAliases()) {
+                this.children.put(alias, child);
+                this.names.put(alias, child);
+            }
+        }
+        this.defaultChild = defaultChild;
+    }
+
+    /**
+     * @return The sub command argument this branch was compiled from. Used for reporting a missing sub command.
+     */
+    public Argument getArgument() {
+        return argument;
+    }
+
+    /**
+     * Gets the sub command using the alias found in the given range of the input, ignoring case.
+     * @return The matching child node, or <code>null</code> if none found.
+     */
+    public CommandNode getChild(CharSequence input, int start, int end) {
+        return children.get(input, start, end);
+    }
+
+    public CommandNode getChild(String alias) {
+        return children.get(alias);
+    }
+
+    /**
+     * Visits the names and aliases of the sub commands starting with the prefix found in the given range of the input, ignoring case.
+     * @see PrefixTrie#visit(CharSequence, int, int, PrefixTrie.Visitor)
+     */
+    public void visitChildren(CharSequence input, int start, int end, PrefixTrie.Visitor<CommandNode> visitor) {
+        names.visit(input, start, end, visitor);
+    }
+
+    /**
+     * @return All sub command nodes of this branch
+     */
+    public List<CommandNode> getChildren() {
+        return childList;
+    }
+
+    /**
+     * @return The node of the {@link com.shinybunny.cmdapi.annotations.DefaultSubCommand default sub command}, used when no sub command matches the input,
+     * or <code>null</code> if there is none.
+     */
+    public CommandNode getDefaultChild() {
+        return defaultChild;
+    }
+}
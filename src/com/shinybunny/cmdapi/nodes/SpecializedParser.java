@@ -0,0 +1,24 @@
+package com.shinybunny.cmdapi.nodes;
+
+import com.shinybunny.cmdapi.CommandContext;
+import com.shinybunny.cmdapi.ParseOutcome;
+import com.shinybunny.cmdapi.utils.InputReader;
+
+/**
+ * Parses all arguments of a single leaf command in one straight run.<br/>
+ * A specialized parser is a hidden class generated for its command by {@link Specializer}. It calls a parsing step for each argument in order,
+ * with the argument's {@link com.shinybunny.cmdapi.annotations.Range Range} bounds and {@link com.shinybunny.cmdapi.annotations.Default Default} value as constants,
+ * so each command has its own copy of the code for the JIT to inline.
+ * <br/>
+ * The parser is only used while no {@link com.shinybunny.cmdapi.tracing.ParseTracer ParseTracer} is installed, as it reports no phases.
+ */
+public interface SpecializedParser {
+
+    /**
+     * Parses, processes and stores the values of all arguments of the command, like walking its {@link ArgumentNode}s would.
+     * @param ctx The context to store the values in
+     * @param reader The reader, at the first argument of the command
+     * @return <code>null</code> if all arguments were parsed, or the failed outcome of the argument that failed.
+     */
+    ParseOutcome parse(CommandContext ctx, InputReader reader);
+}
@@ -0,0 +1,155 @@
+package com.shinybunny.cmdapi.nodes;
+
+import com.shinybunny.cmdapi.CommandContext;
+import com.shinybunny.cmdapi.ParseOutcome;
+import com.shinybunny.cmdapi.Sender;
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.exceptions.CommandParseException;
+import com.shinybunny.cmdapi.exceptions.InvalidArgumentException;
+import com.shinybunny.cmdapi.utils.InputReader;
+
+/**
+ * The parsing steps a {@link SpecializedParser} calls, one for each argument of its command.<br/>
+ * Each step does what walking the argument's node does for an argument with that adapter, but takes the argument's settings as parameters.
+ * A generated parser passes them as constants, so once the JIT inlines a step into the parser, only the code for that argument is left.
+ * <br/>
+ * A value out of the bounds of its {@link com.shinybunny.cmdapi.annotations.Range Range} is processed by the argument's annotation adapters,
+ * so the exception is the one the range adapter throws.
+ */
+final class SpecializedSteps {
+
+    private SpecializedSteps() {
+    }
+
+    static ParseOutcome intArg(CommandContext ctx, InputReader reader, Argument arg, boolean ranged, double min, double max,
+                               boolean hasDefault, int defaultValue, boolean required) {
+        int start = reader.getCursor();
+        try {
+            int value;
+            if (reader.canRead()) {
+                value = reader.readInt();
+                reader.skipSpace();
+            } else if (hasDefault) {
+                value = defaultValue;
+            } else {
+                return omitted(ctx, arg, start, required);
+            }
+            if (ranged && (value < min || value > max)) {
+                value = arg.processInt(value, ctx);
+            }
+            ctx.getResults().putInt(arg, value);
+            return null;
+        } catch (CommandParseException e) {
+            return ParseOutcome.parseError(arg, start, e);
+        } catch (InvalidArgumentException e) {
+            return ParseOutcome.invalidArgument(arg, start, e);
+        }
+    }
+
+    static ParseOutcome longArg(CommandContext ctx, InputReader reader, Argument arg, boolean ranged, double min, double max,
+                                boolean hasDefault, long defaultValue, boolean required) {
+        int start = reader.getCursor();
+        try {
+            long value;
+            if (reader.canRead()) {
+                value = reader.readLong();
+                reader.skipSpace();
+            } else if (hasDefault) {
+                value = defaultValue;
+            } else {
+                return omitted(ctx, arg, start, required);
+            }
+            if (ranged && (value < min || value > max)) {
+                value = arg.processLong(value, ctx);
+            }
+            ctx.getResults().putLong(arg, value);
+            return null;
+        } catch (CommandParseException e) {
+            return ParseOutcome.parseError(arg, start, e);
+        } catch (InvalidArgumentException e) {
+            return ParseOutcome.invalidArgument(arg, start, e);
+        }
+    }
+
+    static ParseOutcome doubleArg(CommandContext ctx, InputReader reader, Argument arg, boolean ranged, double min, double max,
+                                  boolean hasDefault, double defaultValue, boolean required) {
+        int start = reader.getCursor();
+        try {
+            double value;
+            if (reader.canRead()) {
+                value = reader.readDouble();
+                reader.skipSpace();
+            } else if (hasDefault) {
+                value = defaultValue;
+            } else {
+                return omitted(ctx, arg, start, required);
+            }
+            if (ranged && (value < min || value > max)) {
+                value = arg.processDouble(value, ctx);
+            }
+            ctx.getResults().putDouble(arg, value);
+            return null;
+        } catch (CommandParseException e) {
+            return ParseOutcome.parseError(arg, start, e);
+        } catch (InvalidArgumentException e) {
+            return ParseOutcome.invalidArgument(arg, start, e);
+        }
+    }
+
+    static ParseOutcome booleanArg(CommandContext ctx, InputReader reader, Argument arg, boolean hasDefault, boolean defaultValue, boolean required) {
+        int start = reader.getCursor();
+        boolean value;
+        if (reader.canRead()) {
+            try {
+                value = reader.readBoolean();
+            } catch (CommandParseException e) {
+                return ParseOutcome.parseError(arg, start, e);
+            }
+            reader.skipSpace();
+        } else if (hasDefault) {
+            value = defaultValue;
+        } else {
+            return omitted(ctx, arg, start, required);
+        }
+        ctx.getResults().putBoolean(arg, value);
+        return null;
+    }
+
+    /**
+     * A string is nullable, so an omitted string without a default is always <code>null</code>.
+     * @param rest Whether the argument is {@link com.shinybunny.cmdapi.annotations.MultiWord multi word}, taking the rest of the input
+     */
+    static ParseOutcome stringArg(CommandContext ctx, InputReader reader, Argument arg, boolean rest, String defaultValue) {
+        String value = defaultValue;
+        if (reader.canRead()) {
+            value = rest ? reader.rest() : reader.readWord();
+            reader.skipSpace();
+        }
+        ctx.setArgument(arg, value);
+        return null;
+    }
+
+    /**
+     * The sender is not read from the input.
+     */
+    static ParseOutcome senderArg(CommandContext ctx, InputReader reader, Argument arg, boolean required) {
+        Sender sender = ctx.getSender();
+        if (sender == null) {
+            // with no sender, the walk parses the argument as a missing value
+            return reader.canRead() ? ParseOutcome.missingArgument(arg, reader.getCursor()) : omitted(ctx, arg, reader.getCursor(), required);
+        }
+        ctx.setArgument(arg, sender);
+        return null;
+    }
+
+    /**
+     * Stores <code>null</code> for an omitted argument without a default value, unless it's required.
+     */
+    private static ParseOutcome omitted(CommandContext ctx, Argument arg, int start, boolean required) {
+        if (required) {
+            return ParseOutcome.missingArgument(arg, start);
+        }
+        ctx.setArgument(arg, null);
+        return null;
+    }
+}
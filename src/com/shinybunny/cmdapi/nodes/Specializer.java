@@ -0,0 +1,189 @@
+package com.shinybunny.cmdapi.nodes;
+
+import com.shinybunny.cmdapi.MethodCommand;
+import com.shinybunny.cmdapi.annotations.AnnotationAdapter;
+import com.shinybunny.cmdapi.annotations.Default;
+import com.shinybunny.cmdapi.annotations.MultiWord;
+import com.shinybunny.cmdapi.annotations.Range;
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.arguments.BooleanAdapter;
+import com.shinybunny.cmdapi.arguments.NumberAdapter;
+import com.shinybunny.cmdapi.arguments.ParameterArgument;
+import com.shinybunny.cmdapi.arguments.SenderAdapter;
+import com.shinybunny.cmdapi.arguments.StringAdapter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * Generates a {@link SpecializedParser} and a direct {@link MethodCommand.Invoker} for a command, as hidden classes
+ * (<code>Lookup.defineHiddenClass</code>) that hard-code the command's argument sequence and call its method directly.<br/>
+ * Hidden classes only exist since Java 15, so they are generated by a class compiled for Java 15.
+ * On an older JVM nothing is specialized, and commands are parsed by walking their nodes and run through their method handle invokers.
+ * <br/>
+ * <ul>
+ *     <li>A parser is generated for a command that is not a tree command if every argument uses the built-in {@link NumberAdapter} (for <code>int</code>, <code>long</code> and <code>double</code>),
+ *     {@link BooleanAdapter}, {@link StringAdapter} or {@link SenderAdapter}, and no annotation adapter processes its values other than
+ *     the built-in {@link Range} and {@link Default} adapters.</li>
+ *     <li>An invoker is generated for a command created from a reflected method, if the method, its class and the types of its parameters and its return value are public and visible to this library.</li>
+ * </ul>
+ */
+public final class Specializer {
+
+    /**
+     * The generator of the hidden classes, or <code>null</code> if this JVM doesn't support them
+     */
+    private static final Generator GENERATOR = loadGenerator();
+
+    private Specializer() {
+    }
+
+    private static Generator loadGenerator() {
+        try {
+            return (Generator) Class.forName("com.shinybunny.cmdapi.nodes.HiddenClassGenerator").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return Whether this JVM supports hidden classes, so commands can be specialized.
+     */
+    public static boolean isSupported() {
+        return GENERATOR != null;
+    }
+
+    /**
+     * Generates the specialized parser of a command.
+     * @param command The command, with all of its arguments created
+     * @return The parser, or <code>null</code> if the command can't be specialized.
+     */
+    public static SpecializedParser createParser(MethodCommand command) {
+        if (GENERATOR == null || command.isTree()) return null;
+        List<Argument> arguments = command.getArguments();
+        Step[] steps = new Step[arguments.size()];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = step(arguments.get(i));
+            if (steps[i] == null) return null;
+        }
+        return GENERATOR.parser(steps, arguments.toArray(new Argument[0]));
+    }
+
+    /**
+     * Generates the invoker of a command, calling its method directly.
+     * @param command The command, created from a reflected method
+     * @return The invoker, or <code>null</code> if the method can't be called from a hidden class of this library.
+     */
+    public static MethodCommand.Invoker createInvoker(MethodCommand command) {
+        if (GENERATOR == null || !(command.getMethod() instanceof Method)) return null;
+        Method method = (Method) command.getMethod();
+        if (!Modifier.isPublic(method.getModifiers()) || method.getDeclaringClass().isInterface() || !isVisible(method.getDeclaringClass())
+                || !isVisible(method.getReturnType())) {
+            return null;
+        }
+        for (Class<?> type : method.getParameterTypes()) {
+            if (!isVisible(type)) return null;
+        }
+        return GENERATOR.invoker(method, command.getHolder(), command.getArguments().toArray(new Argument[0]));
+    }
+
+    /**
+     * @return Whether a hidden class in this library's package can refer to the type
+     */
+    private static boolean isVisible(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) return true;
+        if (!Modifier.isPublic(type.getModifiers())) return false;
+        try {
+            return Class.forName(type.getName(), false, Specializer.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return The step parsing the argument, or <code>null</code> if it can't be specialized
+     */
+    private static Step step(Argument arg) {
+        if (!(arg instanceof ParameterArgument) || !arg.isSyntax()) return null;
+        ParameterArgument pa = (ParameterArgument) arg;
+        Range range = null;
+        for (AnnotationAdapter<?> adapter : pa.getProcessors()) {
+            if (adapter.getClass() == Range.Adapter.class) {
+                range = pa.getAnnotation(Range.class);
+            } else if (adapter.getClass() != Default.Adapter.class) {
+                return null;
+            }
+        }
+        Class<?> adapterType = arg.getAdapter().getClass();
+        Class<?> type = arg.getType();
+        Object defaultValue = arg.getDefaultValue();
+        if (adapterType == NumberAdapter.class && (type == Integer.class || type == Long.class || type == Double.class)) {
+            if (defaultValue != null && !(defaultValue instanceof Number)) return null;
+            Step.Kind kind = type == Integer.class ? Step.Kind.INT : type == Long.class ? Step.Kind.LONG : Step.Kind.DOUBLE;
+            return new Step(kind, range, defaultValue, arg.isRequired());
+        } else if (range != null) {
+            return null;
+        } else if (adapterType == BooleanAdapter.class && type == Boolean.class) {
+            if (defaultValue != null && !(defaultValue instanceof Boolean)) return null;
+            return new Step(Step.Kind.BOOLEAN, null, defaultValue, arg.isRequired());
+        } else if (adapterType == StringAdapter.class && type == String.class) {
+            if (defaultValue != null && !(defaultValue instanceof String)) return null;
+            return new Step(pa.hasAnnotation(MultiWord.class) ? Step.Kind.REST : Step.Kind.WORD, null, defaultValue, arg.isRequired());
+        } else if (adapterType == SenderAdapter.class && defaultValue == null) {
+            return new Step(Step.Kind.SENDER, null, null, arg.isRequired());
+        }
+        return null;
+    }
+
+    /**
+     * How a {@link SpecializedParser} parses one argument: which of the {@link SpecializedSteps} it calls, and the constants it passes to it.
+     */
+    static final class Step {
+
+        enum Kind {
+            INT, LONG, DOUBLE, BOOLEAN, WORD, REST, SENDER
+        }
+
+        final Kind kind;
+        final boolean ranged;
+        final double min;
+        final double max;
+        /**
+         * The value of the argument when it's omitted, or <code>null</code> if it has none
+         */
+        final Object defaultValue;
+        final boolean required;
+
+        Step(Kind kind, Range range, Object defaultValue, boolean required) {
+            this.kind = kind;
+            this.ranged = range != null;
+            this.min = range == null ? 0 : range.min();
+            this.max = range == null ? 0 : range.max();
+            this.defaultValue = defaultValue;
+            this.required = required;
+        }
+    }
+
+    /**
+     * Defines the hidden classes. Implemented by a class compiled for Java 15, which is only loaded if the JVM supports it.
+     */
+    interface Generator {
+
+        /**
+         * @param steps The step of each argument
+         * @param arguments The arguments, in order
+         */
+        SpecializedParser parser(Step[] steps, Argument[] arguments);
+
+        /**
+         * @param method The public method to call
+         * @param holder The instance to call the method on, ignored for a static method
+         * @param arguments The arguments of the method's parameters, in order
+         */
+        MethodCommand.Invoker invoker(Method method, Object holder, Argument[] arguments);
+    }
+}
@@ -0,0 +1,87 @@
+package com.shinybunny.cmdapi.tracing;
+
+import com.shinybunny.cmdapi.CommandContext;
+import com.shinybunny.cmdapi.arguments.Argument;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Passes every event to several tracers, created by {@link ParseTracer#of(ParseTracer...)}.<br/>
+ * The token of a phase holds the token of every tracer, or is <code>null</code> if none of them measures that phase.
+ */
+final class CompositeTracer implements ParseTracer {
+
+    private final ParseTracer[] tracers;
+
+    private CompositeTracer(ParseTracer[] tracers) {
+        this.tracers = tracers;
+    }
+
+    static ParseTracer of(ParseTracer... tracers) {
+        List<ParseTracer> list = new ArrayList<>(tracers.length);
+        for (ParseTracer tracer : tracers) {
+            if (tracer != null) {
+                list.add(tracer);
+            }
+        }
+        if (list.isEmpty()) {
+            return null;
+        }
+        return list.size() == 1 ? list.get(0) : new CompositeTracer(list.toArray(new ParseTracer[0]));
+    }
+
+    @Override
+    public void argumentStart(CommandContext ctx, Argument arg, int cursor) {
+        for (ParseTracer tracer : tracers) {
+            tracer.argumentStart(ctx, arg, cursor);
+        }
+    }
+
+    @Override
+    public void adapterResult(CommandContext ctx, Argument arg, Object value) {
+        for (ParseTracer tracer : tracers) {
+            tracer.adapterResult(ctx, arg, value);
+        }
+    }
+
+    @Override
+    public void annotationProcessed(CommandContext ctx, Argument arg, Annotation annotation, Object value) {
+        for (ParseTracer tracer : tracers) {
+            tracer.annotationProcessed(ctx, arg, annotation, value);
+        }
+    }
+
+    @Override
+    public void defaultApplied(CommandContext ctx, Argument arg, Object value) {
+        for (ParseTracer tracer : tracers) {
+            tracer.defaultApplied(ctx, arg, value);
+        }
+    }
+
+    @Override
+    public Object begin(Phase phase) {
+        Object[] tokens = null;
+        for (int i = 0; i < tracers.length; i++) {
+            Object token = tracers[i].begin(phase);
+            if (token != null) {
+                if (tokens == null) {
+                    tokens = new Object[tracers.length];
+                }
+                tokens[i] = token;
+            }
+        }
+        return tokens;
+    }
+
+    @Override
+    public void end(Object token, String command, Argument argument, int inputLength) {
+        Object[] tokens = (Object[]) token;
+        for (int i = 0; i < tracers.length; i++) {
+            if (tokens[i] != null) {
+                tracers[i].end(tokens[i], command, argument, inputLength);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.shinybunny.cmdapi.tracing;
+
+import com.shinybunny.cmdapi.CommandBase;
+import com.shinybunny.cmdapi.CommandContext;
+import com.shinybunny.cmdapi.CommandManager;
+import com.shinybunny.cmdapi.annotations.AnnotationAdapter;
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.arguments.ArgumentAdapter;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Receives events about every step of handling a command input, for debugging how an input was parsed, or for a profiler like Java Flight Recorder.<br/>
+ * A tracer is installed on a command manager with {@link CommandManager#setTracer(ParseTracer)}.
+ * A manager has a single tracer, so to install several, like a {@link RingBufferTracer} along with the {@link #flightRecorder() flight recorder}, combine them with {@link #of(ParseTracer...)}.
+ * When no tracer is installed, every event costs a single null check, and no events are created at all.
+ * <br/>
+ * There are two kinds of events. The steps of parsing, like {@link #argumentStart} and {@link #adapterResult}, tell what was parsed.
+ * The {@link Phase phases}, between {@link #begin(Phase)} and {@link #end(Object, String, Argument, int)}, tell how long each part took.
+ * <br/>
+ * Events are called on the thread handling the input, so implementations should be quick and thread-safe.
+ * All methods do nothing by default, so a tracer only needs to implement the events it cares about.
+ * @see RingBufferTracer
+ * @see #flightRecorder()
+ */
+public interface ParseTracer {
+
+    /**
+     * The measured phases of handling an input
+     */
+    enum Phase {
+        /**
+         * Looking up the command of an alias in the registry
+         */
+        GET_COMMAND,
+        /**
+         * Parsing a whole input, from after looking up its command until it's parsed or failed
+         */
+        PARSE,
+        /**
+         * An {@link ArgumentAdapter} parsing the value of an argument out of the input
+         */
+        ADAPTER_PARSE,
+        /**
+         * An {@link AnnotationAdapter} processing the value of an argument
+         */
+        ANNOTATION_PROCESS,
+        /**
+         * Checking whether the sender can use a command, with {@link CommandBase#canUse}
+         */
+        VALIDATE_USE,
+        /**
+         * Running a parsed command, with {@link CommandBase#run}
+         */
+        RUN
+    }
+
+    /**
+     * Called before an argument is parsed.
+     * @param ctx The context of the command being parsed
+     * @param arg The argument about to be parsed
+     * @param cursor The position in the input the argument starts at
+     */
+    default void argumentStart(CommandContext ctx, Argument arg, int cursor) {
+
+    }
+
+    /**
+     * Called after the {@link ArgumentAdapter} of an argument parsed or resolved its value, before any annotation processed it.
+     * @param ctx The context of the command being parsed
+     * @param arg The parsed argument
+     * @param value The value returned by the adapter
+     */
+    default void adapterResult(CommandContext ctx, Argument arg, Object value) {
+
+    }
+
+    /**
+     * Called after an {@link AnnotationAdapter} processed the value of an argument.
+     * @param ctx The context of the command being parsed
+     * @param arg The processed argument
+     * @param annotation The annotation the adapter processed the value for
+     * @param value The value after the annotation processed it
+     */
+    default void annotationProcessed(CommandContext ctx, Argument arg, Annotation annotation, Object value) {
+
+    }
+
+    /**
+     * Called when an argument was not provided in the input, and a default value was used instead.
+     * @param ctx The context of the command being parsed
+     * @param arg The omitted argument
+     * @param value The default value used
+     */
+    default void defaultApplied(CommandContext ctx, Argument arg, Object value) {
+
+    }
+
+    /**
+     * Called before a phase starts. Phases nest, like the {@link Phase#ADAPTER_PARSE adapter} phases inside a {@link Phase#PARSE parse}.
+     * @param phase The starting phase
+     * @return A token to pass to {@link #end(Object, String, Argument, int)} when the phase completes, or <code>null</code> to not measure this phase.
+     * Returns <code>null</code> by default.
+     */
+    default Object begin(Phase phase) {
+        return null;
+    }
+
+    /**
+     * Called after a phase completed, if {@link #begin(Phase)} returned a token for it.
+     * A phase that throws is not ended, except for a {@link Phase#RUN run}, which is ended even if the command threw.
+     * @param token The token returned by {@link #begin(Phase)}
+     * @param command The name of the command of the phase, or <code>null</code> if no command was found
+     * @param argument The argument of the phase, or <code>null</code> if it's not about a single argument
+     * @param inputLength The length of the whole input
+     */
+    default void end(Object token, String command, Argument argument, int inputLength) {
+
+    }
+
+    /**
+     * Combines tracers into a single tracer, that passes every event to all of them in order.
+     * Each tracer gets back the token it returned from {@link #begin(Phase)}.
+     * @param tracers The tracers to combine. <code>null</code> tracers are skipped, like the {@link #flightRecorder() flight recorder} when JFR is not available.
+     * @return The combined tracer, the only tracer if there's just one, or <code>null</code> if there are none.
+     */
+    static ParseTracer of(ParseTracer... tracers) {
+        return CompositeTracer.of(tracers);
+    }
+
+    /**
+     * Gets the tracer that emits a Java Flight Recorder event for every phase.<br/>
+     * The events are compiled for Java 11, since this library still runs on Java 8, which has no JFR API to compile against.
+     * @return The tracer, or <code>null</code> if the JFR events are not on the classpath or JFR is not available in this JVM.
+     */
+    static ParseTracer flightRecorder() {
+        try {
+            return (ParseTracer) Class.forName("com.shinybunny.cmdapi.jfr.FlightRecorderTracer").getField("INSTANCE").get(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.shinybunny.cmdapi.tracing;
+
+import com.shinybunny.cmdapi.CommandContext;
+import com.shinybunny.cmdapi.arguments.Argument;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * A {@link ParseTracer} that records the latest events into a bounded ring buffer. Once the buffer is full, every new event overwrites the oldest one.<br/>
+ * To inspect a single problematic input, create the tracer with a filter that only accepts that input, for example:
+ * <pre>
+ *     RingBufferTracer tracer = new RingBufferTracer(256, ctx -&gt; ctx.getInput().startsWith("dice"));
+ *     manager.setTracer(tracer);
+ *     manager.parse(sender, "dice 1 x");
+ *     tracer.getEvents().forEach(System.out::println);
+ * </pre>
+ */
+public class RingBufferTracer implements ParseTracer {
+
+    private final AtomicReferenceArray<TraceEvent> buffer;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Predicate<CommandContext> filter;
+
+    /**
+     * Creates a tracer recording events of all inputs.
+     * @param capacity The number of latest events to keep
+     */
+    public RingBufferTracer(int capacity) {
+        this(capacity, ctx -> true);
+    }
+
+    /**
+     * @param capacity The number of latest events to keep
+     * @param filter Which parses to record events of
+     */
+    public RingBufferTracer(int capacity, Predicate<CommandContext> filter) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.filter = filter;
+    }
+
+    private void record(CommandContext ctx, TraceEvent.Type type, Argument arg, Annotation annotation, Object value, int cursor) {
+        if (!filter.test(ctx)) return;
+        long seq = sequence.getAndIncrement();
+        buffer.set((int) (seq % buffer.length()), new TraceEvent(seq, type, ctx.getInput(), ctx.getCommand().getName(), arg, annotation, value, cursor));
+    }
+
+    @Override
+    public void argumentStart(CommandContext ctx, Argument arg, int cursor) {
+        record(ctx, TraceEvent.Type.ARGUMENT_START, arg, null, null, cursor);
+    }
+
+    @Override
+    public void adapterResult(CommandContext ctx, Argument arg, Object value) {
+        record(ctx, TraceEvent.Type.ADAPTER_RESULT, arg, null, value, -1);
+    }
+
+    @Override
+    public void annotationProcessed(CommandContext ctx, Argument arg, Annotation annotation, Object value) {
+        record(ctx, TraceEvent.Type.ANNOTATION_PROCESSED, arg, annotation, value, -1);
+    }
+
+    @Override
+    public void defaultApplied(CommandContext ctx, Argument arg, Object value) {
+        record(ctx, TraceEvent.Type.DEFAULT_APPLIED, arg, null, value, -1);
+    }
+
+    /**
+     * @return The recorded events still in the buffer, oldest first.
+     * Events recorded by other threads while this is called may be missing from the list.
+     */
+    public List<TraceEvent> getEvents() {
+        long end = sequence.get();
+        long start = Math.max(0, end - buffer.length());
+        List<TraceEvent> events = new ArrayList<>((int) (end - start));
+        for (long seq = start; seq < end; seq++) {
+            TraceEvent e = buffer.get((int) (seq % buffer.length()));
+            // skip slots already overwritten by a newer event, or not written yet
+            if (e != null && e.getSequence() == seq) {
+                events.add(e);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * @return The number of events recorded since this tracer was created or cleared, including the ones no longer in the buffer.
+     */
+    public long getRecordedCount() {
+        return sequence.get();
+    }
+
+    public int getCapacity() {
+        return buffer.length();
+    }
+
+    /**
+     * Removes all events from the buffer.
+     */
+    public void clear() {
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+        sequence.set(0);
+    }
+}
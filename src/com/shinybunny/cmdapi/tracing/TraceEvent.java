@@ -0,0 +1,115 @@
+package com.shinybunny.cmdapi.tracing;
+
+import com.shinybunny.cmdapi.arguments.Argument;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * A single event recorded by a {@link RingBufferTracer}.
+ */
+public final class TraceEvent {
+
+    /**
+     * The kinds of events, one for each method of {@link ParseTracer}
+     */
+    public enum Type {
+        ARGUMENT_START,
+        ADAPTER_RESULT,
+        ANNOTATION_PROCESSED,
+        DEFAULT_APPLIED
+    }
+
+    private final long sequence;
+    private final long nanoTime;
+    private final Type type;
+    private final String input;
+    private final String command;
+    private final Argument argument;
+    private final Annotation annotation;
+    private final Object value;
+    private final int cursor;
+
+    TraceEvent(long sequence, Type type, String input, String command, Argument argument, Annotation annotation, Object value, int cursor) {
+        this.sequence = sequence;
+        this.nanoTime = System.nanoTime();
+        this.type = type;
+        this.input = input;
+        this.command = command;
+        this.argument = argument;
+        this.annotation = annotation;
+        this.value = value;
+        this.cursor = cursor;
+    }
+
+    /**
+     * @return The number of this event among all events recorded by its tracer, starting at 0
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return The {@link System#nanoTime()} the event was recorded at
+     */
+    public long getNanoTime() {
+        return nanoTime;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The whole input being parsed
+     */
+    public String getInput() {
+        return input;
+    }
+
+    /**
+     * @return The name of the command (or sub command) being parsed
+     */
+    public String getCommand() {
+        return command;
+    }
+
+    public Argument getArgument() {
+        return argument;
+    }
+
+    /**
+     * @return The annotation of an {@link Type#ANNOTATION_PROCESSED} event, or <code>null</code> for other events.
+     */
+    public Annotation getAnnotation() {
+        return annotation;
+    }
+
+    /**
+     * @return The value of the argument when the event happened, or <code>null</code> for an {@link Type#ARGUMENT_START} event.
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * @return The cursor of an {@link Type#ARGUMENT_START} event, or -1 for other events.
+     */
+    public int getCursor() {
+        return cursor;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('#').append(sequence).append(' ').append(type).append(' ').append(command).append(' ').append(argument);
+        if (annotation != null) {
+            sb.append(" @").append(annotation.annotationType().getSimpleName());
+        }
+        if (type == Type.ARGUMENT_START) {
+            sb.append(" at ").append(cursor);
+        } else {
+            sb.append(" = ").append(value);
+        }
+        return sb.toString();
+    }
+}
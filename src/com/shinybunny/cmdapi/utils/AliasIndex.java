@@ -0,0 +1,162 @@
+package com.shinybunny.cmdapi.utils;
+
+import java.util.Arrays;
+
+/**
+ * A case-insensitive hash index from command aliases to values.<br/>
+ * Lookups hash and compare the characters in place, so an alias can be resolved straight out of the raw input
+ * without lowercasing it or cutting a substring first. This makes {@link #get(CharSequence, int, int)} allocation-free.
+ * @param <V> the type of value mapped by each alias
+ */
+public class AliasIndex<V> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private String[] keys;
+    private Object[] values;
+    private int size;
+
+    public AliasIndex() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public AliasIndex(int expectedSize) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        keys = new String[capacity];
+        values = new Object[capacity];
+    }
+
+    /**
+     * Creates a copy of the index, with the same mappings.
+     * Changing either index afterwards doesn't affect the other one.
+     */
+    public AliasIndex(AliasIndex<V> other) {
+        keys = other.keys.clone();
+        values = other.values.clone();
+        size = other.size;
+    }
+
+    /**
+     * Gets the value mapped to the given alias, ignoring case.
+     * @param alias The alias to look for
+     * @return The mapped value, or <code>null</code> if none found.
+     */
+    public V get(CharSequence alias) {
+        return get(alias, 0, alias.length());
+    }
+
+    /**
+     * Gets the value mapped to the alias found in the given range of characters, ignoring case.
+     * @param input The characters holding the alias, for example a whole command input string
+     * @param start The index of the first character of the alias
+     * @param end The index after the last character of the alias
+     * @return The mapped value, or <code>null</code> if none found.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(CharSequence input, int start, int end) {
+        int mask = keys.length - 1;
+        int i = hash(input, start, end) & mask;
+        String key;
+        while ((key = keys[i]) != null) {
+            if (matches(key, input, start, end)) {
+                return (V) values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Maps the alias to the value, replacing the current value of the alias if it already exists.
+     * @param alias The alias to map
+     * @param value The value to map it to. Can't be <code>null</code>.
+     * @return The value previously mapped to that alias, or <code>null</code> if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(String alias, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length << 1);
+        }
+        int mask = keys.length - 1;
+        int i = hash(alias, 0, alias.length()) & mask;
+        String key;
+        while ((key = keys[i]) != null) {
+            if (matches(key, alias, 0, alias.length())) {
+                Object old = values[i];
+                values[i] = value;
+                return (V) old;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = alias;
+        values[i] = value;
+        size++;
+        return null;
+    }
+
+    public boolean containsKey(CharSequence alias) {
+        return get(alias) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new String[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            String key = oldKeys[j];
+            if (key != null) {
+                int i = hash(key, 0, key.length()) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static char fold(char c) {
+        // same folding as String#equalsIgnoreCase, so both agree on what a match is
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static int hash(CharSequence s, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + fold(s.charAt(i));
+        }
+        // spread the high bits, since the table only uses the low ones
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(String key, CharSequence s, int start, int end) {
+        int len = end - start;
+        if (key.length() != len) return false;
+        for (int i = 0; i < len; i++) {
+            char a = key.charAt(i);
+            char b = s.charAt(start + i);
+            if (a != b && fold(a) != fold(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,11 @@
+package com.shinybunny.cmdapi.utils;
+
+/**
+ * A predicate of a single primitive <code>char</code>, so testing characters of an input doesn't box them like a <code>Predicate&lt;Character&gt;</code> does.
+ */
+@FunctionalInterface
+public interface CharPredicate {
+
+    boolean test(char c);
+
+}
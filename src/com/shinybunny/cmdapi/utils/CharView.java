@@ -0,0 +1,50 @@
+package com.shinybunny.cmdapi.utils;
+
+/**
+ * A read-only view of a range of characters in another {@link CharSequence}. Nothing is copied until {@link #toString()} is called.
+ */
+public final class CharView implements CharSequence {
+
+    private final CharSequence source;
+    private final int start;
+    private final int end;
+
+    public CharView(CharSequence source, int start, int end) {
+        if (start < 0 || end > source.length() || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + source.length());
+        }
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length());
+        }
+        return source.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new CharView(source, this.start + start, this.start + end);
+    }
+
+    /**
+     * Compares the characters of this view with the string, ignoring case.
+     */
+    public boolean equalsIgnoreCase(String s) {
+        return s.length() == length() && InputReader.regionMatchesIgnoreCase(source, start, s);
+    }
+
+    @Override
+    public String toString() {
+        return source.subSequence(start, end).toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.shinybunny.cmdapi.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * A sorted, case-insensitive index of values to complete an argument from, like player names or item ids.<br/>
+ * Values can be added and removed while other threads complete from the index.
+ * Completing a prefix jumps straight to the first matching value and reads the matches in order until it has enough of them,
+ * so a large index is never copied or sorted for a single completion.
+ * <br/>
+ * Values that only differ in case are the same value for the index, and the last one added is kept.
+ */
+public class CompletionIndex {
+
+    /**
+     * The values by their case-folded forms
+     */
+    private final ConcurrentNavigableMap<String, String> values = new ConcurrentSkipListMap<>();
+
+    public CompletionIndex() {
+    }
+
+    public CompletionIndex(Collection<String> values) {
+        addAll(values);
+    }
+
+    public void add(String value) {
+        values.put(fold(value, 0, value.length()), value);
+    }
+
+    public void addAll(Collection<String> values) {
+        for (String value : values) {
+            add(value);
+        }
+    }
+
+    /**
+     * Removes a value, ignoring case.
+     * @return Whether the value was in the index
+     */
+    public boolean remove(String value) {
+        return values.remove(fold(value, 0, value.length())) != null;
+    }
+
+    public boolean contains(String value) {
+        return values.containsKey(fold(value, 0, value.length()));
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public void clear() {
+        values.clear();
+    }
+
+    /**
+     * Gets the first values starting with the prefix, ignoring case.
+     * @param prefix The prefix to complete
+     * @param limit The maximum number of values to return
+     * @return Up to <code>limit</code> matching values, in alphabetical order ignoring case.
+     */
+    public List<String> complete(CharSequence prefix, int limit) {
+        List<String> matches = new ArrayList<>(Math.min(limit, 16));
+        if (limit > 0) {
+            visit(prefix, 0, prefix.length(), value -> {
+                matches.add(value);
+                return matches.size() < limit;
+            });
+        }
+        return matches;
+    }
+
+    /**
+     * Visits the values starting with the prefix found in the given range of characters, ignoring case, in alphabetical order.
+     * @param input The characters holding the prefix
+     * @param start The index of the first character of the prefix
+     * @param end The index after the last character of the prefix
+     * @param visitor Called with each value in order, until it returns false
+     */
+    public void visit(CharSequence input, int start, int end, Predicate<String> visitor) {
+        String prefix = fold(input, start, end);
+        for (Map.Entry<String, String> e : values.tailMap(prefix, true).entrySet()) {
+            if (!e.getKey().startsWith(prefix) || !visitor.test(e.getValue())) {
+                return;
+            }
+        }
+    }
+
+    private static String fold(CharSequence s, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            // the same folding as AliasIndex, so both agree on what a match is
+            chars[i - start] = Character.toLowerCase(Character.toUpperCase(s.charAt(i)));
+        }
+        return new String(chars);
+    }
+}
@@ -2,23 +2,63 @@ package com.shinybunny.cmdapi.utils;
 
 import com.shinybunny.cmdapi.exceptions.CommandParseException;
 
+import java.nio.CharBuffer;
 import java.util.function.Predicate;
 
+/**
+ * Reads through a command input, argument by argument.<br/>
+ * The input can be any {@link CharSequence} or a <code>char[]</code>. Numbers and booleans are parsed straight from the characters of the input,
+ * so {@link #readInt()}, {@link #readLong()}, {@link #readDouble()} and {@link #readBoolean()} don't allocate anything unless the input is invalid.
+ * Methods starting with <code>view</code> return a {@link CharView} of the input instead of copying it into a new string.
+ */
 public class InputReader {
 
-    private String string;
+    /**
+     * The characters a number can be made of
+     */
+    public static final CharPredicate NUMBER = InputReader::isAllowedInNumber;
+    /**
+     * The characters a word can be made of
+     */
+    public static final CharPredicate WORD = InputReader::isAllowedInWord;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final CharSequence input;
     private int cursor = 0;
 
-    public InputReader(String input) {
-        this.string = input;
+    public InputReader(CharSequence input) {
+        this.input = input;
+    }
+
+    public InputReader(char[] input) {
+        this(CharBuffer.wrap(input));
+    }
+
+    public InputReader(char[] input, int offset, int length) {
+        // a wrapped buffer starts at the offset, so index 0 is input[offset]
+        this(CharBuffer.wrap(input, offset, length).slice());
     }
 
+    /**
+     * @return The whole input as a string. This copies the input if it's not a string already.
+     */
     public String getString() {
-        return string;
+        return input.toString();
+    }
+
+    /**
+     * @return The whole input, as given to this reader
+     */
+    public CharSequence getInput() {
+        return input;
     }
 
     public char read() {
-        return string.charAt(cursor++);
+        return input.charAt(cursor++);
     }
 
     public int getCursor() {
@@ -30,7 +70,7 @@ public class InputReader {
     }
 
     public char peek() {
-        return string.charAt(cursor);
+        return input.charAt(cursor);
     }
 
     public void skipSpace() {
@@ -38,7 +78,7 @@ public class InputReader {
     }
 
     public boolean canRead() {
-        return cursor + 1 <= string.length();
+        return cursor + 1 <= input.length();
     }
 
     public void skipAll(char c) {
@@ -46,32 +86,144 @@ public class InputReader {
             skip();
     }
 
+    /**
+     * @deprecated boxes every character, use {@link #skipWhile(CharPredicate)}
+     */
+    @Deprecated
     public void skipAll(Predicate<Character> toSkip) {
-        while (canRead() && toSkip.test(peek()))
-            skip();
+        skipWhile(toSkip::test);
+    }
+
+    /**
+     * Moves the cursor past all characters matching the predicate.
+     */
+    public void skipWhile(CharPredicate toSkip) {
+        int length = input.length();
+        int i = cursor;
+        while (i < length && toSkip.test(input.charAt(i)))
+            i++;
+        cursor = i;
     }
 
+    /**
+     * @deprecated boxes every character, use {@link #viewWhile(CharPredicate)}
+     */
+    @Deprecated
     public String readWhile(Predicate<Character> predicate) {
         int pos = cursor;
-        skipAll(predicate);
+        skipWhile(predicate::test);
         return select(pos,cursor);
     }
 
+    /**
+     * Reads all characters matching the predicate.
+     * @return A view of the read characters
+     */
+    public CharView viewWhile(CharPredicate predicate) {
+        int pos = cursor;
+        skipWhile(predicate);
+        return view(pos,cursor);
+    }
+
     public String select(int start, int end) {
-        return string.substring(start,end);
+        return input.subSequence(start,end).toString();
+    }
+
+    /**
+     * Like {@link #select(int, int)}, without copying the characters.
+     */
+    public CharView view(int start, int end) {
+        return new CharView(input,start,end);
     }
 
     public int readInt() throws CommandParseException {
-        String s = readWhile(this::isAllowedInNumber);
-        try {
-            return Integer.parseInt(s);
-        } catch (NumberFormatException e) {
-            throw new CommandParseException("Invalid number " + s);
+        int start = cursor;
+        skipWhile(NUMBER);
+        return (int) parseInteger(start, cursor, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public long readLong() throws CommandParseException {
+        int start = cursor;
+        skipWhile(NUMBER);
+        return parseInteger(start, cursor, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public short readShort() throws CommandParseException {
+        int start = cursor;
+        skipWhile(NUMBER);
+        return (short) parseInteger(start, cursor, Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    public byte readByte() throws CommandParseException {
+        int start = cursor;
+        skipWhile(NUMBER);
+        return (byte) parseInteger(start, cursor, Byte.MIN_VALUE, Byte.MAX_VALUE);
+    }
+
+    /**
+     * Parses an integer from the input, accumulating it negatively like {@link Long#parseLong(String)} does, so the minimum value doesn't overflow.
+     */
+    private long parseInteger(int start, int end, long min, long max) throws CommandParseException {
+        int i = start;
+        boolean negative = i < end && input.charAt(i) == '-';
+        if (negative) i++;
+        if (i == end) {
+            throw new CommandParseException("Invalid number " + select(start, end));
+        }
+        long limit = negative ? min : -max;
+        long multLimit = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = input.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multLimit) {
+                throw new CommandParseException("Invalid number " + select(start, end));
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw new CommandParseException("Invalid number " + select(start, end));
+            }
+            result -= digit;
         }
+        return negative ? result : -result;
     }
 
+    /**
+     * Reads a decimal number. Numbers with up to 15 significant digits and 22 decimal places are parsed right from the input,
+     * as both the digits and the power of ten are exact doubles, so a single division rounds correctly.
+     * Anything longer falls back to {@link Double#parseDouble(String)}.
+     */
     public double readDouble() throws CommandParseException {
-        String s = readWhile(this::isAllowedInNumber);
+        int start = cursor;
+        skipWhile(NUMBER);
+        int end = cursor;
+        int i = start;
+        boolean negative = i < end && input.charAt(i) == '-';
+        if (negative) i++;
+        long digits = 0;
+        int decimals = 0;
+        boolean dot = false;
+        boolean any = false;
+        for (; i < end; i++) {
+            char c = input.charAt(i);
+            if (c == '.' && !dot) {
+                dot = true;
+            } else if (c >= '0' && c <= '9' && digits < (1L << 53) / 10) {
+                any = true;
+                digits = digits * 10 + (c - '0');
+                if (dot) decimals++;
+            } else {
+                return parseDouble(start, end);
+            }
+        }
+        if (!any || decimals >= POWERS_OF_TEN.length) {
+            return parseDouble(start, end);
+        }
+        double value = decimals == 0 ? digits : digits / POWERS_OF_TEN[decimals];
+        return negative ? -value : value;
+    }
+
+    private double parseDouble(int start, int end) throws CommandParseException {
+        String s = select(start, end);
         try {
             return Double.parseDouble(s);
         } catch (NumberFormatException e) {
@@ -80,29 +232,61 @@ public class InputReader {
     }
 
     public String readWord() {
-        return readWhile(this::isAllowedInWord);
+        int pos = cursor;
+        skipWhile(WORD);
+        return select(pos,cursor);
+    }
+
+    /**
+     * Like {@link #readWord()}, without copying the word.
+     */
+    public CharView viewWord() {
+        return viewWhile(WORD);
     }
 
     public boolean readBoolean() throws CommandParseException {
-        String s = readWord();
-        if ("true".equalsIgnoreCase(s)) {
+        int start = cursor;
+        skipWhile(WORD);
+        int length = cursor - start;
+        if (length == 4 && regionMatchesIgnoreCase(input, start, "true")) {
             return true;
-        } else if ("false".equalsIgnoreCase(s)) {
+        } else if (length == 5 && regionMatchesIgnoreCase(input, start, "false")) {
             return false;
         }
-        throw new CommandParseException("Invalid boolean " + s);
+        throw new CommandParseException("Invalid boolean " + select(start, cursor));
     }
 
-    private boolean isAllowedInNumber(char c) {
+    /**
+     * Compares <code>s.length()</code> characters of the sequence from the start index with the string, ignoring case.
+     */
+    static boolean regionMatchesIgnoreCase(CharSequence seq, int start, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char a = seq.charAt(start + i);
+            char b = s.charAt(i);
+            if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b) && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAllowedInNumber(char c) {
         return c >= '0' && c <= '9' || c == '.' || c == '-';
     }
 
-    private boolean isAllowedInWord(char c) {
+    private static boolean isAllowedInWord(char c) {
         return c >= '0' && c <= '9' || c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c == '_' || c == '-' || c == '.' || c == '+';
     }
 
     public String rest() {
-        return select(cursor,string.length());
+        return select(cursor,input.length());
+    }
+
+    /**
+     * Like {@link #rest()}, without copying the rest of the input.
+     */
+    public CharView viewRest() {
+        return view(cursor,input.length());
     }
 
     public void setCursor(int cursor) {
@@ -0,0 +1,155 @@
+package com.shinybunny.cmdapi.utils;
+
+import java.util.Arrays;
+
+/**
+ * A case-insensitive prefix tree from names to values, for completing a partly typed name.<br/>
+ * Finding the names starting with a prefix only walks down the characters of the prefix, and then visits just the names under it,
+ * in alphabetical order (ignoring case), so a name always comes before the longer names it's a prefix of.
+ * Like {@link AliasIndex}, a prefix is matched straight out of the raw input, without cutting a substring first.
+ * @param <V> the type of value mapped by each name
+ */
+public class PrefixTrie<V> {
+
+    /**
+     * Receives the names found by {@link #visit(CharSequence, int, int, Visitor)}.
+     */
+    @FunctionalInterface
+    public interface Visitor<V> {
+
+        /**
+         * @param key The name, in the case it was put with
+         * @param value The value mapped to it
+         * @return false to stop visiting more names
+         */
+        boolean visit(String key, V value);
+    }
+
+    private final Node<V> root = new Node<>();
+    private int size;
+
+    /**
+     * Maps the name to the value, replacing the current value of the name if it already exists.
+     * @param key The name to map
+     * @param value The value to map it to. Can't be <code>null</code>.
+     * @return The value previously mapped to that name, or <code>null</code> if there was none.
+     */
+    public V put(String key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        Node<V> node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.child(fold(key.charAt(i)), true);
+        }
+        V old = node.value;
+        node.key = key;
+        node.value = value;
+        if (old == null) {
+            size++;
+        }
+        return old;
+    }
+
+    /**
+     * Removes a name, ignoring case.
+     * @return The value that was mapped to the name, or <code>null</code> if there was none.
+     */
+    public V remove(CharSequence key) {
+        Node<V> node = find(key, 0, key.length());
+        if (node == null || node.value == null) return null;
+        V old = node.value;
+        node.key = null;
+        node.value = null;
+        size--;
+        // empty nodes are left in place, they are skipped when visiting
+        return old;
+    }
+
+    /**
+     * Gets the value mapped to the name, ignoring case.
+     * @return The mapped value, or <code>null</code> if none found.
+     */
+    public V get(CharSequence key) {
+        Node<V> node = find(key, 0, key.length());
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Visits all names starting with the prefix found in the given range of characters, ignoring case.
+     * @param input The characters holding the prefix, for example a whole command input string
+     * @param start The index of the first character of the prefix
+     * @param end The index after the last character of the prefix
+     * @param visitor Called with each name in order, until it returns false
+     */
+    public void visit(CharSequence input, int start, int end, Visitor<V> visitor) {
+        Node<V> node = find(input, start, end);
+        if (node != null) {
+            visit(node, visitor);
+        }
+    }
+
+    private static <V> boolean visit(Node<V> node, Visitor<V> visitor) {
+        if (node.value != null && !visitor.visit(node.key, node.value)) {
+            return false;
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            if (!visit(node.children[i], visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Node<V> find(CharSequence input, int start, int end) {
+        Node<V> node = root;
+        for (int i = start; i < end && node != null; i++) {
+            node = node.child(fold(input.charAt(i)), false);
+        }
+        return node;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static char fold(char c) {
+        // the same folding as AliasIndex, so both agree on what a match is
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static final class Node<V> {
+        private char[] chars = new char[0];
+        private Node<V>[] children = newArray(0);
+        private int childCount;
+        private String key;
+        private V value;
+
+        /**
+         * Finds the child of a character, keeping the children sorted by their characters.
+         */
+        Node<V> child(char c, boolean create) {
+            int i = Arrays.binarySearch(chars, 0, childCount, c);
+            if (i >= 0) return children[i];
+            if (!create) return null;
+            i = -i - 1;
+            if (childCount == chars.length) {
+                int capacity = Math.max(2, childCount * 2);
+                chars = Arrays.copyOf(chars, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(chars, i, chars, i + 1, childCount - i);
+            System.arraycopy(children, i, children, i + 1, childCount - i);
+            Node<V> child = new Node<>();
+            chars[i] = c;
+            children[i] = child;
+            childCount++;
+            return child;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> Node<V>[] newArray(int length) {
+            return (Node<V>[]) new Node<?>[length];
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.AnnotationAdapter;
+import com.shinybunny.cmdapi.annotations.Range;
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.arguments.ArgumentAdapter;
+import com.shinybunny.cmdapi.arguments.ParameterArgument;
+import com.shinybunny.cmdapi.utils.InputReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Argument adapters resolved to the adapter of the closest registered supertype, and resolved again once another adapter is registered.
+ */
+class AdapterResolutionTest {
+
+    interface Named {
+    }
+
+    static class Animal {
+    }
+
+    static class Dog extends Animal implements Named {
+    }
+
+    static class Puppy extends Dog {
+    }
+
+    static class Robot implements Named {
+    }
+
+    /**
+     * Reads a word, and creates a value of its type for it
+     */
+    static class WordAdapter<T> implements ArgumentAdapter<T> {
+
+        private final Class<T> type;
+
+        WordAdapter(Class<T> type) {
+            this.type = type;
+        }
+
+        @Override
+        public Class<T> getType() {
+            return type;
+        }
+
+        @Override
+        public T parse(InputReader reader, Argument arg, CommandContext ctx) {
+            reader.readWord();
+            try {
+                return type.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private CommandManager manager;
+    private final WordAdapter<Animal> animals = new WordAdapter<>(Animal.class);
+    private final WordAdapter<Named> names = new WordAdapter<>(Named.class);
+
+    @BeforeEach
+    void setup() {
+        manager = new CommandManager();
+        manager.registerArgumentAdapter(names);
+        manager.registerArgumentAdapter(animals);
+    }
+
+    @Test
+    void closestSupertype() {
+        assertSame(animals, manager.getArgumentAdapter(Animal.class));
+        // a superclass wins over an interface at the same distance, whatever order they were registered in
+        assertSame(animals, manager.getArgumentAdapter(Dog.class));
+        assertSame(animals, manager.getArgumentAdapter(Puppy.class));
+        assertSame(names, manager.getArgumentAdapter(Robot.class));
+        assertNull(manager.getArgumentAdapter(Thread.class));
+        // primitives and their wrappers share an adapter
+        assertNotNull(manager.getArgumentAdapter(int.class));
+        assertSame(manager.getArgumentAdapter(Integer.class), manager.getArgumentAdapter(int.class));
+    }
+
+    @Test
+    void resolvedAgainAfterRegistering() throws Exception {
+        assertSame(animals, manager.getArgumentAdapter(Puppy.class));
+        WordAdapter<Dog> dogs = new WordAdapter<>(Dog.class);
+        manager.registerArgumentAdapter(dogs);
+        assertSame(dogs, manager.getArgumentAdapter(Puppy.class));
+        assertSame(animals, manager.getArgumentAdapter(Animal.class));
+
+        DynamicCommand adopt = manager.createCommand("adopt").argument("pet", Puppy.class).build(ctx -> ctx.get("pet").getClass().getSimpleName());
+        assertSame(dogs, adopt.getArguments().get(0).getAdapter());
+        assertEquals("Dog", manager.parse(new TestSender(), "adopt rex").execute().getMessage());
+    }
+
+    @Test
+    void annotationAdaptersReplaced() throws Exception {
+        AnnotationAdapter<Range> builtin = manager.getAnnotationAdapter(Range.class);
+        assertNotNull(builtin);
+        AnnotationAdapter<Range> lenient = new AnnotationAdapter<Range>() {
+            @Override
+            public Class<Range> getAnnotationType() {
+                return Range.class;
+            }
+
+            @Override
+            public Object process(Object value, Range annotation, ParameterArgument arg, CommandContext ctx) {
+                return value;
+            }
+        };
+        manager.registerAnnotationAdapter(lenient);
+        assertSame(lenient, manager.getAnnotationAdapter(Range.class));
+    }
+}
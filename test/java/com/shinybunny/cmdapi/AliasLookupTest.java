@@ -0,0 +1,115 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.Command;
+import com.shinybunny.cmdapi.exceptions.DuplicateAliasException;
+import com.shinybunny.cmdapi.utils.AliasIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Commands looked up by their name or aliases ignoring case, and aliases that collide rejected when registering.
+ */
+class AliasLookupTest {
+
+    public static class Bank {
+
+        @Command(aliases = {"bal", "Money"})
+        public int balance() {
+            return 100;
+        }
+
+        public int pay(int amount) {
+            return amount;
+        }
+    }
+
+    /**
+     * Its alias only differs in case from the name of {@link Bank#pay}
+     */
+    public static class Shop {
+
+        public int buy(int amount) {
+            return amount;
+        }
+
+        @Command(aliases = "PAY")
+        public int sell(int amount) {
+            return -amount;
+        }
+    }
+
+    private CommandManager manager;
+    private final TestSender sender = new TestSender();
+
+    @BeforeEach
+    void setup() throws Exception {
+        manager = new CommandManager();
+        manager.register(new Bank());
+    }
+
+    @Test
+    void ignoresCase() throws Exception {
+        CommandBase balance = manager.getCommand("balance");
+        assertSame(balance, manager.getCommand("BALANCE"));
+        assertSame(balance, manager.getCommand("Bal"));
+        assertSame(balance, manager.getCommand("money"));
+        assertNull(manager.getCommand("bank"));
+        // straight out of the input, without cutting the alias out of it
+        assertSame(balance, manager.getCommand("/MONEY now", 1, 6));
+        assertNull(manager.getCommand("/MONEY now", 1, 4));
+        assertEquals(100, manager.parse(sender, "BaL").execute().result());
+        assertEquals(7, manager.parse(sender, "PAY 7").execute().result());
+    }
+
+    @Test
+    void collisionsRejected() throws Exception {
+        DuplicateAliasException e = assertThrows(DuplicateAliasException.class, () -> manager.register(new Shop()));
+        assertEquals("PAY", e.getAlias());
+        assertSame(manager.getCommand("pay"), e.getExisting());
+        assertEquals("sell", e.getCommand().getName());
+        // none of the holder's commands were registered, even the ones that don't collide
+        assertNull(manager.getCommand("buy"));
+        assertEquals(2, manager.getCommands().size());
+
+        assertThrows(DuplicateAliasException.class, () -> manager.createCommand("Money").build(ctx -> 0));
+        DuplicateAliasException alias = assertThrows(DuplicateAliasException.class, () -> manager.createCommand("cash").aliases("cash", "BAL").build(ctx -> 0));
+        assertEquals("BAL", alias.getAlias());
+        assertNull(manager.getCommand("cash"));
+    }
+
+    @Test
+    void collisionsWithinOneCommand() throws Exception {
+        // a command can repeat its own name as an alias, but two new commands can't share one
+        manager.createCommand("deposit").aliases("DEPOSIT", "dep").build(ctx -> 1);
+        assertEquals(1, manager.parse(sender, "Dep").execute().result());
+        assertThrows(DuplicateAliasException.class, () -> manager.addCommands(Arrays.asList(
+                new DynamicCommand(manager, "withdraw", Collections.emptyList(), ctx -> 0),
+                new DynamicCommand(manager, "WITHDRAW", Collections.emptyList(), ctx -> 0))));
+        assertNull(manager.getCommand("withdraw"));
+    }
+
+    @Test
+    void indexGrowsAndIgnoresCase() {
+        AliasIndex<Integer> index = new AliasIndex<>(1);
+        for (int i = 0; i < 100; i++) {
+            assertNull(index.put("alias" + i, i));
+        }
+        assertEquals(100, index.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, index.get("ALIAS" + i));
+        }
+        assertEquals(42, index.put("Alias42", -42));
+        assertEquals(-42, index.get("alias42"));
+        assertEquals(7, index.get("run alias7 now", 4, 10));
+        assertNull(index.get("alias"));
+        assertThrows(NullPointerException.class, () -> index.put("none", null));
+    }
+}
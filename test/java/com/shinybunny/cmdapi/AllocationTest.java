@@ -0,0 +1,132 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.Arg;
+import com.shinybunny.cmdapi.annotations.MultiWord;
+import com.shinybunny.cmdapi.test.Commands;
+import com.shinybunny.cmdapi.utils.CommandResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Fails when parsing and executing a reference command allocates more bytes than its budget in <code>allocation-budgets.properties</code>.<br/>
+ * Each scenario is warmed up so the JIT has compiled the hot path, then measured over many commands with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}.
+ * A measurement can be spoiled by a late compilation, so a scenario passes if any of a few measurements is within the budget.
+ * <br/>
+ * The budget of a scenario is the bytes recorded for it plus the headroom of the file. The bytes are only meaningful on the JVM they were recorded on,
+ * so the test is skipped on any other.
+ * When a change intentionally allocates more, record the new bytes in the same change.
+ */
+class AllocationTest {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 20_000;
+    private static final int ROUNDS = 5;
+
+    public static class AllocationCommands {
+
+        public CommandResult ping(Sender sender) {
+            return CommandResult.success;
+        }
+
+        public CommandResult say(Sender sender, @Arg("message") @MultiWord String message) {
+            sender.sendMessage(message);
+            return CommandResult.success;
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static CommandManager manager;
+    private static Properties budgets;
+    private static int headroom;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "the JVM can't measure allocated bytes");
+        budgets = new Properties();
+        try (InputStream in = AllocationTest.class.getResourceAsStream("allocation-budgets.properties")) {
+            assertNotNull(in, "allocation-budgets.properties is missing");
+            budgets.load(in);
+        }
+        assumeRecordedOn("java.specification.version", System.getProperty("java.specification.version"));
+        assumeRecordedOn("java.vm.name", System.getProperty("java.vm.name"));
+        assumeRecordedOn("UseCompressedOops", vmOption("UseCompressedOops"));
+        headroom = Integer.parseInt(budgets.getProperty("headroom", "0").trim());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        manager = new CommandManager();
+        manager.register(new Commands());
+        manager.register(new Commands.CoinsCommand());
+        manager.register(new AllocationCommands());
+    }
+
+    private static void assumeRecordedOn(String key, String actual) {
+        String recorded = budgets.getProperty("recorded." + key);
+        assumeTrue(Objects.equals(recorded, actual), () -> "the budgets were recorded with " + key + "=" + recorded + ", not " + actual);
+    }
+
+    /**
+     * @return The value of a HotSpot VM option, or <code>null</code> if the JVM has no such option
+     */
+    private static String vmOption(String name) {
+        try {
+            return ManagementFactory.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class).getVMOption(name).getValue();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Test
+    void noArguments() throws Exception {
+        assertWithinBudget("noArguments", "ping");
+    }
+
+    @Test
+    void dice() throws Exception {
+        assertWithinBudget("dice", "dice 1 6 2");
+    }
+
+    @Test
+    void coinsAdd() throws Exception {
+        assertWithinBudget("coinsAdd", "coins add 5");
+    }
+
+    @Test
+    void multiWord() throws Exception {
+        assertWithinBudget("multiWord", "say hello there general kenobi");
+    }
+
+    private static void assertWithinBudget(String scenario, String input) throws Exception {
+        String value = budgets.getProperty(scenario);
+        assertNotNull(value, "no budget for " + scenario);
+        long recorded = Long.parseLong(value.trim());
+        long budget = recorded + recorded * headroom / 100;
+        for (int i = 0; i < WARMUP; i++) {
+            manager.parse(SilentSender.INSTANCE, input).execute();
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS && best > budget; round++) {
+            best = Math.min(best, bytesPerCommand(input));
+        }
+        long measured = best;
+        assertTrue(measured <= budget, () -> "'" + input + "' allocated " + measured + " bytes per command, over its budget of " + budget
+                + " (" + recorded + " recorded, plus " + headroom + "%)");
+    }
+
+    private static long bytesPerCommand(String input) throws Exception {
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ITERATIONS; i++) {
+            manager.parse(SilentSender.INSTANCE, input).execute();
+        }
+        return (threads.getThreadAllocatedBytes(thread) - before) / ITERATIONS;
+    }
+}
@@ -0,0 +1,139 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.AnnotationAdapter;
+import com.shinybunny.cmdapi.annotations.Default;
+import com.shinybunny.cmdapi.annotations.Optional;
+import com.shinybunny.cmdapi.annotations.Range;
+import com.shinybunny.cmdapi.arguments.ParameterArgument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Annotation adapters bound to the annotations of an argument, processing its values in the order of their priority.
+ */
+class AnnotationAdapterTest {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.PARAMETER)
+    @interface Early {
+        String value();
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.PARAMETER)
+    @interface Late {
+        String value();
+    }
+
+    static class EarlyAdapter implements AnnotationAdapter<Early> {
+
+        @Override
+        public Class<Early> getAnnotationType() {
+            return Early.class;
+        }
+
+        @Override
+        public Object process(Object value, Early annotation, ParameterArgument arg, CommandContext ctx) {
+            return value + annotation.value();
+        }
+
+        @Override
+        public int priority() {
+            return -1;
+        }
+    }
+
+    static class LateAdapter implements AnnotationAdapter<Late> {
+
+        @Override
+        public Class<Late> getAnnotationType() {
+            return Late.class;
+        }
+
+        @Override
+        public Object process(Object value, Late annotation, ParameterArgument arg, CommandContext ctx) {
+            return value + annotation.value();
+        }
+
+        @Override
+        public int priority() {
+            return 1;
+        }
+    }
+
+    public static class Holder {
+
+        public String tag(@Late("-late") @Early("-early") String word) {
+            return word;
+        }
+
+        public int limit(@Range(min = 1, max = 5) @Default(number = 9) int first, @Default(number = 3) @Range(min = 1, max = 5) int second) {
+            return first + second;
+        }
+
+        public int maybe(@Optional Integer value) {
+            return value == null ? -1 : value;
+        }
+    }
+
+    private CommandManager manager;
+    private final TestSender sender = new TestSender();
+
+    @BeforeEach
+    void setup() throws Exception {
+        manager = new CommandManager();
+        manager.registerAnnotationAdapter(new EarlyAdapter());
+        manager.registerAnnotationAdapter(new LateAdapter());
+        manager.register(new Holder());
+    }
+
+    private ParameterArgument argument(String cmd, int index) {
+        return (ParameterArgument) manager.getCommand(cmd).getArguments().get(index);
+    }
+
+    @Test
+    void processedByPriority() throws Exception {
+        // declared late first, but the early adapter has the lower priority
+        assertEquals("word-early-late", manager.parse(sender, "tag word").execute().getMessage());
+        ParameterArgument word = argument("tag", 0);
+        assertEquals(Arrays.asList(manager.getAnnotationAdapter(Early.class), manager.getAnnotationAdapter(Late.class)), word.getProcessors());
+    }
+
+    @Test
+    void defaultsAreValidated() throws Exception {
+        // the default comes first in either order of declaration, so the range validates it
+        assertEquals(ParseOutcome.Error.INVALID_ARGUMENT, manager.tryParse(sender, "limit").getError());
+        assertEquals(7, manager.parse(sender, "limit 4").execute().result());
+        assertEquals(ParseOutcome.Error.INVALID_ARGUMENT, manager.tryParse(sender, "limit 4 6").getError());
+    }
+
+    @Test
+    void boundAnnotations() throws Exception {
+        ParameterArgument first = argument("limit", 0);
+        Range range = first.getAnnotation(Range.class);
+        assertEquals(5, range.max());
+        assertEquals(9, first.getDefaultValue());
+        assertSame(manager.getAnnotationAdapter(Range.class), first.getAnnotationAdapter(Range.class));
+        assertTrue(first.hasAnnotation(Default.class));
+        assertNull(first.getAnnotation(Optional.class));
+        assertNull(first.getAnnotationAdapter(Optional.class));
+
+        ParameterArgument value = argument("maybe", 0);
+        assertFalse(value.isRequired());
+        // the optional adapter processes no values
+        assertTrue(value.getProcessors().isEmpty());
+        assertEquals(-1, manager.parse(sender, "maybe").execute().result());
+    }
+}
@@ -0,0 +1,120 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.exceptions.CommandExecutionException;
+import com.shinybunny.cmdapi.exceptions.UnknownCommandException;
+import com.shinybunny.cmdapi.utils.CommandResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ParseResults#executeAsync()} and {@link CommandManager#dispatchAsync(Sender, String)}, running commands on the calling thread
+ * and on the executor of the manager.
+ */
+class AsyncExecutionTest {
+
+    private ExecutorService executor;
+    private CommandManager manager;
+    private final TestSender sender = new TestSender();
+
+    @BeforeEach
+    void setup() {
+        executor = Executors.newSingleThreadExecutor();
+        manager = new CommandManager();
+        manager.setExecutor(executor);
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void syncCommandRunsOnCallingThread() throws Exception {
+        Thread caller = Thread.currentThread();
+        manager.createCommand("here").build(ctx -> Thread.currentThread() == caller ? CommandResult.success : CommandResult.fail);
+        CompletableFuture<CommandResult> future = manager.dispatchAsync(sender, "here");
+        assertTrue(future.isDone());
+        assertSame(CommandResult.success, future.get());
+    }
+
+    @Test
+    void asyncCommandRunsOnExecutor() throws Exception {
+        Thread caller = Thread.currentThread();
+        manager.createCommand("away").async().build(ctx -> Thread.currentThread() != caller ? CommandResult.success : CommandResult.fail);
+        assertSame(CommandResult.success, manager.dispatchAsync(sender, "away").get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void syncErrorCompletesFuture() throws Exception {
+        manager.createCommand("err").build(ctx -> {
+            throw new AssertionError("sync");
+        });
+        CompletableFuture<CommandResult> future = manager.dispatchAsync(sender, "err");
+        assertTrue(future.isCompletedExceptionally());
+        assertInstanceOf(AssertionError.class, cause(future));
+    }
+
+    @Test
+    void asyncErrorCompletesFuture() throws Exception {
+        manager.createCommand("err").async().build(ctx -> {
+            throw new AssertionError("async");
+        });
+        assertInstanceOf(AssertionError.class, cause(manager.dispatchAsync(sender, "err")));
+    }
+
+    @Test
+    void asyncExceptionCompletesFuture() throws Exception {
+        manager.createCommand("boom").async().build(ctx -> {
+            throw new IllegalStateException("boom");
+        });
+        Throwable cause = cause(manager.dispatchAsync(sender, "boom"));
+        assertInstanceOf(CommandExecutionException.class, cause);
+        assertInstanceOf(IllegalStateException.class, cause.getCause());
+    }
+
+    @Test
+    void parseErrorCompletesFuture() throws Exception {
+        assertInstanceOf(UnknownCommandException.class, cause(manager.dispatchAsync(sender, "nope")));
+    }
+
+    @Test
+    void rejectedExecutionCompletesFuture() throws Exception {
+        manager.createCommand("away").async().build(ctx -> CommandResult.success);
+        executor.shutdown();
+        CompletableFuture<CommandResult> future = manager.dispatchAsync(sender, "away");
+        assertTrue(future.isCompletedExceptionally());
+        assertInstanceOf(RejectedExecutionException.class, cause(future));
+    }
+
+    @Test
+    void resultsCanBeExecutedAsyncManyTimes() throws Exception {
+        manager.createCommand("count").async().build(ctx -> CommandResult.success);
+        ParseResults results = manager.parse(sender, "count");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(CommandResult.success, results.executeAsync().get(2, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Waits for a future expected to complete exceptionally.
+     * @return The exception it was completed with
+     */
+    private static Throwable cause(CompletableFuture<CommandResult> future) throws Exception {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+}
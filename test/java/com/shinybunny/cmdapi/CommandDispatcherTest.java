@@ -0,0 +1,157 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.utils.CommandResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link CommandDispatcher} running the commands of each key in order and one at a time, with many producers dispatching at once.
+ */
+class CommandDispatcherTest {
+
+    private static final int PRODUCERS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final int KEYS_PER_PRODUCER = 8;
+    private static final int COMMANDS_PER_KEY = 500;
+
+    private ExecutorService executor;
+    private CommandManager manager;
+    /**
+     * The sequence numbers each key's commands ran with, in the order they ran
+     */
+    private final Map<String, List<Integer>> ran = new ConcurrentHashMap<>();
+    /**
+     * The number of commands of each key running at the moment
+     */
+    private final Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+    private final AtomicInteger overlaps = new AtomicInteger();
+
+    @BeforeEach
+    void setup() throws Exception {
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        manager = new CommandManager();
+        manager.createCommand("record").argument("key", String.class).argument("seq", Integer.class).build(ctx -> {
+            String key = ctx.get("key");
+            AtomicInteger count = running.computeIfAbsent(key, k -> new AtomicInteger());
+            if (count.incrementAndGet() > 1) {
+                overlaps.incrementAndGet();
+            }
+            ran.computeIfAbsent(key, k -> new ArrayList<>()).add(ctx.getInt("seq"));
+            count.decrementAndGet();
+            return CommandResult.success;
+        });
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void keepsOrderPerKey() throws Exception {
+        // fewer shards than keys, so keys share shards
+        CommandDispatcher dispatcher = new CommandDispatcher(manager, executor, 4);
+        List<CompletableFuture<CommandResult>> futures = produce(dispatcher);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+        assertEquals(0, overlaps.get(), "commands of the same key ran at the same time");
+        assertEquals(PRODUCERS * KEYS_PER_PRODUCER, ran.size());
+        for (Map.Entry<String, List<Integer>> e : ran.entrySet()) {
+            List<Integer> seqs = e.getValue();
+            assertEquals(COMMANDS_PER_KEY, seqs.size(), e.getKey());
+            for (int i = 0; i < seqs.size(); i++) {
+                assertEquals(i, (int) seqs.get(i), () -> e.getKey() + " ran out of order: " + seqs);
+            }
+        }
+        long total = (long) PRODUCERS * KEYS_PER_PRODUCER * COMMANDS_PER_KEY;
+        assertEquals(total, dispatcher.getDispatchedCount());
+        assertEquals(total, dispatcher.getSucceededCount());
+        assertEquals(0, dispatcher.getFailedCount());
+        assertEquals(0, dispatcher.getPendingCount());
+    }
+
+    @Test
+    void failuresDontStopTheKey() throws Exception {
+        CommandDispatcher dispatcher = new CommandDispatcher(manager, executor, 1);
+        CompletableFuture<CommandResult> bad = dispatcher.dispatch("k", new TestSender(), "nope");
+        CompletableFuture<CommandResult> good = dispatcher.dispatch("k", new TestSender(), "record k 0");
+        assertEquals(CommandResult.success, good.get(10, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> bad.get(10, TimeUnit.SECONDS));
+        assertEquals(1, dispatcher.getFailedCount());
+        assertEquals(1, dispatcher.getSucceededCount());
+    }
+
+    @Test
+    void rejectedInputsComplete() throws Exception {
+        // every input must fail instead of hanging, including ones queued while another producer drains the shard
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("shut down");
+        };
+        for (int round = 0; round < 20; round++) {
+            CommandDispatcher dispatcher = new CommandDispatcher(manager, rejecting, 1);
+            List<CompletableFuture<CommandResult>> futures = produce(dispatcher);
+            for (CompletableFuture<CommandResult> future : futures) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(RejectedExecutionException.class, e.getCause());
+            }
+            assertEquals(futures.size(), dispatcher.getFailedCount());
+        }
+        assertTrue(ran.isEmpty());
+    }
+
+    /**
+     * Starts all producers together, each dispatching the commands of its own keys in order, interleaving the keys.
+     * @return The futures of all dispatched commands, once all producers are done
+     */
+    private static List<CompletableFuture<CommandResult>> produce(CommandDispatcher dispatcher) throws InterruptedException {
+        List<CompletableFuture<CommandResult>> futures = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            List<CompletableFuture<CommandResult>> own = new ArrayList<>();
+            Thread thread = new Thread(() -> {
+                TestSender sender = new TestSender();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int seq = 0; seq < COMMANDS_PER_KEY; seq++) {
+                    for (int k = 0; k < KEYS_PER_PRODUCER; k++) {
+                        String key = producer + "-" + k;
+                        own.add(dispatcher.dispatch(key, sender, "record " + key + " " + seq));
+                    }
+                }
+                synchronized (futures) {
+                    futures.addAll(own);
+                }
+            });
+            thread.start();
+            producers.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        return futures;
+    }
+}
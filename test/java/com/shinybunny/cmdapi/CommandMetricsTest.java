@@ -0,0 +1,242 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.Command;
+import com.shinybunny.cmdapi.annotations.Range;
+import com.shinybunny.cmdapi.exceptions.CommandExecutionException;
+import com.shinybunny.cmdapi.metrics.CommandMetrics;
+import com.shinybunny.cmdapi.metrics.CommandStatsSnapshot;
+import com.shinybunny.cmdapi.utils.CommandResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link CommandMetrics} counting successful and failed executions, thrown exceptions by type, parse errors and permission denials
+ * for each command and sub command, and exposing them over JMX.
+ */
+class CommandMetricsTest {
+
+    public static class Shop {
+
+        public boolean buy(Sender sender, @Range(min = 1, max = 64) int amount) {
+            // more than the stock fails
+            return amount <= 10;
+        }
+
+        @Command(permission = "shop.sell")
+        public void sell(Sender sender) {
+        }
+    }
+
+    @Command(name = "coins")
+    public static class Coins {
+
+        public void add(Sender sender, int amount) {
+        }
+    }
+
+    /**
+     * A command throwing whatever it's told to.
+     */
+    private static class Exploding extends CommandBase {
+
+        private Throwable next;
+
+        Exploding(CommandManager manager) {
+            super(manager, "explode");
+        }
+
+        @Override
+        public CommandResult run(CommandContext ctx) throws CommandExecutionException {
+            if (next instanceof CommandExecutionException) {
+                throw (CommandExecutionException) next;
+            } else if (next instanceof RuntimeException) {
+                throw (RuntimeException) next;
+            }
+            throw (Error) next;
+        }
+
+        @Override
+        public void validateUse(CommandContext ctx) {
+        }
+    }
+
+    private CommandManager manager;
+    private CommandMetrics metrics;
+    private Exploding exploding;
+    private final TestSender sender = new TestSender();
+
+    @BeforeEach
+    void setup() throws Exception {
+        manager = new CommandManager();
+        manager.register(new Shop());
+        manager.register(new Coins());
+        exploding = new Exploding(manager);
+        manager.addCommand(exploding);
+        metrics = manager.getMetrics();
+        metrics.setEnabled(true);
+    }
+
+    private CommandResult run(String input) throws Exception {
+        return manager.parse(sender, input).execute();
+    }
+
+    @Test
+    void disabledRecordsNothing() throws Exception {
+        metrics.setEnabled(false);
+        run("buy 1");
+        manager.tryParse(sender, "buy");
+        assertTrue(metrics.getCommands().isEmpty());
+        assertNull(metrics.getCommand("buy"));
+        assertEquals(0, metrics.getTotalInvocations());
+    }
+
+    @Test
+    void successesAndFailures() throws Exception {
+        run("buy 1");
+        run("buy 10");
+        assertFalse(run("buy 11").success());
+        CommandStatsSnapshot buy = metrics.getCommand("buy");
+        assertEquals("buy", buy.getName());
+        assertEquals(3, buy.getInvocations());
+        assertEquals(2, buy.getSuccesses());
+        assertEquals(1, buy.getFailures());
+        assertEquals(3, buy.getParseTime().getCount());
+        assertEquals(3, buy.getExecutionTime().getCount());
+        assertTrue(buy.getExceptions().isEmpty());
+        for (long count : buy.getParseErrors().values()) {
+            assertEquals(0, count);
+        }
+        assertEquals(3, metrics.getTotalInvocations());
+    }
+
+    @Test
+    void exceptionsByType() throws Exception {
+        Throwable[] thrown = {
+                new CommandExecutionException(new IOException()), new CommandExecutionException(new IOException()),
+                new IllegalStateException(), new AssertionError()
+        };
+        for (Throwable t : thrown) {
+            exploding.next = t;
+            Throwable caught = assertThrows(Throwable.class, () -> run("explode"));
+            assertSame(t, caught);
+        }
+        CommandStatsSnapshot explode = metrics.getCommand("explode");
+        Map<String, Long> expected = new HashMap<>();
+        expected.put(CommandExecutionException.class.getName(), 2L);
+        expected.put(IllegalStateException.class.getName(), 1L);
+        expected.put(AssertionError.class.getName(), 1L);
+        assertEquals(expected, explode.getExceptions());
+        assertEquals(4, explode.getInvocations());
+        assertEquals(0, explode.getSuccesses());
+        assertEquals(0, explode.getFailures());
+    }
+
+    @Test
+    void parseErrorsAndDenials() throws Exception {
+        assertFalse(manager.tryParse(sender, "buy").isSuccess());
+        assertFalse(manager.tryParse(sender, "buy x").isSuccess());
+        assertFalse(manager.tryParse(sender, "buy 0").isSuccess());
+        assertFalse(manager.tryParse(sender, "buy 100").isSuccess());
+        assertFalse(manager.tryParse(new TestSender("shop.buy"), "sell").isSuccess());
+        assertFalse(manager.tryParse(new TestSender("shop.buy"), "sell").isSuccess());
+        run("sell");
+        // no command to record an unknown command for
+        manager.tryParse(sender, "nope");
+
+        CommandStatsSnapshot buy = metrics.getCommand("buy");
+        assertEquals(1L, buy.getParseErrors().get("MISSING_ARGUMENT"));
+        assertEquals(1L, buy.getParseErrors().get("PARSE_ERROR"));
+        assertEquals(2L, buy.getParseErrors().get("INVALID_ARGUMENT"));
+        assertEquals(0, buy.getPermissionDenials());
+        assertEquals(4, buy.getParseTime().getCount());
+        assertEquals(0, buy.getInvocations());
+
+        CommandStatsSnapshot sell = metrics.getCommand("sell");
+        assertEquals(2, sell.getPermissionDenials());
+        assertEquals(2L, sell.getParseErrors().get("NO_PERMISSION"));
+        assertEquals(3, sell.getParseTime().getCount());
+        assertEquals(1, sell.getInvocations());
+        assertEquals(1, sell.getSuccesses());
+        assertEquals(Arrays.asList("buy", "sell"), Arrays.asList(metrics.getCommands().keySet().toArray()));
+    }
+
+    @Test
+    void subCommandsHaveTheirOwnMetrics() throws Exception {
+        run("coins add 5");
+        run("coins add 6");
+        assertFalse(manager.tryParse(sender, "coins steal").isSuccess());
+        CommandStatsSnapshot add = metrics.getCommand("coins add");
+        assertEquals(2, add.getInvocations());
+        assertEquals(2, add.getSuccesses());
+        assertEquals(2, add.getParseTime().getCount());
+        CommandStatsSnapshot coins = metrics.getCommand("coins");
+        assertEquals(0, coins.getInvocations());
+        assertEquals(1L, coins.getParseErrors().get("PARSE_ERROR"));
+    }
+
+    @Test
+    void reset() throws Exception {
+        run("buy 1");
+        run("coins add 5");
+        assertEquals(2, metrics.getTotalInvocations());
+        metrics.reset();
+        assertTrue(metrics.getCommands().isEmpty());
+        assertEquals(0, metrics.getTotalInvocations());
+        run("buy 2");
+        assertEquals(1, metrics.getCommand("buy").getInvocations());
+    }
+
+    @Test
+    void registerMBean() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.registerMBean();
+        try {
+            assertTrue(server.isRegistered(name));
+            assertThrows(IllegalStateException.class, () -> metrics.registerMBean());
+            run("buy 1");
+            run("buy 20");
+            run("coins add 5");
+            assertEquals(true, server.getAttribute(name, "Enabled"));
+            assertEquals(3L, server.getAttribute(name, "TotalInvocations"));
+            TabularData commands = (TabularData) server.getAttribute(name, "Commands");
+            assertEquals(2, commands.size());
+            CompositeData buy = (CompositeData) commands.get(new Object[]{"buy"}).get("value");
+            assertEquals("buy", buy.get("name"));
+            assertEquals(2L, buy.get("invocations"));
+            assertEquals(1L, buy.get("successes"));
+            assertEquals(1L, buy.get("failures"));
+            assertNotNull(commands.get(new Object[]{"coins add"}));
+
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, server.getAttribute(name, "TotalInvocations"));
+            server.setAttribute(name, new Attribute("Enabled", false));
+            assertFalse(metrics.isEnabled());
+        } finally {
+            metrics.unregisterMBean();
+        }
+        assertFalse(server.isRegistered(name));
+        // can be registered again once unregistered
+        metrics.unregisterMBean();
+        assertEquals(name, metrics.registerMBean());
+        metrics.unregisterMBean();
+    }
+}
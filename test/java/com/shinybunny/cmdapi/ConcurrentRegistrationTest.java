@@ -0,0 +1,161 @@
+package com.shinybunny.cmdapi;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Inputs parsed while other threads register and unregister commands, always against one consistent {@link CommandRegistry} snapshot.
+ */
+class ConcurrentRegistrationTest {
+
+    public static class Ping {
+
+        public int ping(int value) {
+            return value;
+        }
+    }
+
+    public static class Flip {
+
+        public int flip(int value) {
+            return -value;
+        }
+    }
+
+    public static class Alpha {
+
+        public int alpha(int value) {
+            return value + 1;
+        }
+    }
+
+    public static class Beta {
+
+        public int beta(int value) {
+            return value + 2;
+        }
+    }
+
+    private CommandManager manager;
+    private final TestSender sender = new TestSender();
+
+    @BeforeEach
+    void setup() throws Exception {
+        manager = new CommandManager();
+        manager.register(new Ping());
+    }
+
+    @Test
+    void parseWhileRegistering() throws Exception {
+        int readers = 4;
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch writersDone = new CountDownLatch(2);
+        List<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(() -> {
+            try {
+                start.await();
+                for (int round = 0; round < 500; round++) {
+                    Flip flip = new Flip();
+                    manager.register(flip);
+                    assertTrue(manager.unregister(flip));
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                writersDone.countDown();
+            }
+        }));
+        threads.add(new Thread(() -> {
+            try {
+                start.await();
+                for (int round = 0; round < 500; round++) {
+                    Alpha alpha = new Alpha();
+                    Beta beta = new Beta();
+                    // published together in a single swap, and removed one by one, alpha first
+                    manager.registerAll(Arrays.asList(alpha, beta));
+                    assertTrue(manager.unregister(alpha));
+                    assertTrue(manager.unregister(beta));
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                writersDone.countDown();
+            }
+        }));
+        for (int r = 0; r < readers; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    while (writing.get()) {
+                        // the command nobody touches always parses
+                        assertEquals(3, manager.parse(sender, "ping 3").execute().result());
+                        assertChurned("flip 4", -4);
+                        assertChurned("alpha 4", 5);
+                        Set<String> names = new HashSet<>();
+                        for (CommandBase cmd : manager.getCommands()) {
+                            names.add(cmd.getName());
+                        }
+                        assertTrue(names.contains("ping"), names.toString());
+                        // alpha is never visible without beta
+                        assertTrue(!names.contains("alpha") || names.contains("beta"), names.toString());
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        assertTrue(writersDone.await(60, TimeUnit.SECONDS));
+        writing.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+        assertEquals(1, manager.getCommands().size());
+        assertNull(manager.getCommand("flip"));
+    }
+
+    /**
+     * Asserts that an input of a command that comes and goes either runs completely or finds no command at all.
+     */
+    private void assertChurned(String input, int expected) throws Exception {
+        ParseOutcome outcome = manager.tryParse(sender, input);
+        if (outcome.isSuccess()) {
+            assertEquals(expected, outcome.getResults().execute().result(), input);
+        } else {
+            assertEquals(ParseOutcome.Error.UNKNOWN_COMMAND, outcome.getError(), input);
+        }
+    }
+
+    @Test
+    void commandsAreSnapshots() throws Exception {
+        List<CommandBase> before = manager.getCommands();
+        Flip flip = new Flip();
+        manager.register(flip);
+        assertEquals(1, before.size());
+        assertEquals(2, manager.getCommands().size());
+        assertThrows(UnsupportedOperationException.class, () -> before.add(manager.getCommand("flip")));
+        manager.unregister(flip);
+        assertEquals(1, manager.getCommands().size());
+    }
+}
@@ -0,0 +1,87 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.Default;
+import com.shinybunny.cmdapi.arguments.EnumAdapter;
+import com.shinybunny.cmdapi.arguments.ParameterArgument;
+import com.shinybunny.cmdapi.exceptions.IncompatibleAnnotationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * <code>@</code>{@link Default} values resolved once when their command is registered, and invalid defaults rejected right then instead of on a parse.
+ */
+class DefaultValueTest {
+
+    public enum Color {
+        RED, GREEN
+    }
+
+    public static class Paint {
+
+        public String paint(@Default("green") Color color, @Default(number = 3.9) int coats, @Default(number = 2) long liters, @Default(bool = true) boolean dry) {
+            return color + " " + coats + " " + liters + " " + dry;
+        }
+
+        public String label(@Default("none") String text, @Default(number = 0.5) double gloss, @Default(number = 7) short size) {
+            return text + " " + gloss + " " + size;
+        }
+    }
+
+    public static class BadColor {
+
+        public String paint(@Default("purple") Color color) {
+            return color.name();
+        }
+
+        public int count(int amount) {
+            return amount;
+        }
+    }
+
+    public static class BadSender {
+
+        public String who(@Default("console") Sender sender) {
+            return "who";
+        }
+    }
+
+    private CommandManager manager;
+    private final TestSender sender = new TestSender();
+
+    @BeforeEach
+    void setup() throws Exception {
+        manager = new CommandManager();
+        manager.registerArgumentAdapter(new EnumAdapter());
+        manager.register(new Paint());
+    }
+
+    @Test
+    void resolvedAtRegistration() throws Exception {
+        ParameterArgument color = (ParameterArgument) manager.getCommand("paint").getArguments().get(0);
+        // matched ignoring case, and the same constant on every parse
+        assertSame(Color.GREEN, color.getDefaultValue());
+        assertEquals("GREEN 3 2 true", manager.parse(sender, "paint").execute().getMessage());
+        assertEquals("RED 1 2 true", manager.parse(sender, "paint RED 1").execute().getMessage());
+        assertEquals("none 0.5 7", manager.parse(sender, "label").execute().getMessage());
+        assertEquals("hi 0.5 7", manager.parse(sender, "label hi").execute().getMessage());
+    }
+
+    @Test
+    void invalidDefaultsRejected() {
+        IncompatibleAnnotationException e = assertThrows(IncompatibleAnnotationException.class, () -> manager.register(new BadColor()));
+        assertSame(Default.class, e.getFirst());
+        assertEquals("color", e.getArgument().getName());
+        // none of the holder's commands were registered
+        assertNull(manager.getCommand("count"));
+
+        e = assertThrows(IncompatibleAnnotationException.class, () -> manager.register(new BadSender()));
+        assertEquals("sender", e.getArgument().getName());
+        assertNull(manager.getCommand("who"));
+        assertEquals(2, manager.getCommands().size());
+    }
+}
@@ -0,0 +1,243 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.Arg;
+import com.shinybunny.cmdapi.annotations.Command;
+import com.shinybunny.cmdapi.annotations.Default;
+import com.shinybunny.cmdapi.annotations.DefaultSubCommand;
+import com.shinybunny.cmdapi.annotations.DontRegister;
+import com.shinybunny.cmdapi.annotations.MultiWord;
+import com.shinybunny.cmdapi.annotations.Optional;
+import com.shinybunny.cmdapi.annotations.Range;
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.arguments.SubCommandAdapter;
+import com.shinybunny.cmdapi.utils.CommandResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Registers the same holders through the {@link HolderRegistry} generated for them by the annotation processor, and by scanning them reflectively,
+ * and checks both give the same commands, which parse and run the same inputs the same way.
+ */
+class GeneratedRegistryTest {
+
+    public static class Shop {
+
+        public CommandResult buy(Sender sender, @Arg("item") String item,
+                                 @Default(number = 1) @Range(min = 1, max = 64) int amount,
+                                 @Optional Double price) {
+            sender.sendMessage("bought " + amount + " " + item + (price == null ? "" : " for " + price));
+            return CommandResult.result(amount);
+        }
+
+        @Command(name = "sell", aliases = {"s", "vend"}, permission = "shop.sell", noPermissionMessage = "Not a seller")
+        public String sellAll(Sender sender, @MultiWord String reason) {
+            return "sold because " + reason;
+        }
+
+        public boolean stock(Sender sender, long count, @Range(min = 0.5, max = 100) double ratio, @Default(bool = true) boolean restock) {
+            sender.sendMessage(count + " " + ratio + " " + restock);
+            return restock;
+        }
+
+        @DontRegister
+        public void helper() {
+        }
+
+        public static void util() {
+        }
+    }
+
+    @Command(name = "bank", aliases = "b")
+    public static class Bank {
+
+        public Bank() {
+        }
+
+        @DefaultSubCommand
+        public Bank(Sender sender) {
+            sender.sendMessage("balance");
+        }
+
+        public void deposit(Sender sender, @Range(min = 1) long amount) {
+            sender.sendMessage("deposited " + amount);
+        }
+
+        @Command(aliases = "w", async = true)
+        public void withdraw(Sender sender, @Arg("sum") @Range(min = 0.5, max = 100) double amount) {
+            sender.sendMessage("withdrew " + amount);
+        }
+    }
+
+    private static final List<String> INPUTS = Arrays.asList(
+            "buy apple", "buy apple 3", "buy apple 3 2.5", "buy apple 65", "buy apple 0", "buy apple x", "buy",
+            "sell it was too heavy", "s", "vend a", "sell",
+            "stock 10 0.75", "stock 10 0.75 false", "stock 10 200", "stock x 1", "stock 10",
+            "bank", "b deposit 5", "bank deposit 0", "bank w 50", "bank withdraw 0.1", "bank withdraw", "bank nope"
+    );
+
+    private CommandManager reflective;
+    private CommandManager generated;
+    private CommandManager lazy;
+
+    @BeforeEach
+    void setup() throws Exception {
+        reflective = new CommandManager();
+        scan(reflective, new Shop());
+        scan(reflective, new Bank());
+        generated = new CommandManager();
+        generated.register(new Shop());
+        generated.register(new Bank());
+        lazy = new CommandManager();
+        lazy.setLazyRegistration(true);
+        lazy.register(new Shop());
+        lazy.register(new Bank());
+    }
+
+    /**
+     * Registers the commands of a holder created by scanning its class, even though it has a generated registry.
+     */
+    private static void scan(CommandManager manager, Object holder) throws Exception {
+        Command tree = holder.getClass().getAnnotation(Command.class);
+        List<CommandBase> cmds = tree == null ? manager.createCommands(holder) : Collections.singletonList(new MethodCommand(manager, holder, tree));
+        for (CommandBase cmd : cmds) {
+            manager.addCommand(cmd);
+        }
+    }
+
+    @Test
+    void registriesAreGenerated() {
+        assertNotNull(HolderRegistry.of(Shop.class));
+        assertNotNull(HolderRegistry.of(Bank.class));
+        assertNull(HolderRegistry.of(GeneratedRegistryTest.class));
+    }
+
+    @Test
+    void generatedCommandsSkipReflection() {
+        for (CommandBase cmd : generated.getCommands()) {
+            MethodCommand method = (MethodCommand) cmd;
+            assertNull(method.getMethod(), cmd.getName());
+            if (method.isTree()) {
+                SubCommandAdapter subCommands = (SubCommandAdapter) cmd.getArguments().get(0).getAdapter();
+                for (MethodCommand sub : subCommands.getSubCommands()) {
+                    assertNull(sub.getMethod(), sub.getName());
+                }
+                assertNull(subCommands.getDefaultCommand().getMethod());
+            }
+        }
+    }
+
+    @Test
+    void sameCommands() {
+        assertEquals(describe(reflective.getCommands()), describe(generated.getCommands()));
+    }
+
+    @Test
+    void lazyCommandsHaveTheSameNames() {
+        for (CommandBase cmd : lazy.getCommands()) {
+            LazyCommand lazyCommand = assertInstanceOf(LazyCommand.class, cmd);
+            assertFalse(lazyCommand.isCreated());
+        }
+        assertEquals(reflective.getCommands().size(), lazy.getCommands().size());
+        for (CommandBase cmd : reflective.getCommands()) {
+            assertNotNull(lazy.getCommand(cmd.getName()), cmd.getName());
+            for (String alias : cmd.getAliases()) {
+                assertNotNull(lazy.getCommand(alias), alias);
+            }
+        }
+    }
+
+    @Test
+    void sameOutcomes() {
+        for (String input : INPUTS) {
+            String expected = run(reflective, input);
+            assertEquals(expected, run(generated, input), input);
+            assertEquals(expected, run(lazy, input), input);
+        }
+    }
+
+    @Test
+    void sameOutcomesWithoutPermission() {
+        for (String input : Arrays.asList("sell because", "s")) {
+            String expected = run(reflective, input, new TestSender("shop.buy"));
+            assertTrue(expected.contains("NO_PERMISSION"), expected);
+            assertEquals(expected, run(generated, input, new TestSender("shop.buy")), input);
+            assertEquals(expected, run(lazy, input, new TestSender("shop.buy")), input);
+        }
+    }
+
+    @Test
+    void rangeErrorsMatch() {
+        String expected = run(reflective, "buy apple 65");
+        assertTrue(expected.contains("INVALID_ARGUMENT"), expected);
+        assertTrue(expected.contains("amount value must be between 1.0 and 64.0!"), expected);
+        assertEquals(expected, run(generated, "buy apple 65"));
+    }
+
+    private static String run(CommandManager manager, String input) {
+        return run(manager, input, new TestSender("shop.sell"));
+    }
+
+    /**
+     * Parses and executes an input.
+     * @return A description of the outcome, the parsed values, the result and the messages sent
+     */
+    private static String run(CommandManager manager, String input, TestSender sender) {
+        ParseOutcome outcome = manager.tryParse(sender, input);
+        StringBuilder sb = new StringBuilder();
+        if (!outcome.isSuccess()) {
+            return sb.append(outcome.getError()).append(" at ").append(outcome.getCursor())
+                    .append(" of ").append(outcome.getArgument() == null ? null : outcome.getArgument().getName())
+                    .append(": ").append(outcome.getMessage()).toString();
+        }
+        for (ParseResults.Entry e : outcome.getResults().getValues()) {
+            Object value = e.getValue() instanceof CommandBase ? ((CommandBase) e.getValue()).getName() : e.getValue() instanceof Sender ? "sender" : e.getValue();
+            sb.append(e.getArgument().getName()).append('=').append(value).append(' ');
+        }
+        try {
+            CommandResult result = outcome.getResults().execute();
+            sb.append("-> ").append(result.success()).append(' ').append(result.result()).append(' ').append(result.getMessage());
+        } catch (Exception e) {
+            sb.append("-> ").append(e);
+        }
+        return sb.append(' ').append(sender.getMessages()).toString();
+    }
+
+    private static Map<String, String> describe(List<CommandBase> cmds) {
+        Map<String, String> map = new TreeMap<>();
+        for (CommandBase cmd : cmds) {
+            map.put(cmd.getName(), describe(cmd));
+        }
+        return map;
+    }
+
+    private static String describe(CommandBase cmd) {
+        StringBuilder sb = new StringBuilder(cmd.getName()).append(' ').append(cmd.getAliases())
+                .append(" async=").append(cmd.isAsync()).append(" noPermission=").append(cmd.getNoPermissionMessage()).append(" (");
+        for (Argument arg : cmd.getArguments()) {
+            sb.append(arg.getName()).append(':').append(arg.getType().getSimpleName())
+                    .append(" required=").append(arg.isRequired()).append(" syntax=").append(arg.isSyntax())
+                    .append(" default=").append(arg.getDefaultValue()).append(", ");
+            if (arg.getAdapter() instanceof SubCommandAdapter) {
+                SubCommandAdapter subCommands = (SubCommandAdapter) arg.getAdapter();
+                List<CommandBase> children = new ArrayList<>(subCommands.getSubCommands());
+                sb.append("children ").append(describe(children)).append(", ");
+                sb.append("default ").append(subCommands.getDefaultCommand() == null ? null : describe(subCommands.getDefaultCommand())).append(", ");
+            }
+        }
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.Command;
+import com.shinybunny.cmdapi.annotations.MultiWord;
+import com.shinybunny.cmdapi.exceptions.UnknownCommandException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link CommandManager#unregister(Object)} and {@link CommandManager#replace(Object, Object)}: inputs parsed before a replace keep running the old holder,
+ * and once nothing uses it anymore, the old holder can be garbage collected.
+ */
+class HotReloadTest {
+
+    public static class Greeter {
+
+        private final String greeting;
+
+        public Greeter(String greeting) {
+            this.greeting = greeting;
+        }
+
+        @Command(aliases = "hi")
+        public String greet(Sender sender, @MultiWord String name) {
+            return greeting + " " + name;
+        }
+    }
+
+    @Command(name = "shop")
+    public static class Shop {
+
+        private final int version;
+
+        public Shop(int version) {
+            this.version = version;
+        }
+
+        public int buy(Sender sender) {
+            return version;
+        }
+    }
+
+    private CommandManager manager;
+    private final TestSender sender = new TestSender();
+
+    @BeforeEach
+    void setup() {
+        manager = new CommandManager();
+    }
+
+    @Test
+    void replaceKeepsInFlightParses() throws Exception {
+        Greeter old = new Greeter("hello");
+        manager.register(old);
+        ParseResults parsedBefore = manager.parse(sender, "hi bob");
+        manager.replace(old, new Greeter("hey"));
+        assertEquals("hello bob", parsedBefore.execute().getMessage());
+        assertEquals("hey bob", manager.parse(sender, "greet bob").execute().getMessage());
+        assertFalse(manager.getRegistry().contains(old));
+        assertEquals(1, manager.getCommands().size());
+    }
+
+    @Test
+    void replaceTree() throws Exception {
+        Shop old = new Shop(1);
+        manager.register(old);
+        ParseResults parsedBefore = manager.parse(sender, "shop buy");
+        manager.replace(old, new Shop(2));
+        assertEquals(1, parsedBefore.execute().result());
+        assertEquals(2, manager.parse(sender, "shop buy").execute().result());
+    }
+
+    @Test
+    void unregister() throws Exception {
+        Greeter greeter = new Greeter("hello");
+        manager.register(greeter);
+        ParseResults parsedBefore = manager.parse(sender, "greet bob");
+        assertTrue(manager.unregister(greeter));
+        assertFalse(manager.unregister(greeter));
+        assertEquals("hello bob", parsedBefore.execute().getMessage());
+        assertThrows(UnknownCommandException.class, () -> manager.parse(sender, "greet bob"));
+        assertNull(manager.getCommand("hi"));
+    }
+
+    @Test
+    void replacedHolderIsCollected() throws Exception {
+        WeakReference<Greeter> old = registerAndReplace(false);
+        awaitCollected(old);
+        assertEquals("hey bob", manager.parse(sender, "hi bob").execute().getMessage());
+    }
+
+    @Test
+    void replacedHolderIsCollectedWithMetrics() throws Exception {
+        manager.getMetrics().setEnabled(true);
+        WeakReference<Greeter> old = registerAndReplace(false);
+        awaitCollected(old);
+    }
+
+    @Test
+    void replacedLazyHolderIsCollected() throws Exception {
+        manager.setLazyRegistration(true);
+        WeakReference<Greeter> old = registerAndReplace(false);
+        awaitCollected(old);
+    }
+
+    @Test
+    void unregisteredHolderIsCollected() throws Exception {
+        WeakReference<Greeter> old = registerAndReplace(true);
+        awaitCollected(old);
+        assertNull(manager.getCommand("greet"));
+    }
+
+    /**
+     * Registers a holder, uses its command, and then replaces or unregisters it, keeping no strong reference to it.
+     */
+    private WeakReference<Greeter> registerAndReplace(boolean unregister) throws Exception {
+        Greeter old = new Greeter("hello");
+        manager.register(old);
+        assertEquals("hello bob", manager.parse(sender, "greet bob").execute().getMessage());
+        assertEquals(1, manager.suggest(sender, "gr", 2).size());
+        if (unregister) {
+            manager.unregister(old);
+        } else {
+            manager.replace(old, new Greeter("hey"));
+        }
+        assertFalse(manager.getRegistry().contains(old));
+        return new WeakReference<>(old);
+    }
+
+    private static void awaitCollected(WeakReference<?> ref) throws InterruptedException {
+        for (int i = 0; i < 100 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(ref.get(), "the old holder is still reachable");
+    }
+}
@@ -0,0 +1,182 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.exceptions.NoAdapterFoundException;
+import com.shinybunny.cmdapi.nodes.CommandNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link LazyCommand#getNode()} creating the actual command exactly once, even when many threads use a cold lazy command at the same moment,
+ * and failing the same way on every use when the command can't be created.
+ */
+class LazyCommandTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 50;
+
+    public static class Dice {
+        public int roll(Sender sender, int sides) {
+            return sides;
+        }
+    }
+
+    private CommandManager manager;
+    private final AtomicInteger created = new AtomicInteger();
+
+    @BeforeEach
+    void setup() {
+        manager = new CommandManager();
+    }
+
+    /**
+     * A lazy command whose factory counts its calls and takes a while, so the threads using it pile up on the first use.
+     */
+    private LazyCommand lazyDice(Dice holder) {
+        return new LazyCommand(manager, "roll", holder, null, () -> {
+            created.incrementAndGet();
+            pause();
+            try {
+                return new MethodCommand(manager, "roll", Dice.class.getMethod("roll", Sender.class, int.class), holder);
+            } catch (NoSuchMethodException e) {
+                throw new AssertionError(e);
+            }
+        });
+    }
+
+    @Test
+    void createdOnceUnderContention() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                created.set(0);
+                LazyCommand lazy = lazyDice(new Dice());
+                assertFalse(lazy.isCreated());
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<CommandNode>> nodes = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    nodes.add(pool.submit(awaiting(start, lazy::getNode)));
+                }
+                start.countDown();
+                CommandNode first = nodes.get(0).get(10, TimeUnit.SECONDS);
+                for (Future<CommandNode> node : nodes) {
+                    assertSame(first, node.get(10, TimeUnit.SECONDS));
+                }
+                assertEquals(1, created.get(), "the factory ran more than once in round " + round);
+                assertTrue(lazy.isCreated());
+                assertSame(first.getCommand(), lazy.getCommand());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void createdOnceThroughTheManager() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                created.set(0);
+                manager = new CommandManager();
+                LazyCommand lazy = lazyDice(new Dice());
+                manager.addCommand(lazy);
+                assertFalse(lazy.isCreated());
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Object>> results = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    String input = "roll " + (i + 1);
+                    results.add(pool.submit(awaiting(start, () -> manager.parse(new TestSender(), input).execute().result())));
+                }
+                start.countDown();
+                for (int i = 0; i < THREADS; i++) {
+                    assertEquals(i + 1, results.get(i).get(10, TimeUnit.SECONDS));
+                }
+                assertEquals(1, created.get(), "the factory ran more than once in round " + round);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failureIsRememberedAndRethrown() throws Exception {
+        NoAdapterFoundException cause = new NoAdapterFoundException("no adapter", Thread.class);
+        LazyCommand lazy = new LazyCommand(manager, "spawn", new Object(), null, () -> {
+            created.incrementAndGet();
+            throw cause;
+        });
+        manager.addCommand(lazy);
+        IllegalStateException failure = assertThrows(IllegalStateException.class, lazy::getNode);
+        assertSame(cause, failure.getCause());
+        for (int i = 0; i < 5; i++) {
+            assertSame(failure, assertThrows(IllegalStateException.class, lazy::getNode));
+            assertSame(failure, assertThrows(IllegalStateException.class, lazy::getCommand));
+            assertSame(failure, assertThrows(IllegalStateException.class, () -> manager.parse(new TestSender(), "spawn")));
+        }
+        assertEquals(1, created.get());
+        assertFalse(lazy.isCreated());
+    }
+
+    @Test
+    void failureUnderContention() throws Exception {
+        LazyCommand lazy = new LazyCommand(manager, "spawn", new Object(), null, () -> {
+            created.incrementAndGet();
+            pause();
+            throw new IllegalArgumentException("bad holder");
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<CommandNode>> nodes = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                nodes.add(pool.submit(awaiting(start, lazy::getNode)));
+            }
+            start.countDown();
+            Throwable first = null;
+            for (Future<CommandNode> node : nodes) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> node.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+                if (first == null) {
+                    first = e.getCause();
+                }
+                assertSame(first, e.getCause());
+            }
+            assertInstanceOf(IllegalArgumentException.class, first.getCause());
+            assertEquals(1, created.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <T> Callable<T> awaiting(CountDownLatch start, Callable<T> task) {
+        return () -> {
+            start.await();
+            return task.call();
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.AnnotationAdapter;
+import com.shinybunny.cmdapi.annotations.Range;
+import com.shinybunny.cmdapi.arguments.ParameterArgument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Numbers parsed by the {@link com.shinybunny.cmdapi.arguments.NumberAdapter}, checked against the bounds of their type,
+ * and processed by annotation adapters without boxing unless an adapter only processes objects.
+ */
+class NumberArgumentTest {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.PARAMETER)
+    @interface Twice {
+    }
+
+    /**
+     * Only processes objects, so primitive values are boxed for it.
+     */
+    static class TwiceAdapter implements AnnotationAdapter<Twice> {
+
+        @Override
+        public Class<Twice> getAnnotationType() {
+            return Twice.class;
+        }
+
+        @Override
+        public Object process(Object value, Twice annotation, ParameterArgument arg, CommandContext ctx) {
+            if (value instanceof Integer) {
+                return (Integer) value * 2;
+            } else if (value instanceof Long) {
+                return (Long) value * 2;
+            } else if (value instanceof Double) {
+                return (Double) value * 2;
+            }
+            return value instanceof Boolean ? !(Boolean) value : value;
+        }
+    }
+
+    public static class Numbers {
+
+        public String small(short s, byte b) {
+            return s + " " + b;
+        }
+
+        public String ranged(@Range(min = -5, max = 5) int i, @Range(min = 0, max = 10) long l, @Range(min = 0, max = 1) double d) {
+            return i + " " + l + " " + d;
+        }
+
+        public String twice(@Twice int i, @Twice long l, @Twice double d, @Twice boolean b) {
+            return i + " " + l + " " + d + " " + b;
+        }
+    }
+
+    private CommandManager manager;
+    private final TestSender sender = new TestSender();
+
+    @BeforeEach
+    void setup() throws Exception {
+        manager = new CommandManager();
+        manager.registerAnnotationAdapter(new TwiceAdapter());
+        manager.register(new Numbers());
+    }
+
+    private String run(String input) throws Exception {
+        return manager.parse(sender, input).execute().getMessage();
+    }
+
+    private void assertParseError(String input, String argument, int cursor, String message) {
+        ParseOutcome outcome = manager.tryParse(sender, input);
+        assertEquals(ParseOutcome.Error.PARSE_ERROR, outcome.getError(), input);
+        assertEquals(argument, outcome.getArgument().getName(), input);
+        assertEquals(cursor, outcome.getCursor(), input);
+        assertEquals(message, outcome.getMessage(), input);
+    }
+
+    @Test
+    void shortAndByteBounds() throws Exception {
+        assertEquals("32767 127", run("small 32767 127"));
+        assertEquals("-32768 -128", run("small -32768 -128"));
+        // out of the bounds of the type, like an int out of the bounds of an int, instead of wrapping around
+        assertParseError("small 32768 0", "s", 6, "Invalid number 32768");
+        assertParseError("small -32769 0", "s", 6, "Invalid number -32769");
+        assertParseError("small 1 128", "b", 8, "Invalid number 128");
+        assertParseError("small 1 -129", "b", 8, "Invalid number -129");
+        assertParseError("small 1 99999999999", "b", 8, "Invalid number 99999999999");
+    }
+
+    @Test
+    void primitiveRanges() throws Exception {
+        assertEquals("-5 10 1.0", run("ranged -5 10 1"));
+        assertEquals(ParseOutcome.Error.INVALID_ARGUMENT, manager.tryParse(sender, "ranged 6 0 0").getError());
+        assertEquals("l", manager.tryParse(sender, "ranged 0 11 0").getArgument().getName());
+        assertEquals("d", manager.tryParse(sender, "ranged 0 0 1.5").getArgument().getName());
+    }
+
+    @Test
+    void objectAdaptersProcessPrimitives() throws Exception {
+        assertEquals("2 -6 0.5 false", run("twice 1 -3 0.25 true"));
+        // a long beyond the bounds of an int keeps all of its bits
+        assertEquals("-14 8589934592 -3.0 true", run("twice -7 4294967296 -1.5 false"));
+    }
+}
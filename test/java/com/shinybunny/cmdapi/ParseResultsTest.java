@@ -0,0 +1,108 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.Optional;
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.arguments.ParameterArgument;
+import com.shinybunny.cmdapi.nodes.CommandNode;
+import com.shinybunny.cmdapi.utils.InputReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Values stored by the {@link Argument#getSlot() slots} of their arguments, with optional arguments left empty,
+ * and arguments without a slot stored after the slots of every entered node.
+ */
+class ParseResultsTest {
+
+    public static class Greeter {
+
+        public String greet(String name, @Optional Integer times, @Optional Boolean loud) {
+            return name + " " + times + " " + loud;
+        }
+    }
+
+    private CommandManager manager;
+    private final TestSender sender = new TestSender();
+
+    @BeforeEach
+    void setup() throws Exception {
+        manager = new CommandManager();
+        manager.register(new Greeter());
+    }
+
+    private Argument argument(int index) {
+        return manager.getCommand("greet").getArguments().get(index);
+    }
+
+    private Argument unslotted(String name, Class<?> type) throws Exception {
+        return new ParameterArgument(manager, name, new Annotation[0], type, manager.getArgumentAdapter(type));
+    }
+
+    private static List<String> names(ParseResults results) {
+        List<String> names = new ArrayList<>();
+        for (ParseResults.Entry e : results.getValues()) {
+            names.add(e.getArgument().getName());
+        }
+        return names;
+    }
+
+    @Test
+    void optionalSlotsStayEmpty() throws Exception {
+        ParseResults results = manager.parse(sender, "greet bob 3");
+        assertEquals(Arrays.asList(0, 1, 2), Arrays.asList(argument(0).getSlot(), argument(1).getSlot(), argument(2).getSlot()));
+        assertEquals("bob", results.get(argument(0)));
+        assertEquals(3, results.getInt(argument(1)));
+        assertNull(results.get(argument(2)));
+        assertNull(results.get(2));
+        // an omitted optional argument still has its slot, holding its null default
+        assertEquals(Arrays.asList("name", "times", "loud"), names(results));
+        assertEquals("bob 3 null", results.execute().getMessage());
+    }
+
+    @Test
+    void unslottedValuesMoveAfterEnteredSlots() throws Exception {
+        CommandContext ctx = new CommandContext("greet", manager.getCommand("greet"), sender, "greet bob");
+        ParseResults results = new ParseResults(ctx);
+        Argument count = unslotted("count", Integer.class);
+        Argument label = unslotted("label", String.class);
+        results.putInt(count, 42);
+        results.put(label, "tag");
+
+        results.enter(manager.getCommandNode("greet"));
+        // the slots they moved out of are empty, without the kind of the int that was there
+        assertNull(results.get(0));
+        assertNull(results.get(1));
+        assertEquals(42, results.getInt(count));
+        assertEquals("tag", results.get(label));
+
+        results.put(argument(0), "bob");
+        results.putBoolean(argument(2), true);
+        assertEquals("bob", results.get("name"));
+        assertEquals(true, results.get(2));
+        assertEquals(42, results.getInt("count"));
+        assertEquals(Arrays.asList("count", "label", "name", "loud"), names(results));
+    }
+
+    @Test
+    void unregisteredCommandCompiledOnce() throws Exception {
+        CommandBase greet = new MethodCommand(manager, "hello", Greeter.class.getMethod("greet", String.class, Integer.class, Boolean.class), new Greeter());
+        CommandNode node = greet.getUnregisteredNode();
+        assertSame(node, greet.getUnregisteredNode());
+
+        CommandContext ctx = new CommandContext("hello", greet, sender, "hello amy 2 true");
+        InputReader reader = new InputReader("hello amy 2 true");
+        reader.setCursor("hello ".length());
+        ParseResults results = manager.parse(ctx, reader);
+        assertSame(node, results.getNode());
+        assertEquals("amy 2 true", results.execute().getMessage());
+    }
+}
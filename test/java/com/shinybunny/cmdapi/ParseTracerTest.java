@@ -0,0 +1,105 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.exceptions.CommandExecutionException;
+import com.shinybunny.cmdapi.tracing.ParseTracer;
+import com.shinybunny.cmdapi.tracing.RingBufferTracer;
+import com.shinybunny.cmdapi.tracing.TraceEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tracers combined with {@link ParseTracer#of(ParseTracer...)}, and the {@link ParseTracer.Phase#RUN run} phase ended even when the command throws.
+ */
+class ParseTracerTest {
+
+    /**
+     * Measures only the given phases, keeping every phase it ended along with its own token.
+     */
+    static class PhaseTracer implements ParseTracer {
+
+        private final List<Phase> measured;
+        private final List<String> ended = new ArrayList<>();
+
+        PhaseTracer(Phase... measured) {
+            this.measured = Arrays.asList(measured);
+        }
+
+        @Override
+        public Object begin(Phase phase) {
+            return measured.contains(phase) ? phase : null;
+        }
+
+        @Override
+        public void end(Object token, String command, Argument argument, int inputLength) {
+            ended.add(token + " " + command);
+        }
+    }
+
+    public static class Shop {
+
+        public int buy(String item, int amount) {
+            return amount;
+        }
+
+        public int crash(int code) {
+            throw new IllegalStateException("crash " + code);
+        }
+    }
+
+    private CommandManager manager;
+    private final TestSender sender = new TestSender();
+
+    @BeforeEach
+    void setup() throws Exception {
+        manager = new CommandManager();
+        manager.register(new Shop());
+    }
+
+    @Test
+    void combinesTracers() throws Exception {
+        RingBufferTracer ring = new RingBufferTracer(16);
+        PhaseTracer runs = new PhaseTracer(ParseTracer.Phase.RUN);
+        PhaseTracer lookups = new PhaseTracer(ParseTracer.Phase.GET_COMMAND);
+        manager.setTracer(ParseTracer.of(ring, null, runs, lookups));
+        assertEquals(3, manager.parse(sender, "buy apple 3").execute().result());
+
+        List<TraceEvent.Type> types = new ArrayList<>();
+        for (TraceEvent event : ring.getEvents()) {
+            types.add(event.getType());
+        }
+        assertEquals(Arrays.asList(TraceEvent.Type.ARGUMENT_START, TraceEvent.Type.ADAPTER_RESULT, TraceEvent.Type.ARGUMENT_START, TraceEvent.Type.ADAPTER_RESULT), types);
+        // each tracer only ends the phases it measured, with its own token
+        assertEquals(Collections.singletonList("RUN buy"), runs.ended);
+        assertEquals(Collections.singletonList("GET_COMMAND buy"), lookups.ended);
+    }
+
+    @Test
+    void combiningSkipsMissingTracers() {
+        PhaseTracer tracer = new PhaseTracer();
+        assertSame(tracer, ParseTracer.of(null, tracer));
+        assertNull(ParseTracer.of());
+        assertNull(ParseTracer.of((ParseTracer) null));
+        // no tracer measures the phase, so there's no token to end it with
+        assertNull(ParseTracer.of(tracer, new PhaseTracer()).begin(ParseTracer.Phase.PARSE));
+    }
+
+    @Test
+    void runEndedWhenThrowing() throws Exception {
+        PhaseTracer tracer = new PhaseTracer(ParseTracer.Phase.RUN);
+        manager.setTracer(tracer);
+        ParseResults results = manager.parse(sender, "crash 7");
+        assertThrows(CommandExecutionException.class, results::execute);
+        assertEquals(Collections.singletonList("RUN crash"), tracer.ended);
+    }
+}
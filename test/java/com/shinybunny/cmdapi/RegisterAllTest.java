@@ -0,0 +1,174 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.Range;
+import com.shinybunny.cmdapi.exceptions.DuplicateAliasException;
+import com.shinybunny.cmdapi.exceptions.IncompatibleAnnotationException;
+import com.shinybunny.cmdapi.exceptions.NoAdapterFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link CommandManager#registerAll(java.util.Collection, ForkJoinPool)} analyzing holders in parallel,
+ * registering their commands in order and all at once, and reporting the failures of all holders together.
+ */
+class RegisterAllTest {
+
+    public static class Shop {
+        public void buy(Sender sender) {
+        }
+
+        public void sell(Sender sender) {
+        }
+    }
+
+    public static class Bank {
+        public void deposit(Sender sender, @Range(min = 1) int amount) {
+        }
+
+        public void withdraw(Sender sender, @Range(min = 1) int amount) {
+        }
+    }
+
+    public static class Mail {
+        public void send(Sender sender, String to) {
+        }
+    }
+
+    public static class Holder {
+        public void ping(Sender sender) {
+        }
+    }
+
+    public static class NoAdapter {
+        public void spawn(Sender sender, Thread thread) {
+        }
+    }
+
+    public static class BadRange {
+        public void name(Sender sender, @Range(min = 1) String name) {
+        }
+    }
+
+    public static class Exploding {
+        public Exploding() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    public static class Checked {
+        public Checked() throws Exception {
+            throw new Exception("checked");
+        }
+    }
+
+    public static class NoDefaultConstructor {
+        public NoDefaultConstructor(String s) {
+        }
+    }
+
+    public static class ShopCopy {
+        public void buy(Sender sender) {
+        }
+    }
+
+    private CommandManager manager;
+    private final List<CommandBase> heard = new ArrayList<>();
+    /**
+     * The number of registered commands when each command was heard
+     */
+    private final List<Integer> registeredWhenHeard = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        manager = new CommandManager();
+        manager.addCommandRegisterListener(cmd -> {
+            heard.add(cmd);
+            registeredWhenHeard.add(manager.getCommands().size());
+        });
+    }
+
+    @Test
+    void registersInHolderOrder() throws Exception {
+        Shop shop = new Shop();
+        Bank bank = new Bank();
+        Mail mail = new Mail();
+        manager.registerAll(Arrays.asList(mail, shop, bank, new Holder()), new ForkJoinPool(4));
+        List<Object> holders = new ArrayList<>();
+        for (CommandBase cmd : manager.getCommands()) {
+            Object holder = ((MethodCommand) cmd).getHolder();
+            if (holders.isEmpty() || holders.get(holders.size() - 1) != holder) {
+                holders.add(holder);
+            }
+        }
+        assertEquals(4, holders.size(), "the commands of a holder are not together");
+        assertSame(mail, holders.get(0));
+        assertSame(shop, holders.get(1));
+        assertSame(bank, holders.get(2));
+        assertInstanceOf(Holder.class, holders.get(3));
+        assertEquals(manager.getCommands(), heard);
+        // the listeners ran after all commands were registered
+        assertEquals(Collections.nCopies(6, 6), registeredWhenHeard);
+    }
+
+    @Test
+    void instantiatesClasses() throws Exception {
+        manager.registerAll(Arrays.asList(Shop.class, Bank.class, Mail.class, Holder.class));
+        assertInstanceOf(Shop.class, ((MethodCommand) manager.getCommand("buy")).getHolder());
+        assertInstanceOf(Bank.class, ((MethodCommand) manager.getCommand("deposit")).getHolder());
+        assertEquals(6, heard.size());
+    }
+
+    @Test
+    void registerInstantiatesClassPassedAsObject() throws Exception {
+        Object holder = Mail.class;
+        manager.register(holder);
+        assertInstanceOf(Mail.class, ((MethodCommand) manager.getCommand("send")).getHolder());
+    }
+
+    @Test
+    void reportsAllFailures() {
+        List<Object> holders = Arrays.asList(new Shop(), new NoAdapter(), Exploding.class, new BadRange(), Checked.class, NoDefaultConstructor.class, new Bank());
+        NoAdapterFoundException e = assertThrows(NoAdapterFoundException.class, () -> manager.registerAll(holders));
+        Throwable[] suppressed = e.getSuppressed();
+        assertEquals(4, suppressed.length, Arrays.toString(suppressed));
+        assertInstanceOf(IllegalStateException.class, suppressed[0]);
+        assertEquals("boom", suppressed[0].getMessage());
+        assertInstanceOf(IncompatibleAnnotationException.class, suppressed[1]);
+        assertInstanceOf(IllegalArgumentException.class, suppressed[2]);
+        assertEquals("checked", suppressed[2].getCause().getMessage());
+        assertInstanceOf(IllegalArgumentException.class, suppressed[3]);
+        assertInstanceOf(NoSuchMethodException.class, suppressed[3].getCause());
+        assertTrue(manager.getCommands().isEmpty());
+        assertTrue(heard.isEmpty());
+    }
+
+    @Test
+    void throwsUncheckedConstructorException() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> manager.registerAll(Collections.singletonList(Exploding.class)));
+        assertEquals("boom", e.getMessage());
+        assertThrows(IllegalStateException.class, () -> manager.registerAll(Arrays.asList(Shop.class, Exploding.class)));
+        assertTrue(manager.getCommands().isEmpty());
+    }
+
+    @Test
+    void duplicateAliasRegistersNothing() throws Exception {
+        assertThrows(DuplicateAliasException.class, () -> manager.registerAll(Arrays.asList(new Shop(), new Bank(), new ShopCopy())));
+        assertTrue(manager.getCommands().isEmpty());
+        assertTrue(heard.isEmpty());
+        manager.registerAll(Arrays.asList(new Shop(), new Bank(), new Mail()));
+        assertNotNull(manager.getCommand("send"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.Default;
+import com.shinybunny.cmdapi.annotations.Range;
+import com.shinybunny.cmdapi.tracing.RingBufferTracer;
+import com.shinybunny.cmdapi.tracing.TraceEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link RingBufferTracer} recording the steps of parsing the inputs its filter accepts, keeping only the latest events.
+ */
+class RingBufferTracerTest {
+
+    public static class Dice {
+
+        public int dice(@Range(min = 1, max = 6) int sides, @Default(number = 1) int count) {
+            return sides * count;
+        }
+
+        public String echo(String word) {
+            return word;
+        }
+    }
+
+    private CommandManager manager;
+    private final TestSender sender = new TestSender();
+
+    @BeforeEach
+    void setup() throws Exception {
+        manager = new CommandManager();
+        manager.register(new Dice());
+    }
+
+    private static List<String> describe(List<TraceEvent> events) {
+        List<String> described = new ArrayList<>();
+        for (TraceEvent e : events) {
+            described.add(e.getType() + " " + e.getArgument().getName() + " " + (e.getType() == TraceEvent.Type.ARGUMENT_START ? e.getCursor() : e.getValue()));
+        }
+        return described;
+    }
+
+    @Test
+    void recordsEveryStep() throws Exception {
+        RingBufferTracer tracer = new RingBufferTracer(64);
+        manager.setTracer(tracer);
+        assertEquals(6, manager.parse(sender, "dice 6").execute().result());
+        assertEquals(Arrays.asList("ARGUMENT_START sides 5", "ADAPTER_RESULT sides 6", "ANNOTATION_PROCESSED sides 6",
+                "ARGUMENT_START count 6", "DEFAULT_APPLIED count 1", "ANNOTATION_PROCESSED count 1"), describe(tracer.getEvents()));
+        TraceEvent range = tracer.getEvents().get(2);
+        assertEquals(Range.class, range.getAnnotation().annotationType());
+        assertEquals("dice 6", range.getInput());
+        assertEquals("dice", range.getCommand());
+        assertEquals(2, range.getSequence());
+    }
+
+    @Test
+    void keepsTheLatestEvents() throws Exception {
+        RingBufferTracer tracer = new RingBufferTracer(4);
+        manager.setTracer(tracer);
+        manager.parse(sender, "echo first");
+        manager.parse(sender, "echo second");
+        manager.parse(sender, "echo third");
+        // two events for each input, so the first input was overwritten
+        assertEquals(6, tracer.getRecordedCount());
+        assertEquals(Arrays.asList("ARGUMENT_START word 5", "ADAPTER_RESULT word second", "ARGUMENT_START word 5", "ADAPTER_RESULT word third"),
+                describe(tracer.getEvents()));
+        tracer.clear();
+        assertTrue(tracer.getEvents().isEmpty());
+        assertEquals(0, tracer.getRecordedCount());
+        manager.parse(sender, "echo again");
+        assertEquals(2, tracer.getEvents().size());
+        assertEquals(4, tracer.getCapacity());
+    }
+
+    @Test
+    void recordsOnlyFilteredInputs() throws Exception {
+        RingBufferTracer tracer = new RingBufferTracer(16, ctx -> ctx.getInput().startsWith("dice"));
+        manager.setTracer(tracer);
+        manager.parse(sender, "echo hello");
+        // fails in the range of the sides, after its value was parsed
+        assertEquals(ParseOutcome.Error.INVALID_ARGUMENT, manager.tryParse(sender, "dice 9").getError());
+        assertEquals(Arrays.asList("ARGUMENT_START sides 5", "ADAPTER_RESULT sides 9"), describe(tracer.getEvents()));
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferTracer(0));
+    }
+}
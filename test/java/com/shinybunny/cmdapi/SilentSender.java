@@ -0,0 +1,29 @@
+package com.shinybunny.cmdapi;
+
+/**
+ * A sender ignoring every message sent to it, with every permission.<br/>
+ * Unlike a {@link TestSender}, it keeps nothing, so tests measuring the cost of parsing and executing don't measure the sender too.
+ */
+public final class SilentSender implements Sender {
+
+    public static final SilentSender INSTANCE = new SilentSender();
+
+    private SilentSender() {
+    }
+
+    @Override
+    public void sendMessage(String msg) {
+    }
+
+    @Override
+    public void sendMessage(String msg, Object... formatArgs) {
+    }
+
+    @Override
+    public void fail(String msg) {
+    }
+
+    @Override
+    public void success(String msg) {
+    }
+}
@@ -0,0 +1,152 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.Command;
+import com.shinybunny.cmdapi.annotations.Default;
+import com.shinybunny.cmdapi.annotations.MultiWord;
+import com.shinybunny.cmdapi.annotations.Range;
+import com.shinybunny.cmdapi.nodes.SpecializedParser;
+import com.shinybunny.cmdapi.nodes.Specializer;
+import com.shinybunny.cmdapi.tracing.ParseTracer;
+import com.shinybunny.cmdapi.utils.CommandResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Commands parsed by the {@link SpecializedParser}s {@link Specializer} generates, failing and succeeding exactly like walking their nodes.
+ */
+class SpecializedParserTest {
+
+    public static class Shop {
+
+        public int buy(Sender sender, String item, @Range(min = 1, max = 64) int amount, @Default(number = 2.5) double price) {
+            return (int) (amount * price);
+        }
+
+        public String say(boolean loud, @MultiWord String text) {
+            return loud ? text.toUpperCase() : text;
+        }
+
+        public String pay(@Default(number = 5) long amount, @Default("nothing") String note) {
+            return amount + " for " + note;
+        }
+
+        public float scale(float factor) {
+            return factor * 2;
+        }
+    }
+
+    /**
+     * Has no generated registry, so its commands are invoked by the invokers {@link Specializer} generates.
+     */
+    public static class Plain {
+
+        public String plain(int a, long b, double c, boolean d, String e) {
+            return a + " " + b + " " + c + " " + d + " " + e;
+        }
+
+        public long square(long x) {
+            return x * x;
+        }
+    }
+
+    public static class Hot {
+
+        @Command(specialize = true)
+        public int hot(int x) {
+            return x + 1;
+        }
+
+        @Command(name = "cold")
+        public int cold(int x) {
+            return x - 1;
+        }
+    }
+
+    private static final String[] INPUTS = {
+            "buy apple 3 2.5", "buy apple 3", "buy apple", "buy", "buy apple 0", "buy apple 65 1", "buy apple x", "buy apple 3 x",
+            "buy apple 99999999999", "buy apple -", "say true hello world", "say false", "say", "say maybe hi", "pay", "pay 7", "pay 7 lunch",
+            "pay x", "scale 1.5", "plain 1 2 3.5 true word", "plain 1 2 3.5 true", "plain 1", "plain", "plain 1 2 3.5 yes word", "square 12"
+    };
+
+    private CommandManager walking;
+    private CommandManager specializing;
+    private final TestSender sender = new TestSender();
+
+    @BeforeEach
+    void setup() throws Exception {
+        walking = new CommandManager();
+        walking.register(new Shop());
+        walking.register(new Plain());
+        specializing = new CommandManager();
+        specializing.setSpecializing(true);
+        specializing.register(new Shop());
+        specializing.register(new Plain());
+    }
+
+    private static SpecializedParser parser(CommandManager manager, String name) {
+        return ((MethodCommand) manager.getCommand(name)).getSpecializedParser();
+    }
+
+    @Test
+    void generatesHiddenClasses() {
+        assertTrue(Specializer.isSupported());
+        for (String name : new String[]{"buy", "say", "pay", "plain", "square"}) {
+            SpecializedParser parser = parser(specializing, name);
+            assertNotNull(parser, name);
+            // the names of hidden classes are not valid binary names
+            assertTrue(parser.getClass().getName().contains("/"), parser.getClass().getName());
+            assertNull(parser(walking, name), name);
+        }
+        assertNull(parser(specializing, "scale"));
+        assertNotNull(Specializer.createInvoker((MethodCommand) specializing.getCommand("plain")));
+    }
+
+    @Test
+    void sameOutcomes() throws Exception {
+        for (String input : INPUTS) {
+            assertSameOutcome(sender, input);
+        }
+        assertSameOutcome(null, "buy apple 3");
+    }
+
+    private void assertSameOutcome(Sender sender, String input) throws Exception {
+        ParseOutcome expected = walking.tryParse(sender, input);
+        ParseOutcome actual = specializing.tryParse(sender, input);
+        assertEquals(expected.getError(), actual.getError(), input);
+        assertEquals(expected.getCursor(), actual.getCursor(), input);
+        assertEquals(expected.getMessage(), actual.getMessage(), input);
+        assertEquals(expected.getArgument() == null ? null : expected.getArgument().getName(),
+                actual.getArgument() == null ? null : actual.getArgument().getName(), input);
+        if (expected.isSuccess()) {
+            CommandResult walked = expected.getResults().execute();
+            CommandResult specialized = actual.getResults().execute();
+            assertEquals(walked.result(), specialized.result(), input);
+            assertEquals(walked.getMessage(), specialized.getMessage(), input);
+        }
+    }
+
+    @Test
+    void specializeSetting() throws Exception {
+        CommandManager manager = new CommandManager();
+        manager.register(new Hot());
+        assertNotNull(parser(manager, "hot"));
+        assertNull(parser(manager, "cold"));
+        assertEquals(5, manager.tryParse(sender, "hot 4").getResults().execute().result());
+    }
+
+    @Test
+    void tracedInputsWalkTheNodes() throws Exception {
+        ParseOutcome outcome = specializing.tryParse(sender, "buy apple 65");
+        specializing.setTracer(new ParseTracer() {
+        });
+        ParseOutcome traced = specializing.tryParse(sender, "buy apple 65");
+        assertEquals(outcome.getError(), traced.getError());
+        assertEquals(outcome.getMessage(), traced.getMessage());
+        assertEquals(8, specializing.tryParse(sender, "buy apple 4 2").getResults().execute().result());
+    }
+}
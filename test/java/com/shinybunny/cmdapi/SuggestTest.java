@@ -0,0 +1,167 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.Command;
+import com.shinybunny.cmdapi.arguments.EnumAdapter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link CommandManager#suggest(Sender, String, int, int)} suggesting command names, sub command names and argument values,
+ * with the range of the input each suggestion replaces, only for commands the sender can use, and no more than the limit.
+ */
+class SuggestTest {
+
+    public enum Fruit {
+        APPLE, APRICOT, BANANA
+    }
+
+    public static class Shop {
+
+        public void buy(Sender sender, Fruit fruit, int amount) {
+        }
+
+        public void bundle(Sender sender, Fruit first, Fruit second) {
+        }
+
+        @Command(permission = "shop.sell")
+        public void sell(Sender sender, Fruit fruit) {
+        }
+    }
+
+    @Command(name = "bank", aliases = "b")
+    public static class Bank {
+
+        public void deposit(Sender sender, int amount) {
+        }
+
+        @Command(aliases = "dep")
+        public void depositAll(Sender sender) {
+        }
+
+        @Command(permission = "bank.admin")
+        public void reset(Sender sender, Fruit account) {
+        }
+    }
+
+    private CommandManager manager;
+    private final TestSender sender = new TestSender();
+    private final TestSender customer = new TestSender("shop.buy");
+
+    @BeforeEach
+    void setup() throws Exception {
+        manager = new CommandManager();
+        manager.registerArgumentAdapter(new EnumAdapter());
+        manager.register(new Shop());
+        manager.register(new Bank());
+    }
+
+    @Test
+    void commandNames() {
+        List<Suggestion> suggestions = manager.suggest(sender, "b", 1);
+        assertEquals(Arrays.asList("b", "bank", "bundle", "buy"), texts(suggestions));
+        for (Suggestion s : suggestions) {
+            assertEquals(0, s.getStart());
+            assertEquals(1, s.getEnd());
+            assertSame(manager.getCommand(s.getText()), s.getCommand());
+        }
+        assertSame(manager.getCommand("bank"), suggestions.get(0).getCommand());
+        assertEquals("bundle", suggestions.get(2).apply("b"));
+        assertEquals(Arrays.asList("b", "bank", "bundle", "buy", "sell"), texts(manager.suggest(sender, "", 0)));
+    }
+
+    @Test
+    void onlyTheInputBeforeTheCursor() {
+        List<Suggestion> suggestions = manager.suggest(sender, "bu apple", 2);
+        assertEquals(Arrays.asList("bundle", "buy"), texts(suggestions));
+        assertEquals(0, suggestions.get(1).getStart());
+        assertEquals(2, suggestions.get(1).getEnd());
+        assertEquals("buy apple", suggestions.get(1).apply("bu apple"));
+    }
+
+    @Test
+    void commandsTheSenderCantUseAreNotSuggested() {
+        assertEquals(Collections.singletonList("sell"), texts(manager.suggest(sender, "s", 1)));
+        assertTrue(manager.suggest(customer, "s", 1).isEmpty());
+        assertEquals(Arrays.asList("b", "bank", "bundle", "buy"), texts(manager.suggest(customer, "", 0)));
+        // nor the values of their arguments
+        assertEquals(Arrays.asList("APPLE", "APRICOT"), texts(manager.suggest(sender, "sell AP", 7)));
+        assertTrue(manager.suggest(customer, "sell AP", 7).isEmpty());
+    }
+
+    @Test
+    void argumentValues() {
+        String input = "bundle APPLE AP";
+        List<Suggestion> suggestions = manager.suggest(sender, input, input.length());
+        assertEquals(Arrays.asList("APPLE", "APRICOT"), texts(suggestions));
+        for (Suggestion s : suggestions) {
+            assertEquals(13, s.getStart());
+            assertEquals(15, s.getEnd());
+            assertNull(s.getCommand());
+        }
+        assertEquals("bundle APPLE APRICOT", suggestions.get(1).apply(input));
+        assertEquals(Arrays.asList("APPLE", "APRICOT", "BANANA"), texts(manager.suggest(sender, "buy ", 4)));
+        // arguments without suggestions
+        assertTrue(manager.suggest(sender, "buy APPLE ", 10).isEmpty());
+        assertTrue(manager.suggest(sender, "nope ", 5).isEmpty());
+    }
+
+    @Test
+    void subCommands() {
+        List<Suggestion> suggestions = manager.suggest(sender, "bank ", 5);
+        assertEquals(Arrays.asList("dep", "deposit", "depositAll", "reset"), texts(suggestions));
+        for (Suggestion s : suggestions) {
+            assertEquals(5, s.getStart());
+            assertEquals(5, s.getEnd());
+        }
+        suggestions = manager.suggest(sender, "b depo 5", 6);
+        assertEquals(Arrays.asList("deposit", "depositAll"), texts(suggestions));
+        assertEquals(2, suggestions.get(0).getStart());
+        assertEquals(6, suggestions.get(0).getEnd());
+        assertEquals("b deposit 5", suggestions.get(0).apply("b depo 5"));
+        assertEquals("depositAll", suggestions.get(1).getCommand().getName());
+        // the arguments of a sub command
+        assertEquals(Collections.singletonList("BANANA"), texts(manager.suggest(sender, "bank reset B", 12)));
+    }
+
+    @Test
+    void subCommandsTheSenderCantUseAreNotSuggested() {
+        assertEquals(Arrays.asList("dep", "deposit", "depositAll"), texts(manager.suggest(customer, "bank ", 5)));
+        assertTrue(manager.suggest(customer, "bank r", 6).isEmpty());
+        assertTrue(manager.suggest(customer, "bank reset B", 12).isEmpty());
+    }
+
+    @Test
+    void limit() {
+        assertEquals(Arrays.asList("b", "bank"), texts(manager.suggest(sender, "b", 1, 2)));
+        assertEquals(Collections.singletonList("dep"), texts(manager.suggest(sender, "bank ", 5, 1)));
+        assertEquals(Collections.singletonList("APPLE"), texts(manager.suggest(sender, "buy A", 5, 1)));
+        // commands the sender can't use don't count towards the limit
+        assertEquals(Arrays.asList("b", "bank", "bundle", "buy"), texts(manager.suggest(customer, "", 0, 4)));
+        assertTrue(manager.suggest(sender, "b", 1, 0).isEmpty());
+    }
+
+    @Test
+    void cursorOutOfTheInput() {
+        assertThrows(IndexOutOfBoundsException.class, () -> manager.suggest(sender, "buy", 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> manager.suggest(sender, "buy", -1));
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        List<String> texts = new ArrayList<>();
+        for (Suggestion s : suggestions) {
+            texts.add(s.getText());
+        }
+        return texts;
+    }
+}
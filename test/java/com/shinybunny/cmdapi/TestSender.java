@@ -0,0 +1,60 @@
+package com.shinybunny.cmdapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A sender keeping the messages sent to it, with only the permissions it's given.
+ */
+class TestSender implements Sender {
+
+    private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> permissions;
+
+    /**
+     * Creates a sender with every permission.
+     */
+    TestSender() {
+        this.permissions = null;
+    }
+
+    /**
+     * Creates a sender with only the given permissions.
+     */
+    TestSender(String... permissions) {
+        this.permissions = new HashSet<>(Arrays.asList(permissions));
+    }
+
+    @Override
+    public void sendMessage(String msg) {
+        messages.add(msg);
+    }
+
+    @Override
+    public void sendMessage(String msg, Object... formatArgs) {
+        messages.add(String.format(msg, formatArgs));
+    }
+
+    @Override
+    public void fail(String msg) {
+        messages.add("error: " + msg);
+    }
+
+    @Override
+    public void success(String msg) {
+        messages.add("success: " + msg);
+    }
+
+    @Override
+    public boolean hasPermission(String permission) {
+        return permissions == null || permissions.contains(permission);
+    }
+
+    List<String> getMessages() {
+        return messages;
+    }
+}
@@ -0,0 +1,186 @@
+package com.shinybunny.cmdapi;
+
+import com.shinybunny.cmdapi.annotations.Command;
+import com.shinybunny.cmdapi.annotations.Range;
+import com.shinybunny.cmdapi.arguments.Argument;
+import com.shinybunny.cmdapi.exceptions.CommandParseException;
+import com.shinybunny.cmdapi.exceptions.InvalidArgumentException;
+import com.shinybunny.cmdapi.exceptions.MissingArgumentException;
+import com.shinybunny.cmdapi.exceptions.UnknownCommandException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.naming.NoPermissionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link CommandManager#tryParse(Sender, String)} describing each kind of invalid input with its {@link ParseOutcome.Error error},
+ * the argument that failed and the position in the input it failed at, and {@link ParseOutcome#getResultsOrThrow()} throwing what parsing would throw.
+ */
+class TryParseTest {
+
+    public static class Shop {
+
+        public int buy(Sender sender, String item, @Range(min = 1, max = 64) int amount, Double price) {
+            return amount;
+        }
+
+        @Command(permission = "shop.sell", noPermissionMessage = "Not a seller")
+        public void sell(Sender sender, String item) {
+        }
+    }
+
+    @Command(name = "bank")
+    public static class Bank {
+
+        public void deposit(Sender sender, int amount) {
+        }
+
+        @Command(permission = "bank.admin", noPermissionMessage = "Not a banker")
+        public void reset(Sender sender, String account) {
+        }
+    }
+
+    private CommandManager manager;
+    private final TestSender sender = new TestSender();
+
+    @BeforeEach
+    void setup() throws Exception {
+        manager = new CommandManager();
+        manager.register(new Shop());
+        manager.register(new Bank());
+    }
+
+    private Argument argument(String cmd, int index) {
+        return manager.getCommand(cmd).getArguments().get(index);
+    }
+
+    @Test
+    void success() throws Exception {
+        ParseOutcome outcome = manager.tryParse(sender, "buy apple 3 2.5");
+        assertTrue(outcome.isSuccess());
+        assertNull(outcome.getError());
+        assertNull(outcome.getArgument());
+        assertNull(outcome.getMessage());
+        assertEquals(-1, outcome.getCursor());
+        assertSame(outcome.getResults(), outcome.getResultsOrThrow());
+        assertEquals(3, outcome.getResults().execute().result());
+    }
+
+    @Test
+    void unknownCommand() {
+        ParseOutcome outcome = manager.tryParse(sender, "nope 1 2");
+        assertEquals(ParseOutcome.Error.UNKNOWN_COMMAND, outcome.getError());
+        assertFalse(outcome.isSuccess());
+        assertNull(outcome.getResults());
+        assertNull(outcome.getArgument());
+        assertEquals(0, outcome.getCursor());
+        assertEquals("Unknown command 'nope'!", outcome.getMessage());
+        assertThrows(UnknownCommandException.class, outcome::getResultsOrThrow);
+        assertThrows(UnknownCommandException.class, () -> manager.parse(sender, "nope 1 2"));
+    }
+
+    @Test
+    void noPermission() {
+        ParseOutcome outcome = manager.tryParse(new TestSender("shop.buy"), "sell apple");
+        assertEquals(ParseOutcome.Error.NO_PERMISSION, outcome.getError());
+        assertNull(outcome.getArgument());
+        // denied right after the alias, before any argument is read
+        assertEquals(5, outcome.getCursor());
+        assertEquals("Not a seller", outcome.getMessage());
+        NoPermissionException e = assertThrows(NoPermissionException.class, outcome::getResultsOrThrow);
+        assertEquals("Not a seller", e.getMessage());
+    }
+
+    @Test
+    void noPermissionForSubCommand() {
+        ParseOutcome outcome = manager.tryParse(new TestSender("bank.use"), "bank reset alice");
+        assertEquals(ParseOutcome.Error.NO_PERMISSION, outcome.getError());
+        assertNull(outcome.getArgument());
+        assertEquals(11, outcome.getCursor());
+        assertEquals("Not a banker", outcome.getMessage());
+        assertTrue(manager.tryParse(new TestSender("bank.use"), "bank deposit 5").isSuccess());
+    }
+
+    @Test
+    void missingArgument() {
+        // strings are nullable, so the first missing argument is the amount
+        ParseOutcome outcome = manager.tryParse(sender, "buy");
+        assertEquals(ParseOutcome.Error.MISSING_ARGUMENT, outcome.getError());
+        assertSame(argument("buy", 2), outcome.getArgument());
+        assertEquals(3, outcome.getCursor());
+        assertEquals("Missing argument " + outcome.getArgument(), outcome.getMessage());
+        MissingArgumentException e = assertThrows(MissingArgumentException.class, outcome::getResultsOrThrow);
+        assertEquals(outcome.getMessage(), e.getMessage());
+
+        outcome = manager.tryParse(sender, "buy apple");
+        assertEquals(ParseOutcome.Error.MISSING_ARGUMENT, outcome.getError());
+        assertSame(argument("buy", 2), outcome.getArgument());
+        assertEquals(9, outcome.getCursor());
+    }
+
+    @Test
+    void missingSubCommand() {
+        ParseOutcome outcome = manager.tryParse(sender, "bank");
+        assertEquals(ParseOutcome.Error.MISSING_ARGUMENT, outcome.getError());
+        assertSame(argument("bank", 0), outcome.getArgument());
+        assertEquals(4, outcome.getCursor());
+        assertThrows(MissingArgumentException.class, outcome::getResultsOrThrow);
+    }
+
+    @Test
+    void parseErrorOfPrimitive() {
+        ParseOutcome outcome = manager.tryParse(sender, "buy apple x");
+        assertEquals(ParseOutcome.Error.PARSE_ERROR, outcome.getError());
+        assertSame(argument("buy", 2), outcome.getArgument());
+        assertEquals(10, outcome.getCursor());
+        CommandParseException e = assertThrows(CommandParseException.class, outcome::getResultsOrThrow);
+        assertEquals(outcome.getMessage(), e.getMessage());
+    }
+
+    @Test
+    void parseErrorOfObject() {
+        ParseOutcome outcome = manager.tryParse(sender, "buy apple 3 cheap");
+        assertEquals(ParseOutcome.Error.PARSE_ERROR, outcome.getError());
+        assertSame(argument("buy", 3), outcome.getArgument());
+        assertEquals(12, outcome.getCursor());
+        assertThrows(CommandParseException.class, outcome::getResultsOrThrow);
+    }
+
+    @Test
+    void unknownSubCommand() {
+        ParseOutcome outcome = manager.tryParse(sender, "bank steal 5");
+        assertEquals(ParseOutcome.Error.PARSE_ERROR, outcome.getError());
+        assertSame(argument("bank", 0), outcome.getArgument());
+        assertEquals(5, outcome.getCursor());
+        assertEquals("Unknown sub command 'steal'", outcome.getMessage());
+        CommandParseException e = assertThrows(CommandParseException.class, outcome::getResultsOrThrow);
+        assertEquals("Unknown sub command 'steal'", e.getMessage());
+    }
+
+    @Test
+    void parseErrorInSubCommand() {
+        ParseOutcome outcome = manager.tryParse(sender, "bank deposit lots");
+        assertEquals(ParseOutcome.Error.PARSE_ERROR, outcome.getError());
+        assertEquals("amount", outcome.getArgument().getName());
+        assertEquals(13, outcome.getCursor());
+    }
+
+    @Test
+    void invalidArgument() {
+        ParseOutcome outcome = manager.tryParse(sender, "buy apple 65");
+        assertEquals(ParseOutcome.Error.INVALID_ARGUMENT, outcome.getError());
+        assertSame(argument("buy", 2), outcome.getArgument());
+        assertEquals(10, outcome.getCursor());
+        assertEquals("amount value must be between 1.0 and 64.0!", outcome.getMessage());
+        InvalidArgumentException e = assertThrows(InvalidArgumentException.class, outcome::getResultsOrThrow);
+        assertEquals(outcome.getMessage(), e.getMessage());
+        assertThrows(InvalidArgumentException.class, () -> manager.parse(sender, "buy apple 0"));
+    }
+}
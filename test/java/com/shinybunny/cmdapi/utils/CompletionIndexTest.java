@@ -0,0 +1,151 @@
+package com.shinybunny.cmdapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link CompletionIndex} completing prefixes ignoring case, stopping at the first value past the prefix,
+ * and staying consistent while values are added and removed by other threads.
+ */
+class CompletionIndexTest {
+
+    @Test
+    void ignoresCase() {
+        CompletionIndex index = new CompletionIndex(Arrays.asList("Steve", "alex", "ALICE"));
+        assertEquals(Arrays.asList("alex", "ALICE"), index.complete("al", 10));
+        assertEquals(Arrays.asList("alex", "ALICE"), index.complete("AL", 10));
+        assertEquals(Arrays.asList("alex", "ALICE", "Steve"), index.complete("", 10));
+        assertTrue(index.contains("sTeVe"));
+        assertFalse(index.contains("stev"));
+    }
+
+    @Test
+    void valuesDifferingInCaseAreOneValue() {
+        CompletionIndex index = new CompletionIndex();
+        index.add("Steve");
+        index.add("steve");
+        assertEquals(1, index.size());
+        assertEquals(Collections.singletonList("steve"), index.complete("S", 10));
+        assertTrue(index.remove("STEVE"));
+        assertFalse(index.remove("steve"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void foldsLikeAliases() {
+        // characters whose upper case is an ascii letter fold to the ascii letter, like in AliasIndex
+        CompletionIndex index = new CompletionIndex(Arrays.asList("ſtone", "Key"));
+        assertEquals(Collections.singletonList("ſtone"), index.complete("st", 10));
+        assertEquals(Collections.singletonList("Key"), index.complete("KE", 10));
+        assertTrue(index.contains("STONE"));
+    }
+
+    @Test
+    void stopsAtTheEndOfThePrefix() {
+        CompletionIndex index = new CompletionIndex(Arrays.asList("b", "ac", "abd", "ab", "abc", "a"));
+        assertEquals(Arrays.asList("ab", "abc", "abd"), index.complete("ab", 10));
+        assertEquals(Arrays.asList("ab", "abc"), index.complete("ab", 2));
+        assertEquals(Collections.singletonList("abc"), index.complete("abc", 10));
+        assertEquals(Arrays.asList("a", "ab", "abc", "abd", "ac"), index.complete("a", 10));
+        assertTrue(index.complete("abcd", 10).isEmpty());
+        assertTrue(index.complete("aa", 10).isEmpty());
+        assertTrue(index.complete("z", 10).isEmpty());
+        assertTrue(index.complete("a", 0).isEmpty());
+    }
+
+    @Test
+    void visitsARangeUntilTheVisitorStops() {
+        CompletionIndex index = new CompletionIndex(Arrays.asList("ab", "abc", "abd", "ac"));
+        List<String> visited = new ArrayList<>();
+        index.visit("buy AB 3", 4, 6, value -> {
+            visited.add(value);
+            return !value.equals("abc");
+        });
+        assertEquals(Arrays.asList("ab", "abc"), visited);
+    }
+
+    @Test
+    void concurrentAddAndRemove() throws Exception {
+        CompletionIndex index = new CompletionIndex();
+        List<String> stable = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            stable.add(String.format("stable-%03d", i));
+        }
+        index.addAll(stable);
+        int writers = 4;
+        int readers = 4;
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch writersDone = new CountDownLatch(writers);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            String prefix = "churn-" + w + "-";
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int round = 0; round < 200; round++) {
+                        for (int i = 0; i < 50; i++) {
+                            index.add(prefix + i);
+                        }
+                        for (int i = 0; i < 50; i++) {
+                            // removed in another case than added
+                            if (!index.remove((prefix + i).toUpperCase())) {
+                                throw new AssertionError("lost " + prefix + i);
+                            }
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    writersDone.countDown();
+                }
+            }));
+        }
+        for (int r = 0; r < readers; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    while (writing.get()) {
+                        // the values nobody touches are always all there, in order
+                        assertEquals(stable, index.complete("STABLE", 1000));
+                        List<String> churn = index.complete("churn", 1000);
+                        for (int i = 0; i < churn.size(); i++) {
+                            assertTrue(churn.get(i).startsWith("churn-"), churn.get(i));
+                            if (i > 0) {
+                                assertTrue(churn.get(i - 1).compareToIgnoreCase(churn.get(i)) < 0, churn.toString());
+                            }
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        assertTrue(writersDone.await(60, TimeUnit.SECONDS));
+        writing.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+        assertEquals(100, index.size());
+        assertTrue(index.complete("churn", 1000).isEmpty());
+    }
+}
@@ -0,0 +1,87 @@
+package com.shinybunny.cmdapi.utils;
+
+import com.shinybunny.cmdapi.exceptions.CommandParseException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link InputReader} parsing numbers right from the input, failing on overflow and malformed numbers like {@link Long#parseLong(String)}
+ * and {@link Double#parseDouble(String)} do, and stopping at the end of the number.
+ */
+class InputReaderTest {
+
+    private static void assertInvalid(String input, String message, Parse parse) {
+        CommandParseException e = assertThrows(CommandParseException.class, () -> parse.read(new InputReader(input)), input);
+        assertEquals(message, e.getMessage(), input);
+    }
+
+    @Test
+    void integers() throws Exception {
+        assertEquals(0, new InputReader("0").readInt());
+        assertEquals(-42, new InputReader("-42").readInt());
+        assertEquals(Integer.MAX_VALUE, new InputReader("2147483647").readInt());
+        assertEquals(Integer.MIN_VALUE, new InputReader("-2147483648").readInt());
+        assertEquals(Long.MAX_VALUE, new InputReader("9223372036854775807").readLong());
+        assertEquals(Long.MIN_VALUE, new InputReader("-9223372036854775808").readLong());
+        assertEquals(7, new InputReader("007").readInt());
+
+        assertInvalid("2147483648", "Invalid number 2147483648", InputReader::readInt);
+        assertInvalid("-2147483649", "Invalid number -2147483649", InputReader::readInt);
+        assertInvalid("9223372036854775808", "Invalid number 9223372036854775808", InputReader::readLong);
+        assertInvalid("-9223372036854775809", "Invalid number -9223372036854775809", InputReader::readLong);
+        assertInvalid("99999999999999999999", "Invalid number 99999999999999999999", InputReader::readLong);
+        assertInvalid("-", "Invalid number -", InputReader::readInt);
+        assertInvalid("", "Invalid number ", InputReader::readInt);
+        assertInvalid("1.", "Invalid number 1.", InputReader::readInt);
+        assertInvalid("1.2.3", "Invalid number 1.2.3", InputReader::readLong);
+        assertInvalid("--1", "Invalid number --1", InputReader::readInt);
+        assertInvalid("1-", "Invalid number 1-", InputReader::readInt);
+        assertInvalid("x", "Invalid number ", InputReader::readInt);
+    }
+
+    @Test
+    void decimals() throws Exception {
+        String[] inputs = {"0", "-0", "1", "1.", ".5", "-.5", "0.1", "-2.75", "3.141592653589793", "123456789012345.6",
+                "0.0000000000000000000001", "0.00000000000000000000001", "9007199254740993", "1.00000000000000000000000001", "00.250"};
+        for (String input : inputs) {
+            InputReader reader = new InputReader(input);
+            // bit for bit, so -0 stays negative and every rounding matches
+            assertEquals(Double.doubleToRawLongBits(Double.parseDouble(input)), Double.doubleToRawLongBits(reader.readDouble()), input);
+            assertFalse(reader.canRead(), input);
+        }
+        assertInvalid("-", "Invalid decimal number -", InputReader::readDouble);
+        assertInvalid(".", "Invalid decimal number .", InputReader::readDouble);
+        assertInvalid("1.2.3", "Invalid decimal number 1.2.3", InputReader::readDouble);
+        assertInvalid("1-2", "Invalid decimal number 1-2", InputReader::readDouble);
+        assertInvalid("", "Invalid decimal number ", InputReader::readDouble);
+    }
+
+    @Test
+    void stopsAtTheEndOfTheNumber() throws Exception {
+        InputReader reader = new InputReader("12 -3.5 true rest of it");
+        assertEquals(12, reader.readInt());
+        reader.skipSpace();
+        assertEquals(-3.5, reader.readDouble());
+        reader.skipSpace();
+        assertTrue(reader.readBoolean());
+        reader.skipSpace();
+        assertEquals("rest of it", reader.rest());
+
+        char[] chars = "> 64 FALSE <".toCharArray();
+        InputReader view = new InputReader(chars, 2, 8);
+        assertEquals(64, view.readByte());
+        view.skipSpace();
+        assertFalse(view.readBoolean());
+        assertFalse(view.canRead());
+        assertInvalid("yes", "Invalid boolean yes", InputReader::readBoolean);
+        assertInvalid("truest", "Invalid boolean truest", InputReader::readBoolean);
+    }
+
+    private interface Parse {
+        void read(InputReader reader) throws CommandParseException;
+    }
+}
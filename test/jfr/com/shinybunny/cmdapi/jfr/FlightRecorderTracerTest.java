@@ -0,0 +1,185 @@
+package com.shinybunny.cmdapi.jfr;
+
+import com.shinybunny.cmdapi.CommandManager;
+import com.shinybunny.cmdapi.Sender;
+import com.shinybunny.cmdapi.SilentSender;
+import com.shinybunny.cmdapi.annotations.Range;
+import com.shinybunny.cmdapi.tracing.ParseTracer;
+import com.shinybunny.cmdapi.tracing.RingBufferTracer;
+import com.shinybunny.cmdapi.tracing.TraceEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * {@link FlightRecorderTracer} emitting an event for every phase of handling an input while its events are enabled in a recording,
+ * and creating no events while they're not.
+ */
+class FlightRecorderTracerTest {
+
+    private static final String[] EVENTS = {"GetCommand", "Parse", "AdapterParse", "AnnotationProcess", "ValidateUse", "Run"};
+
+    public static class Shop {
+        public int buy(Sender sender, String item, @Range(min = 1, max = 64) int amount) {
+            return amount;
+        }
+    }
+
+    private CommandManager manager;
+    private Path file;
+
+    @BeforeEach
+    void setup() throws Exception {
+        manager = new CommandManager();
+        manager.register(new Shop());
+        manager.setTracer(ParseTracer.flightRecorder());
+        file = Files.createTempFile("cmdapi", ".jfr");
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void isTheFlightRecorderTracer() {
+        assertSame(FlightRecorderTracer.INSTANCE, ParseTracer.flightRecorder());
+    }
+
+    @Test
+    void recordsEveryPhase() throws Exception {
+        List<RecordedEvent> events = record(() -> {
+            manager.parse(SilentSender.INSTANCE, "buy apple 5").execute();
+            // fails in the range annotation of the amount
+            manager.tryParse(SilentSender.INSTANCE, "buy apple 100");
+            manager.tryParse(SilentSender.INSTANCE, "nope");
+        }, EVENTS);
+
+        List<RecordedEvent> getCommand = named(events, "GetCommand");
+        assertEquals(3, getCommand.size());
+        assertEquals("buy", getCommand.get(0).getString("command"));
+        assertEquals(11, getCommand.get(0).getInt("inputLength"));
+        assertNull(getCommand.get(2).getString("command"));
+
+        List<RecordedEvent> parse = named(events, "Parse");
+        assertEquals(2, parse.size());
+        assertNull(parse.get(0).getString("argument"));
+        assertEquals("amount", parse.get(1).getString("argument"));
+        assertEquals(13, parse.get(1).getInt("inputLength"));
+
+        assertEquals(Arrays.asList("item", "amount", "item", "amount"), arguments(named(events, "AdapterParse")));
+        // the range check of the second input threw, and a phase that throws is not ended
+        assertEquals(Collections.singletonList("amount"), arguments(named(events, "AnnotationProcess")));
+        assertEquals(2, named(events, "ValidateUse").size());
+
+        List<RecordedEvent> run = named(events, "Run");
+        assertEquals(1, run.size());
+        assertEquals("buy", run.get(0).getString("command"));
+        for (RecordedEvent event : events) {
+            assertEquals("CommandAPI", event.getEventType().getCategoryNames().get(0));
+        }
+    }
+
+    @Test
+    void recordsOnlyEnabledEvents() throws Exception {
+        List<RecordedEvent> events = record(() -> manager.parse(SilentSender.INSTANCE, "buy apple 5").execute(), "Run");
+        assertEquals(1, events.size());
+        assertEquals("com.shinybunny.cmdapi.Run", events.get(0).getEventType().getName());
+    }
+
+    @Test
+    void combinedWithRingBuffer() throws Exception {
+        RingBufferTracer ring = new RingBufferTracer(16);
+        manager.setTracer(ParseTracer.of(ring, ParseTracer.flightRecorder()));
+        List<RecordedEvent> events = record(() -> manager.parse(SilentSender.INSTANCE, "buy apple 5").execute(), "Run");
+        assertEquals(1, events.size());
+        assertEquals("buy", events.get(0).getString("command"));
+        // the ring buffer still recorded the steps, up to the range of the amount
+        List<TraceEvent> steps = ring.getEvents();
+        TraceEvent last = steps.get(steps.size() - 1);
+        assertEquals(TraceEvent.Type.ANNOTATION_PROCESSED, last.getType());
+        assertEquals(5, last.getValue());
+    }
+
+    @Test
+    void disabledByDefault() throws Exception {
+        assertEquals(Collections.emptyList(), record(() -> manager.parse(SilentSender.INSTANCE, "buy apple 5").execute()));
+    }
+
+    @Test
+    void noTokensWhileNotRecording() {
+        for (ParseTracer.Phase phase : ParseTracer.Phase.values()) {
+            assertNull(FlightRecorderTracer.INSTANCE.begin(phase), phase.name());
+        }
+    }
+
+    /**
+     * Runs the action while recording the events of this library.
+     * @param enabled The names of the events to enable in the recording, without the <code>com.shinybunny.cmdapi.</code> prefix
+     * @return The recorded events of this library
+     */
+    private List<RecordedEvent> record(Action action, String... enabled) throws Exception {
+        try (Recording recording = new Recording()) {
+            for (String event : enabled) {
+                recording.enable("com.shinybunny.cmdapi." + event).withoutThreshold();
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = ours(RecordingFile.readAllEvents(file));
+        // by the time they started, as events are written once they end
+        events.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+        return events;
+    }
+
+    /**
+     * @return The events of this library, without the events the JVM records about the recording itself
+     */
+    private static List<RecordedEvent> ours(List<RecordedEvent> events) {
+        List<RecordedEvent> ours = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().startsWith("com.shinybunny.cmdapi.")) {
+                ours.add(event);
+            }
+        }
+        return ours;
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> named = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals("com.shinybunny.cmdapi." + name)) {
+                named.add(event);
+            }
+        }
+        return named;
+    }
+
+    private static List<String> arguments(List<RecordedEvent> events) {
+        List<String> arguments = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            arguments.add(event.getString("argument"));
+        }
+        return arguments;
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+}